@@ -0,0 +1,29 @@
+package org.fugazi.auth;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.fugazi.data.models.Credentials;
+
+/**
+ * Marks a test class or method as requiring an authenticated browser session.
+ * Before the test starts, the saved login state for the account (cookies, localStorage, sessionStorage)
+ * is restored into the session; the account logs in only when no valid state has been captured yet.
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface AuthenticatedSession {
+
+    /**
+     * The test account to authenticate as.
+     *
+     * @return the user type, customer by default
+     */
+    Credentials.UserType value() default Credentials.UserType.CUSTOMER;
+}
@@ -0,0 +1,140 @@
+package org.fugazi.auth;
+
+import java.util.Map;
+
+import io.qameta.allure.Step;
+
+import org.fugazi.config.ConfigurationManager;
+import org.fugazi.data.models.Credentials;
+import org.fugazi.pages.LoginPage;
+import org.fugazi.utils.RunMetrics;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Authenticates a browser session without driving the login form.
+ * Posts the credentials to the login API with a single in-page fetch, so the browser stores the session
+ * cookies itself (optionally the response body is also written to localStorage for the front end).
+ * Falls back to the UI login when the API is unavailable or rejects the request.
+ * Tests that verify the login form itself should keep using {@link LoginPage}.
+ */
+public final class SessionBootstrapper {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionBootstrapper.class);
+
+    private static final String LOGIN_SCRIPT = """
+            const [path, email, password, storageKey] = arguments;
+            const callback = arguments[arguments.length - 1];
+            fetch(path, {
+                method: 'POST',
+                credentials: 'include',
+                headers: {'Content-Type': 'application/json', 'Accept': 'application/json'},
+                body: JSON.stringify({email: email, password: password})
+            }).then(response => response.text().then(body => {
+                if (response.ok && storageKey) {
+                    window.localStorage.setItem(storageKey, body);
+                }
+                callback({status: response.status, ok: response.ok});
+            })).catch(error => callback({status: 0, ok: false, error: String(error)}));
+            """;
+
+    // Set once the endpoint is known not to exist, so later tests go straight to the UI login
+    private static volatile boolean apiUnavailable;
+
+    private SessionBootstrapper() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Authenticate the session as the customer test account.
+     *
+     * @param driver the WebDriver instance
+     */
+    public static void loginAsCustomer(WebDriver driver) {
+        login(driver, Credentials.CUSTOMER_CREDENTIALS);
+    }
+
+    /**
+     * Authenticate the session as the admin test account.
+     *
+     * @param driver the WebDriver instance
+     */
+    public static void loginAsAdmin(WebDriver driver) {
+        login(driver, Credentials.ADMIN_CREDENTIALS);
+    }
+
+    /**
+     * Authenticate the session with the given credentials, preferring the login API over the UI form.
+     * The driver is left on the shop origin.
+     *
+     * @param driver      the WebDriver instance
+     * @param credentials the account to authenticate
+     */
+    @Step("Bootstrap authenticated session for {credentials.email}")
+    public static void login(WebDriver driver, Credentials credentials) {
+        if (!apiUnavailable && loginViaApi(driver, credentials)) {
+            RunMetrics.increment("auth.api.login");
+            log.info("Session authenticated via login API for {}", credentials.email());
+            return;
+        }
+
+        RunMetrics.increment("auth.ui.fallback");
+        loginViaUi(driver, credentials);
+    }
+
+    /**
+     * Post the credentials to the login API from inside the page.
+     *
+     * @param driver      the WebDriver instance
+     * @param credentials the account to authenticate
+     * @return true if the API accepted the credentials
+     */
+    private static boolean loginViaApi(WebDriver driver, Credentials credentials) {
+        var config = ConfigurationManager.getInstance();
+        try {
+            ensureOnOrigin(driver, config.getBaseUrl());
+            var result = (Map<?, ?>) ((JavascriptExecutor) driver).executeAsyncScript(LOGIN_SCRIPT,
+                    config.getAuthApiLoginPath(), credentials.email(), credentials.password(),
+                    config.getAuthStorageKey());
+
+            if (result != null && Boolean.TRUE.equals(result.get("ok"))) {
+                return true;
+            }
+
+            var status = result == null ? 0 : ((Number) result.get("status")).intValue();
+            if (status == 404 || status == 405) {
+                apiUnavailable = true;
+                log.info("Login API {} not available (HTTP {}), using the login form from now on",
+                        config.getAuthApiLoginPath(), status);
+            } else {
+                log.warn("Login API rejected {} (HTTP {}), falling back to the login form",
+                        credentials.email(), status);
+            }
+        } catch (WebDriverException | ClassCastException e) {
+            log.warn("Login API call failed, falling back to the login form: {}", e.getMessage());
+        }
+        return false;
+    }
+
+    private static void loginViaUi(WebDriver driver, Credentials credentials) {
+        log.info("Authenticating {} through the login form", credentials.email());
+        driver.get(ConfigurationManager.getInstance().getBaseUrl() + "/login");
+        new LoginPage(driver).login(credentials);
+    }
+
+    /**
+     * Same-origin fetches need a document from the shop, so open the base URL when the session is elsewhere.
+     *
+     * @param driver  the WebDriver instance
+     * @param baseUrl the shop base URL
+     */
+    private static void ensureOnOrigin(WebDriver driver, String baseUrl) {
+        var currentUrl = driver.getCurrentUrl();
+        if (currentUrl == null || !currentUrl.startsWith(baseUrl)) {
+            driver.get(baseUrl);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.fugazi.auth;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Authenticated browser state for the shop origin, captured after a successful login.
+ *
+ * @param email          the account the state belongs to
+ * @param capturedAt     epoch milliseconds when the state was captured
+ * @param cookies        the cookies visible to the shop origin
+ * @param localStorage   the origin's localStorage entries
+ * @param sessionStorage the origin's sessionStorage entries
+ */
+public record StorageState(String email, long capturedAt, List<StoredCookie> cookies,
+        Map<String, String> localStorage, Map<String, String> sessionStorage) {
+
+    /**
+     * Check whether the state can still be restored: within its time-to-live and with no expired cookie.
+     *
+     * @param ttl the maximum age of the state
+     * @param now the current time
+     * @return true if the state is still usable
+     */
+    public boolean isValid(Duration ttl, Instant now) {
+        if (Instant.ofEpochMilli(capturedAt).plus(ttl).isBefore(now)) {
+            return false;
+        }
+        return cookies.stream().noneMatch(cookie -> cookie.expiry() != null && cookie.expiry() <= now.toEpochMilli());
+    }
+
+    /**
+     * A serializable browser cookie.
+     *
+     * @param name     the cookie name
+     * @param value    the cookie value
+     * @param domain   the cookie domain, or null for a host-only cookie
+     * @param path     the cookie path
+     * @param expiry   the expiry in epoch milliseconds, or null for a session cookie
+     * @param secure   whether the cookie is secure-only
+     * @param httpOnly whether the cookie is HTTP-only
+     * @param sameSite the SameSite attribute, or null if not set
+     */
+    public record StoredCookie(String name, String value, String domain, String path, Long expiry,
+            boolean secure, boolean httpOnly, String sameSite) {
+    }
+}
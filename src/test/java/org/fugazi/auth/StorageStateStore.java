@@ -0,0 +1,413 @@
+package org.fugazi.auth;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.qameta.allure.Step;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.fugazi.config.ConfigurationManager;
+import org.fugazi.data.models.Credentials;
+import org.fugazi.utils.RunMetrics;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Captures and restores authenticated storage state (cookies, localStorage, sessionStorage) per test account.
+ * The first session that needs an account logs in once and saves its state to target/auth; every other
+ * session, in this fork or another one, restores that state instead of logging in again.
+ * Saving and refreshing are serialized across forks with a file lock, so an expired state leads to a single
+ * re-login while the other workers wait for and reuse its result. A restored state the application no longer
+ * accepts (e.g. a session revoked on the server) is found by {@link #verify(WebDriver, Credentials)}, which
+ * drops it and logs in once.
+ */
+public final class StorageStateStore {
+
+    private static final Logger log = LoggerFactory.getLogger(StorageStateStore.class);
+    private static final String STATE_DIR = "target/auth";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static volatile StorageStateStore instance;
+
+    private static final String CAPTURE_SCRIPT = """
+            const copy = storage => {
+                const entries = {};
+                for (let i = 0; i < storage.length; i++) {
+                    const key = storage.key(i);
+                    entries[key] = storage.getItem(key);
+                }
+                return entries;
+            };
+            return JSON.stringify({local: copy(window.localStorage), session: copy(window.sessionStorage)});
+            """;
+
+    private static final String RESTORE_SCRIPT = """
+            Object.entries(JSON.parse(arguments[0])).forEach(([key, value]) => window.localStorage.setItem(key, value));
+            Object.entries(JSON.parse(arguments[1])).forEach(([key, value]) => window.sessionStorage.setItem(key, value));
+            """;
+
+    private static final String SESSION_CHECK_SCRIPT = """
+            const callback = arguments[arguments.length - 1];
+            if (location.pathname.startsWith('/login')) { callback({authenticated: false, status: 0}); return; }
+            if (!arguments[0]) { callback({authenticated: true, status: 0}); return; }
+            fetch(arguments[0], {credentials: 'include', headers: {'Accept': 'application/json'}})
+                .then(response => callback({
+                    authenticated: response.ok && !new URL(response.url).pathname.startsWith('/login'),
+                    status: response.status
+                }))
+                .catch(error => callback({authenticated: true, status: 0, error: String(error)}));
+            """;
+
+    private final ConfigurationManager config;
+    private final Map<String, StorageState> states = new ConcurrentHashMap<>();
+    private final Map<String, Object> accountLocks = new ConcurrentHashMap<>();
+    // Accounts whose login leaves nothing in cookies or web storage, so there is no state worth restoring
+    private final Map<String, Boolean> notCapturable = new ConcurrentHashMap<>();
+    // The state each session was given by restore, until verify has checked it
+    private final Map<WebDriver, StorageState> unverified = Collections.synchronizedMap(new WeakHashMap<>());
+    // Set once the session endpoint is known not to exist, so only the /login redirect is checked
+    private volatile boolean sessionCheckUnavailable;
+
+    private StorageStateStore() {
+        this.config = ConfigurationManager.getInstance();
+    }
+
+    /**
+     * Get the singleton store for this JVM fork.
+     *
+     * @return the StorageStateStore instance
+     */
+    public static StorageStateStore getInstance() {
+        if (instance == null) {
+            synchronized (StorageStateStore.class) {
+                if (instance == null) {
+                    instance = new StorageStateStore();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Authenticate the session by restoring the account's saved state, logging in only if none is valid.
+     * The driver is left on the shop origin; reload or navigate so the application picks up the state.
+     *
+     * @param driver      the WebDriver instance
+     * @param credentials the account to authenticate
+     */
+    @Step("Restore authenticated session for {credentials.email}")
+    public void restore(WebDriver driver, Credentials credentials) {
+        if (notCapturable.containsKey(credentials.email())) {
+            SessionBootstrapper.login(driver, credentials);
+            return;
+        }
+
+        var state = states.get(credentials.email());
+        if (state == null || !isValid(state)) {
+            state = refresh(driver, credentials, state);
+            if (state == null) {
+                // This session just logged in, so it is already authenticated
+                return;
+            }
+        }
+
+        var start = System.nanoTime();
+        ensureOnOrigin(driver);
+        applyCookies(driver, state.cookies());
+        ((JavascriptExecutor) driver).executeScript(RESTORE_SCRIPT,
+                toJson(state.localStorage()), toJson(state.sessionStorage()));
+
+        unverified.put(driver, state);
+        RunMetrics.increment("auth.state.restored");
+        log.debug("Restored storage state for {} in {} ms", credentials.email(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Check that the application still accepts the state restored into this session, once it has loaded a page.
+     * A rejected state is discarded and the session logs in again; workers that restored the same state reuse
+     * that one login. Sessions that logged in themselves are not checked.
+     *
+     * @param driver      the WebDriver instance
+     * @param credentials the account the session was restored for
+     * @return true if the session was logged in again, so the current page should be reloaded
+     */
+    @Step("Verify restored session for {credentials.email}")
+    public boolean verify(WebDriver driver, Credentials credentials) {
+        var state = unverified.remove(driver);
+        if (state == null || isAuthenticated(driver)) {
+            return false;
+        }
+
+        log.warn("Restored storage state for {} was rejected, logging in again", credentials.email());
+        RunMetrics.increment("auth.state.rejected");
+        invalidate(credentials, state);
+        driver.manage().deleteAllCookies();
+        restore(driver, credentials);
+        unverified.remove(driver);
+        return true;
+    }
+
+    /**
+     * Discard the saved state for an account, e.g. after the application rejected it.
+     * The next {@link #restore(WebDriver, Credentials)} logs in again.
+     *
+     * @param credentials the account whose state should be dropped
+     */
+    public void invalidate(Credentials credentials) {
+        invalidate(credentials, null);
+    }
+
+    /**
+     * Discard the saved state for an account unless it has already been replaced.
+     *
+     * @param credentials the account whose state should be dropped
+     * @param rejected    the state found invalid, or null to drop whatever is saved
+     */
+    private void invalidate(Credentials credentials, StorageState rejected) {
+        var email = credentials.email();
+        synchronized (lockFor(email)) {
+            var cached = states.get(email);
+            if (rejected != null && cached != null && cached != rejected) {
+                // Another worker in this fork already logged in again
+                return;
+            }
+            states.remove(email);
+
+            var statePath = statePath(email);
+            var lockPath = statePath.resolveSibling(statePath.getFileName() + ".lock");
+            try {
+                Files.createDirectories(statePath.getParent());
+                try (var channel = FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                     var ignored = channel.lock()) {
+                    var saved = read(statePath);
+                    // Keep a state another fork saved after the rejected one
+                    if (rejected == null || saved == null || saved.capturedAt() <= rejected.capturedAt()) {
+                        Files.deleteIfExists(statePath);
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Could not delete storage state for {}: {}", email, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Ask the application whether the session is logged in: not on /login, and the session endpoint answers 200.
+     * Errors other than a rejection count as authenticated, so a flaky endpoint does not cause extra logins.
+     *
+     * @param driver the WebDriver instance
+     * @return false if the application rejected the session
+     */
+    private boolean isAuthenticated(WebDriver driver) {
+        var path = sessionCheckUnavailable ? "" : config.getAuthSessionCheckPath();
+        try {
+            var result = (Map<?, ?>) ((JavascriptExecutor) driver).executeAsyncScript(SESSION_CHECK_SCRIPT, path);
+            var status = result == null ? 0 : ((Number) result.get("status")).intValue();
+            if (status == 404 || status == 405) {
+                sessionCheckUnavailable = true;
+                log.info("Session endpoint {} not available (HTTP {}), only checking for a /login redirect",
+                        path, status);
+                return true;
+            }
+            return result == null || !Boolean.FALSE.equals(result.get("authenticated"));
+        } catch (WebDriverException | ClassCastException e) {
+            log.debug("Could not check the restored session: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * Load a valid state saved by another worker, or log in and capture a new one.
+     * Holds the fork-wide lock for the account and a file lock shared with other forks.
+     *
+     * @param driver      the WebDriver instance
+     * @param credentials the account to authenticate
+     * @param stale       the state that was found invalid, or null if none was cached
+     * @return the state to restore, or null if this call logged the session in itself
+     */
+    private StorageState refresh(WebDriver driver, Credentials credentials, StorageState stale) {
+        var email = credentials.email();
+        synchronized (lockFor(email)) {
+            var cached = states.get(email);
+            if (cached != null && cached != stale && isValid(cached)) {
+                return cached;
+            }
+
+            var statePath = statePath(email);
+            var lockPath = statePath.resolveSibling(statePath.getFileName() + ".lock");
+            try {
+                Files.createDirectories(statePath.getParent());
+                try (var channel = FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                     var ignored = channel.lock()) {
+                    var saved = read(statePath);
+                    if (saved != null && isValid(saved)) {
+                        states.put(email, saved);
+                        log.debug("Loaded saved storage state for {}", email);
+                        return saved;
+                    }
+
+                    SessionBootstrapper.login(driver, credentials);
+                    var captured = capture(driver, email);
+                    if (captured.cookies().isEmpty() && captured.localStorage().isEmpty()
+                            && captured.sessionStorage().isEmpty()) {
+                        log.warn("Login for {} left no cookies or web storage; state reuse disabled", email);
+                        notCapturable.put(email, Boolean.TRUE);
+                        return null;
+                    }
+
+                    write(statePath, captured);
+                    states.put(email, captured);
+                    RunMetrics.increment("auth.state.captured");
+                    log.info("Captured storage state for {}", email);
+                    return null;
+                }
+            } catch (IOException e) {
+                log.warn("Storage state unavailable for {}, logging in directly: {}", email, e.getMessage());
+                SessionBootstrapper.login(driver, credentials);
+                return null;
+            }
+        }
+    }
+
+    private StorageState capture(WebDriver driver, String email) throws IOException {
+        var cookies = new ArrayList<StorageState.StoredCookie>();
+        for (var cookie : driver.manage().getCookies()) {
+            var domain = cookie.getDomain();
+            cookies.add(new StorageState.StoredCookie(cookie.getName(), cookie.getValue(),
+                    domain != null && domain.startsWith(".") ? domain : null, cookie.getPath(),
+                    cookie.getExpiry() == null ? null : cookie.getExpiry().getTime(),
+                    cookie.isSecure(), cookie.isHttpOnly(), cookie.getSameSite()));
+        }
+
+        var json = (String) ((JavascriptExecutor) driver).executeScript(CAPTURE_SCRIPT);
+        Map<String, Map<String, String>> storage = MAPPER.readValue(Objects.requireNonNull(json),
+                new TypeReference<>() {
+                });
+        return new StorageState(email, System.currentTimeMillis(), cookies,
+                storage.getOrDefault("local", Map.of()), storage.getOrDefault("session", Map.of()));
+    }
+
+    /**
+     * Set all cookies in one CDP call on Chromium, otherwise one WebDriver call per cookie.
+     *
+     * @param driver  the WebDriver instance
+     * @param cookies the cookies to set
+     */
+    private void applyCookies(WebDriver driver, List<StorageState.StoredCookie> cookies) {
+        if (cookies.isEmpty()) {
+            return;
+        }
+
+        if (driver instanceof HasCdp cdp) {
+            var params = new ArrayList<Map<String, Object>>();
+            for (var cookie : cookies) {
+                var param = new HashMap<String, Object>();
+                param.put("name", cookie.name());
+                param.put("value", cookie.value());
+                if (cookie.domain() != null) {
+                    param.put("domain", cookie.domain());
+                    param.put("path", cookie.path() == null ? "/" : cookie.path());
+                } else {
+                    param.put("url", config.getBaseUrl() + (cookie.path() == null ? "/" : cookie.path()));
+                }
+                param.put("secure", cookie.secure());
+                param.put("httpOnly", cookie.httpOnly());
+                if (cookie.sameSite() != null) {
+                    param.put("sameSite", cookie.sameSite());
+                }
+                if (cookie.expiry() != null) {
+                    param.put("expires", cookie.expiry() / 1000.0);
+                }
+                params.add(param);
+            }
+            cdp.executeCdpCommand("Network.setCookies", Map.of("cookies", params));
+            return;
+        }
+
+        for (var cookie : cookies) {
+            driver.manage().addCookie(new Cookie.Builder(cookie.name(), cookie.value())
+                    .domain(cookie.domain())
+                    .path(cookie.path())
+                    .expiresOn(cookie.expiry() == null ? null : new Date(cookie.expiry()))
+                    .isSecure(cookie.secure())
+                    .isHttpOnly(cookie.httpOnly())
+                    .sameSite(cookie.sameSite())
+                    .build());
+        }
+    }
+
+    /**
+     * Cookies and web storage can only be set from a document on the shop origin.
+     * A static asset is enough and avoids booting the application before the state is in place.
+     *
+     * @param driver the WebDriver instance
+     */
+    private void ensureOnOrigin(WebDriver driver) {
+        var currentUrl = driver.getCurrentUrl();
+        if (currentUrl == null || !currentUrl.startsWith(config.getBaseUrl())) {
+            driver.get(config.getBaseUrl() + "/favicon.ico");
+        }
+    }
+
+    private boolean isValid(StorageState state) {
+        return state.isValid(Duration.ofMinutes(config.getAuthStateTtlMinutes()), Instant.now());
+    }
+
+    private Object lockFor(String email) {
+        return accountLocks.computeIfAbsent(email, key -> new Object());
+    }
+
+    private Path statePath(String email) {
+        return Paths.get(STATE_DIR, "storage-state-" + email.replaceAll("[^A-Za-z0-9._-]", "_") + ".json");
+    }
+
+    private StorageState read(Path statePath) {
+        if (!Files.exists(statePath)) {
+            return null;
+        }
+        try {
+            return MAPPER.readValue(statePath.toFile(), StorageState.class);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable storage state {}: {}", statePath, e.getMessage());
+            return null;
+        }
+    }
+
+    private void write(Path statePath, StorageState state) throws IOException {
+        var temp = statePath.resolveSibling(statePath.getFileName() + ".tmp");
+        MAPPER.writeValue(temp.toFile(), state);
+        Files.move(temp, statePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String toJson(Map<String, String> entries) {
+        try {
+            return MAPPER.writeValueAsString(new LinkedHashMap<>(entries));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not serialize storage entries", e);
+        }
+    }
+}
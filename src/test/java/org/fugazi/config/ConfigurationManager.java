@@ -4,6 +4,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.Properties;
 
+import org.fugazi.network.RecordReplayProxy;
+import org.fugazi.server.LocalShopServer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,6 +25,52 @@ public class ConfigurationManager {
     private final boolean headless;
     private final int implicitWait;
     private final int explicitWait;
+    private final boolean explicitWaitsOnly;
+    private final boolean driverPoolEnabled;
+    private final int driverPoolSize;
+    private final int driverPoolMaxUses;
+    private final int driverPoolPrewarmSize;
+    private final String authApiLoginPath;
+    private final String authStorageKey;
+    private final int authStateTtlMinutes;
+    private final String authSessionCheckPath;
+    private final String cartStorageKey;
+    private final String cartStorageTemplate;
+    private final boolean offlineMode;
+    private final int offlineServerPort;
+    private final String offlineSnapshotDir;
+    private final NetworkMode networkMode;
+    private final String netArchiveFile;
+    private final int netProxyPort;
+    private final boolean leanMode;
+    private final String leanBlockedUrls;
+    private final boolean leanBlockImages;
+    private final boolean leanBlockFonts;
+    private final boolean browserCacheTemplate;
+    private final String browserCacheDir;
+    private final String seleniumCacheDir;
+    private final int driverQuitTimeoutSeconds;
+    private final int driverReaperQueueSize;
+    private final int driverRecycleRssMb;
+    private final int driverRecycleHeapMb;
+    private final int driverRecycleLatencyMs;
+    private final boolean waitAdaptiveEnabled;
+    private final int waitAdaptiveFactor;
+    private final int waitAdaptiveMinSamples;
+    private final int waitAdaptiveFloorMs;
+    private final boolean failFast;
+    private final boolean failFastJsErrors;
+    private final String failFastJsIgnore;
+    private final boolean commandTimings;
+    private final boolean tracing;
+    private final int artifactWriterThreads;
+    private final int artifactWriterQueue;
+    private final int artifactFlushTimeoutSeconds;
+    private final boolean screenshotOnFailure;
+    private final boolean artifactPageSourceGzip;
+    private final String artifactScreenshotFormat;
+    private final int artifactScreenshotScalePercent;
+    private final int artifactJpegQuality;
 
     private ConfigurationManager() {
         var properties = loadProperties();
@@ -33,6 +81,52 @@ public class ConfigurationManager {
         this.headless = Boolean.parseBoolean(getProperty(properties, "headless", "false"));
         this.implicitWait = Integer.parseInt(getProperty(properties, "implicit.wait.seconds", "5"));
         this.explicitWait = Integer.parseInt(getProperty(properties, "explicit.wait.seconds", "10"));
+        this.explicitWaitsOnly = Boolean.parseBoolean(getProperty(properties, "explicit.waits.only", "false"));
+        this.driverPoolEnabled = Boolean.parseBoolean(getProperty(properties, "driver.pool.enabled", "true"));
+        this.driverPoolSize = Integer.parseInt(getProperty(properties, "driver.pool.size", "0"));
+        this.driverPoolMaxUses = Integer.parseInt(getProperty(properties, "driver.pool.max.uses", "25"));
+        this.driverPoolPrewarmSize = Integer.parseInt(getProperty(properties, "driver.pool.prewarm.size", "0"));
+        this.authApiLoginPath = getProperty(properties, "auth.api.login.path", "/api/auth/login");
+        this.authStorageKey = getProperty(properties, "auth.storage.key", "");
+        this.authStateTtlMinutes = Integer.parseInt(getProperty(properties, "auth.state.ttl.minutes", "30"));
+        this.authSessionCheckPath = getProperty(properties, "auth.session.check.path", "/api/auth/session");
+        this.cartStorageKey = getProperty(properties, "cart.storage.key", "cart");
+        this.cartStorageTemplate = getProperty(properties, "cart.storage.template", "{\"items\":{items}}");
+        this.offlineMode = Boolean.parseBoolean(getProperty(properties, "offline.mode", "false"));
+        this.offlineServerPort = Integer.parseInt(getProperty(properties, "offline.server.port", "0"));
+        this.offlineSnapshotDir = getProperty(properties, "offline.snapshot.dir", "offline-snapshot");
+        this.networkMode = NetworkMode.fromString(getProperty(properties, "net.mode", "live"));
+        this.netArchiveFile = getProperty(properties, "net.archive.file", "net-archive/shop.netarc");
+        this.netProxyPort = Integer.parseInt(getProperty(properties, "net.proxy.port", "0"));
+        this.leanMode = Boolean.parseBoolean(getProperty(properties, "lean.mode", "false"));
+        this.leanBlockedUrls = getProperty(properties, "lean.blocked.urls", "*google-analytics.com*,*googletagmanager.com*,*doubleclick.net*,*connect.facebook.net*,*hotjar.com*,*/_vercel/insights/*,*/_vercel/speed-insights/*,*vitals.vercel-insights.com*");
+        this.leanBlockImages = Boolean.parseBoolean(getProperty(properties, "lean.block.images", "true"));
+        this.leanBlockFonts = Boolean.parseBoolean(getProperty(properties, "lean.block.fonts", "true"));
+        this.browserCacheTemplate = Boolean.parseBoolean(getProperty(properties, "browser.cache.template", "false"));
+        this.browserCacheDir = getProperty(properties, "browser.cache.dir", "target/browser-cache");
+        this.seleniumCacheDir = getProperty(properties, "selenium.cache.dir", ".selenium-cache");
+        this.driverQuitTimeoutSeconds = Integer.parseInt(getProperty(properties, "driver.quit.timeout.seconds", "10"));
+        this.driverReaperQueueSize = Integer.parseInt(getProperty(properties, "driver.reaper.queue.size", "8"));
+        this.driverRecycleRssMb = Integer.parseInt(getProperty(properties, "driver.recycle.rss.mb", "1536"));
+        this.driverRecycleHeapMb = Integer.parseInt(getProperty(properties, "driver.recycle.heap.mb", "512"));
+        this.driverRecycleLatencyMs = Integer.parseInt(getProperty(properties, "driver.recycle.latency.ms", "2000"));
+        this.waitAdaptiveEnabled = Boolean.parseBoolean(getProperty(properties, "wait.adaptive.enabled", "false"));
+        this.waitAdaptiveFactor = Integer.parseInt(getProperty(properties, "wait.adaptive.factor", "3"));
+        this.waitAdaptiveMinSamples = Integer.parseInt(getProperty(properties, "wait.adaptive.min.samples", "20"));
+        this.waitAdaptiveFloorMs = Integer.parseInt(getProperty(properties, "wait.adaptive.floor.ms", "2000"));
+        this.failFast = Boolean.parseBoolean(getProperty(properties, "failfast.enabled", "true"));
+        this.failFastJsErrors = Boolean.parseBoolean(getProperty(properties, "failfast.js.errors", "true"));
+        this.failFastJsIgnore = getProperty(properties, "failfast.js.ignore", "ResizeObserver loop|^Script error");
+        this.commandTimings = Boolean.parseBoolean(getProperty(properties, "command.timings.enabled", "true"));
+        this.tracing = Boolean.parseBoolean(getProperty(properties, "tracing.enabled", "false"));
+        this.artifactWriterThreads = Integer.parseInt(getProperty(properties, "artifacts.writer.threads", "2"));
+        this.artifactWriterQueue = Integer.parseInt(getProperty(properties, "artifacts.writer.queue", "16"));
+        this.artifactFlushTimeoutSeconds = Integer.parseInt(getProperty(properties, "artifacts.flush.timeout.seconds", "60"));
+        this.screenshotOnFailure = Boolean.parseBoolean(getProperty(properties, "screenshot.on.failure", "true"));
+        this.artifactPageSourceGzip = Boolean.parseBoolean(getProperty(properties, "artifacts.pagesource.gzip", "true"));
+        this.artifactScreenshotFormat = getProperty(properties, "artifacts.screenshot.format", "png");
+        this.artifactScreenshotScalePercent = Integer.parseInt(getProperty(properties, "artifacts.screenshot.scale.percent", "100"));
+        this.artifactJpegQuality = Integer.parseInt(getProperty(properties, "artifacts.screenshot.jpeg.quality", "80"));
 
         log.info("Configuration loaded - URL: {}, Browser: {}, Headless: {}", baseUrl, browserType, headless);
     }
@@ -133,10 +227,27 @@ public class ConfigurationManager {
 
     /**
      * Get the base URL from config or system property.
+     * In offline mode this is the embedded stand-in server, and in record/replay network mode the
+     * loopback record/replay proxy; either is started on first use.
      *
      * @return the base URL
      */
     public String getBaseUrl() {
+        if (isOfflineMode()) {
+            return LocalShopServer.getInstance().getBaseUrl();
+        }
+        if (getNetworkMode() != NetworkMode.LIVE) {
+            return RecordReplayProxy.getInstance().getBaseUrl();
+        }
+        return getRemoteBaseUrl();
+    }
+
+    /**
+     * Get the base URL of the deployed application, ignoring offline and record/replay modes.
+     *
+     * @return the remote base URL
+     */
+    public String getRemoteBaseUrl() {
         var systemBaseUrl = System.getProperty("base.url");
         if (systemBaseUrl != null && !systemBaseUrl.isBlank()) {
             return systemBaseUrl;
@@ -182,5 +293,604 @@ public class ConfigurationManager {
         }
         return explicitWait;
     }
-}
 
+    /**
+     * Check if the suite runs in explicit-waits-only mode (implicit wait disabled on every session).
+     *
+     * @return true if implicit waits are disabled
+     */
+    public boolean isExplicitWaitsOnly() {
+        var systemExplicitWaitsOnly = System.getProperty("explicit.waits.only");
+        if (systemExplicitWaitsOnly != null && !systemExplicitWaitsOnly.isBlank()) {
+            return Boolean.parseBoolean(systemExplicitWaitsOnly);
+        }
+        return explicitWaitsOnly;
+    }
+
+    /**
+     * Check if WebDriver sessions should be pooled and reused between tests.
+     *
+     * @return true if the driver pool is enabled
+     */
+    public boolean isDriverPoolEnabled() {
+        var systemPoolEnabled = System.getProperty("driver.pool.enabled");
+        if (systemPoolEnabled != null && !systemPoolEnabled.isBlank()) {
+            return Boolean.parseBoolean(systemPoolEnabled);
+        }
+        return driverPoolEnabled;
+    }
+
+    /**
+     * Get the maximum number of pooled sessions per JVM fork.
+     * A value of 0 or less sizes the pool to the JUnit parallelism.
+     *
+     * @return the configured pool size
+     */
+    public int getDriverPoolSize() {
+        var systemPoolSize = System.getProperty("driver.pool.size");
+        if (systemPoolSize != null && !systemPoolSize.isBlank()) {
+            return Integer.parseInt(systemPoolSize);
+        }
+        return driverPoolSize;
+    }
+
+    /**
+     * Get the number of tests a pooled session may serve before it is recycled.
+     *
+     * @return the maximum uses per session
+     */
+    public int getDriverPoolMaxUses() {
+        var systemMaxUses = System.getProperty("driver.pool.max.uses");
+        if (systemMaxUses != null && !systemMaxUses.isBlank()) {
+            return Integer.parseInt(systemMaxUses);
+        }
+        return driverPoolMaxUses;
+    }
+
+    /**
+     * Get the number of sessions to start in the background when the launcher session opens.
+     *
+     * @return the number of sessions to pre-warm, 0 to disable
+     */
+    public int getDriverPoolPrewarmSize() {
+        var systemPrewarmSize = System.getProperty("driver.pool.prewarm.size");
+        if (systemPrewarmSize != null && !systemPrewarmSize.isBlank()) {
+            return Integer.parseInt(systemPrewarmSize);
+        }
+        return driverPoolPrewarmSize;
+    }
+
+    /**
+     * Get the path of the login endpoint used to authenticate sessions without the UI form.
+     *
+     * @return the login API path, relative to the base URL
+     */
+    public String getAuthApiLoginPath() {
+        var systemAuthApiLoginPath = System.getProperty("auth.api.login.path");
+        if (systemAuthApiLoginPath != null && !systemAuthApiLoginPath.isBlank()) {
+            return systemAuthApiLoginPath;
+        }
+        return authApiLoginPath;
+    }
+
+    /**
+     * Get the localStorage key under which the login API response is stored for the front end.
+     *
+     * @return the storage key, or empty string to skip storing the response
+     */
+    public String getAuthStorageKey() {
+        var systemAuthStorageKey = System.getProperty("auth.storage.key");
+        if (systemAuthStorageKey != null && !systemAuthStorageKey.isBlank()) {
+            return systemAuthStorageKey;
+        }
+        return authStorageKey;
+    }
+
+    /**
+     * Get how long a captured authenticated storage state may be reused before logging in again.
+     *
+     * @return the storage state time-to-live in minutes
+     */
+    public int getAuthStateTtlMinutes() {
+        var systemAuthStateTtlMinutes = System.getProperty("auth.state.ttl.minutes");
+        if (systemAuthStateTtlMinutes != null && !systemAuthStateTtlMinutes.isBlank()) {
+            return Integer.parseInt(systemAuthStateTtlMinutes);
+        }
+        return authStateTtlMinutes;
+    }
+
+    /**
+     * Get the endpoint that answers 200 only for an authenticated session, used to check a restored login state.
+     *
+     * @return the session endpoint path, relative to the base URL, or empty string to only check for a
+     *         redirect to /login
+     */
+    public String getAuthSessionCheckPath() {
+        var systemAuthSessionCheckPath = System.getProperty("auth.session.check.path");
+        if (systemAuthSessionCheckPath != null && !systemAuthSessionCheckPath.isBlank()) {
+            return systemAuthSessionCheckPath;
+        }
+        return authSessionCheckPath;
+    }
+
+    /**
+     * Get the localStorage key the shop persists the cart under, used to seed carts without the UI.
+     *
+     * @return the cart storage key
+     */
+    public String getCartStorageKey() {
+        var systemCartStorageKey = System.getProperty("cart.storage.key");
+        if (systemCartStorageKey != null && !systemCartStorageKey.isBlank()) {
+            return systemCartStorageKey;
+        }
+        return cartStorageKey;
+    }
+
+    /**
+     * Get the JSON document written to the cart storage key; {items} is replaced with the line item array.
+     *
+     * @return the cart storage template
+     */
+    public String getCartStorageTemplate() {
+        var systemCartStorageTemplate = System.getProperty("cart.storage.template");
+        if (systemCartStorageTemplate != null && !systemCartStorageTemplate.isBlank()) {
+            return systemCartStorageTemplate;
+        }
+        return cartStorageTemplate;
+    }
+
+    /**
+     * Check if the suite runs offline against the embedded stand-in server instead of the deployed shop.
+     *
+     * @return true if offline mode is enabled
+     */
+    public boolean isOfflineMode() {
+        var systemOfflineMode = System.getProperty("offline.mode");
+        if (systemOfflineMode != null && !systemOfflineMode.isBlank()) {
+            return Boolean.parseBoolean(systemOfflineMode);
+        }
+        return offlineMode;
+    }
+
+    /**
+     * Get the loopback port of the embedded stand-in server.
+     *
+     * @return the port, 0 to pick a free port
+     */
+    public int getOfflineServerPort() {
+        var systemOfflineServerPort = System.getProperty("offline.server.port");
+        if (systemOfflineServerPort != null && !systemOfflineServerPort.isBlank()) {
+            return Integer.parseInt(systemOfflineServerPort);
+        }
+        return offlineServerPort;
+    }
+
+    /**
+     * Get the directory holding the recorded snapshot of the shop's pages and assets.
+     *
+     * @return the snapshot directory, relative to the project root
+     */
+    public String getOfflineSnapshotDir() {
+        var systemOfflineSnapshotDir = System.getProperty("offline.snapshot.dir");
+        if (systemOfflineSnapshotDir != null && !systemOfflineSnapshotDir.isBlank()) {
+            return systemOfflineSnapshotDir;
+        }
+        return offlineSnapshotDir;
+    }
+
+    /**
+     * Get the network mode from config or system property.
+     *
+     * @return the NetworkMode to use
+     */
+    public NetworkMode getNetworkMode() {
+        var systemNetworkMode = System.getProperty("net.mode");
+        if (systemNetworkMode != null && !systemNetworkMode.isBlank()) {
+            return NetworkMode.fromString(systemNetworkMode);
+        }
+        return networkMode;
+    }
+
+    /**
+     * Get the archive file recorded in record mode and served in replay mode.
+     *
+     * @return the archive path, relative to the project root
+     */
+    public String getNetArchiveFile() {
+        var systemNetArchiveFile = System.getProperty("net.archive.file");
+        if (systemNetArchiveFile != null && !systemNetArchiveFile.isBlank()) {
+            return systemNetArchiveFile;
+        }
+        return netArchiveFile;
+    }
+
+    /**
+     * Get the loopback port of the record/replay proxy.
+     *
+     * @return the port, 0 to pick a free port
+     */
+    public int getNetProxyPort() {
+        var systemNetProxyPort = System.getProperty("net.proxy.port");
+        if (systemNetProxyPort != null && !systemNetProxyPort.isBlank()) {
+            return Integer.parseInt(systemNetProxyPort);
+        }
+        return netProxyPort;
+    }
+
+    /**
+     * Check if lean rendering (third-party and heavy-asset blocking) is enabled.
+     *
+     * @return true if lean rendering is enabled
+     */
+    public boolean isLeanMode() {
+        var systemLeanMode = System.getProperty("lean.mode");
+        if (systemLeanMode != null && !systemLeanMode.isBlank()) {
+            return Boolean.parseBoolean(systemLeanMode);
+        }
+        return leanMode;
+    }
+
+    /**
+     * Get the comma-separated URL patterns blocked in lean rendering mode.
+     *
+     * @return the blocked URL patterns
+     */
+    public String getLeanBlockedUrls() {
+        var systemLeanBlockedUrls = System.getProperty("lean.blocked.urls");
+        if (systemLeanBlockedUrls != null && !systemLeanBlockedUrls.isBlank()) {
+            return systemLeanBlockedUrls;
+        }
+        return leanBlockedUrls;
+    }
+
+    /**
+     * Check if image loads are blocked in lean rendering mode.
+     *
+     * @return true if images are blocked
+     */
+    public boolean isLeanBlockImages() {
+        var systemLeanBlockImages = System.getProperty("lean.block.images");
+        if (systemLeanBlockImages != null && !systemLeanBlockImages.isBlank()) {
+            return Boolean.parseBoolean(systemLeanBlockImages);
+        }
+        return leanBlockImages;
+    }
+
+    /**
+     * Check if web font loads are blocked in lean rendering mode.
+     *
+     * @return true if fonts are blocked
+     */
+    public boolean isLeanBlockFonts() {
+        var systemLeanBlockFonts = System.getProperty("lean.block.fonts");
+        if (systemLeanBlockFonts != null && !systemLeanBlockFonts.isBlank()) {
+            return Boolean.parseBoolean(systemLeanBlockFonts);
+        }
+        return leanBlockFonts;
+    }
+
+    /**
+     * Check if Chromium sessions start from a clone of a pre-warmed profile (shared HTTP cache).
+     *
+     * @return true if the warmed profile template is used
+     */
+    public boolean isBrowserCacheTemplate() {
+        var systemBrowserCacheTemplate = System.getProperty("browser.cache.template");
+        if (systemBrowserCacheTemplate != null && !systemBrowserCacheTemplate.isBlank()) {
+            return Boolean.parseBoolean(systemBrowserCacheTemplate);
+        }
+        return browserCacheTemplate;
+    }
+
+    /**
+     * Get the directory holding the warmed profile template and the per-session clones.
+     *
+     * @return the browser cache directory
+     */
+    public String getBrowserCacheDir() {
+        var systemBrowserCacheDir = System.getProperty("browser.cache.dir");
+        if (systemBrowserCacheDir != null && !systemBrowserCacheDir.isBlank()) {
+            return systemBrowserCacheDir;
+        }
+        return browserCacheDir;
+    }
+
+    /**
+     * Get the directory for data cached across runs, such as resolved driver binary paths.
+     *
+     * @return the cross-run cache directory
+     */
+    public String getSeleniumCacheDir() {
+        var systemSeleniumCacheDir = System.getProperty("selenium.cache.dir");
+        if (systemSeleniumCacheDir != null && !systemSeleniumCacheDir.isBlank()) {
+            return systemSeleniumCacheDir;
+        }
+        return seleniumCacheDir;
+    }
+
+    /**
+     * Get the seconds a session may take to quit before its browser processes are killed.
+     *
+     * @return the quit timeout in seconds
+     */
+    public int getDriverQuitTimeoutSeconds() {
+        var systemDriverQuitTimeoutSeconds = System.getProperty("driver.quit.timeout.seconds");
+        if (systemDriverQuitTimeoutSeconds != null && !systemDriverQuitTimeoutSeconds.isBlank()) {
+            return Integer.parseInt(systemDriverQuitTimeoutSeconds);
+        }
+        return driverQuitTimeoutSeconds;
+    }
+
+    /**
+     * Get the number of sessions that may wait to be quit in the background before teardown quits inline.
+     *
+     * @return the reaper queue capacity
+     */
+    public int getDriverReaperQueueSize() {
+        var systemDriverReaperQueueSize = System.getProperty("driver.reaper.queue.size");
+        if (systemDriverReaperQueueSize != null && !systemDriverReaperQueueSize.isBlank()) {
+            return Integer.parseInt(systemDriverReaperQueueSize);
+        }
+        return driverReaperQueueSize;
+    }
+
+    /**
+     * Get the browser process tree RSS, in MB, above which a pooled session is recycled (0 disables).
+     *
+     * @return the RSS limit in MB
+     */
+    public int getDriverRecycleRssMb() {
+        var systemDriverRecycleRssMb = System.getProperty("driver.recycle.rss.mb");
+        if (systemDriverRecycleRssMb != null && !systemDriverRecycleRssMb.isBlank()) {
+            return Integer.parseInt(systemDriverRecycleRssMb);
+        }
+        return driverRecycleRssMb;
+    }
+
+    /**
+     * Get the page JS heap size, in MB, above which a pooled session is recycled (0 disables).
+     *
+     * @return the JS heap limit in MB
+     */
+    public int getDriverRecycleHeapMb() {
+        var systemDriverRecycleHeapMb = System.getProperty("driver.recycle.heap.mb");
+        if (systemDriverRecycleHeapMb != null && !systemDriverRecycleHeapMb.isBlank()) {
+            return Integer.parseInt(systemDriverRecycleHeapMb);
+        }
+        return driverRecycleHeapMb;
+    }
+
+    /**
+     * Get the liveness probe latency, in milliseconds, above which a pooled session is recycled (0 disables).
+     *
+     * @return the probe latency limit in ms
+     */
+    public int getDriverRecycleLatencyMs() {
+        var systemDriverRecycleLatencyMs = System.getProperty("driver.recycle.latency.ms");
+        if (systemDriverRecycleLatencyMs != null && !systemDriverRecycleLatencyMs.isBlank()) {
+            return Integer.parseInt(systemDriverRecycleLatencyMs);
+        }
+        return driverRecycleLatencyMs;
+    }
+
+    /**
+     * Check if wait timeouts and polling intervals are derived from recorded condition latencies.
+     *
+     * @return true if adaptive waits are enabled
+     */
+    public boolean isWaitAdaptiveEnabled() {
+        var systemWaitAdaptiveEnabled = System.getProperty("wait.adaptive.enabled");
+        if (systemWaitAdaptiveEnabled != null && !systemWaitAdaptiveEnabled.isBlank()) {
+            return Boolean.parseBoolean(systemWaitAdaptiveEnabled);
+        }
+        return waitAdaptiveEnabled;
+    }
+
+    /**
+     * Get the multiplier applied to a condition's p99 latency to derive its timeout.
+     *
+     * @return the p99 multiplier
+     */
+    public int getWaitAdaptiveFactor() {
+        var systemWaitAdaptiveFactor = System.getProperty("wait.adaptive.factor");
+        if (systemWaitAdaptiveFactor != null && !systemWaitAdaptiveFactor.isBlank()) {
+            return Integer.parseInt(systemWaitAdaptiveFactor);
+        }
+        return waitAdaptiveFactor;
+    }
+
+    /**
+     * Get the number of recorded samples a condition needs before its timeout adapts.
+     *
+     * @return the minimum sample count
+     */
+    public int getWaitAdaptiveMinSamples() {
+        var systemWaitAdaptiveMinSamples = System.getProperty("wait.adaptive.min.samples");
+        if (systemWaitAdaptiveMinSamples != null && !systemWaitAdaptiveMinSamples.isBlank()) {
+            return Integer.parseInt(systemWaitAdaptiveMinSamples);
+        }
+        return waitAdaptiveMinSamples;
+    }
+
+    /**
+     * Get the lower bound, in milliseconds, for an adaptive timeout.
+     *
+     * @return the minimum adaptive timeout in ms
+     */
+    public int getWaitAdaptiveFloorMs() {
+        var systemWaitAdaptiveFloorMs = System.getProperty("wait.adaptive.floor.ms");
+        if (systemWaitAdaptiveFloorMs != null && !systemWaitAdaptiveFloorMs.isBlank()) {
+            return Integer.parseInt(systemWaitAdaptiveFloorMs);
+        }
+        return waitAdaptiveFloorMs;
+    }
+
+    /**
+     * Check if waits abort as soon as the page shows a known error state.
+     *
+     * @return true if waits race against failure signals
+     */
+    public boolean isFailFast() {
+        var systemFailfastEnabled = System.getProperty("failfast.enabled");
+        if (systemFailfastEnabled != null && !systemFailfastEnabled.isBlank()) {
+            return Boolean.parseBoolean(systemFailfastEnabled);
+        }
+        return failFast;
+    }
+
+    /**
+     * Check if uncaught page script errors count as a failure signal (Chromium only).
+     *
+     * @return true if script errors abort waits
+     */
+    public boolean isFailFastJsErrors() {
+        var systemFailfastJsErrors = System.getProperty("failfast.js.errors");
+        if (systemFailfastJsErrors != null && !systemFailfastJsErrors.isBlank()) {
+            return Boolean.parseBoolean(systemFailfastJsErrors);
+        }
+        return failFastJsErrors;
+    }
+
+    /**
+     * Get the pattern of script error messages that never abort a wait.
+     *
+     * @return the ignore pattern (JavaScript regular expression), empty to ignore none
+     */
+    public String getFailFastJsIgnore() {
+        var systemFailfastJsIgnore = System.getProperty("failfast.js.ignore");
+        if (systemFailfastJsIgnore != null && !systemFailfastJsIgnore.isBlank()) {
+            return systemFailfastJsIgnore;
+        }
+        return failFastJsIgnore;
+    }
+
+    /**
+     * Check if every WebDriver command is timed and reported per test and per fork.
+     *
+     * @return true if sessions are instrumented
+     */
+    public boolean isCommandTimings() {
+        var systemCommandTimingsEnabled = System.getProperty("command.timings.enabled");
+        if (systemCommandTimingsEnabled != null && !systemCommandTimingsEnabled.isBlank()) {
+            return Boolean.parseBoolean(systemCommandTimingsEnabled);
+        }
+        return commandTimings;
+    }
+
+    /**
+     * Check if tests, steps, waits and WebDriver commands are exported as OpenTelemetry spans to target/traces.
+     *
+     * @return true if tracing is enabled
+     */
+    public boolean isTracing() {
+        var systemTracingEnabled = System.getProperty("tracing.enabled");
+        if (systemTracingEnabled != null && !systemTracingEnabled.isBlank()) {
+            return Boolean.parseBoolean(systemTracingEnabled);
+        }
+        return tracing;
+    }
+
+    /**
+     * Get the number of background threads that encode and write failure artifacts.
+     *
+     * @return the writer thread count
+     */
+    public int getArtifactWriterThreads() {
+        var systemArtifactsWriterThreads = System.getProperty("artifacts.writer.threads");
+        if (systemArtifactsWriterThreads != null && !systemArtifactsWriterThreads.isBlank()) {
+            return Integer.parseInt(systemArtifactsWriterThreads);
+        }
+        return artifactWriterThreads;
+    }
+
+    /**
+     * Get the number of artifacts that may wait for a writer thread before test threads write their own.
+     *
+     * @return the writer queue capacity
+     */
+    public int getArtifactWriterQueue() {
+        var systemArtifactsWriterQueue = System.getProperty("artifacts.writer.queue");
+        if (systemArtifactsWriterQueue != null && !systemArtifactsWriterQueue.isBlank()) {
+            return Integer.parseInt(systemArtifactsWriterQueue);
+        }
+        return artifactWriterQueue;
+    }
+
+    /**
+     * Get how long the end of the fork waits for pending artifacts to be written.
+     *
+     * @return the flush timeout in seconds
+     */
+    public int getArtifactFlushTimeoutSeconds() {
+        var systemArtifactsFlushTimeoutSeconds = System.getProperty("artifacts.flush.timeout.seconds");
+        if (systemArtifactsFlushTimeoutSeconds != null && !systemArtifactsFlushTimeoutSeconds.isBlank()) {
+            return Integer.parseInt(systemArtifactsFlushTimeoutSeconds);
+        }
+        return artifactFlushTimeoutSeconds;
+    }
+
+    /**
+     * Check if a screenshot and the page source are attached to the report when a test fails.
+     *
+     * @return true if failure artifacts are captured
+     */
+    public boolean isScreenshotOnFailure() {
+        var systemScreenshotOnFailure = System.getProperty("screenshot.on.failure");
+        if (systemScreenshotOnFailure != null && !systemScreenshotOnFailure.isBlank()) {
+            return Boolean.parseBoolean(systemScreenshotOnFailure);
+        }
+        return screenshotOnFailure;
+    }
+
+    /**
+     * Check if page sources are stored gzip-compressed.
+     *
+     * @return true if page sources are compressed
+     */
+    public boolean isArtifactPageSourceGzip() {
+        var systemArtifactsPagesourceGzip = System.getProperty("artifacts.pagesource.gzip");
+        if (systemArtifactsPagesourceGzip != null && !systemArtifactsPagesourceGzip.isBlank()) {
+            return Boolean.parseBoolean(systemArtifactsPagesourceGzip);
+        }
+        return artifactPageSourceGzip;
+    }
+
+    /**
+     * Get the image format failure screenshots are stored in: png keeps the capture lossless, jpeg re-encodes it lossy.
+     *
+     * @return png or jpeg
+     */
+    public String getArtifactScreenshotFormat() {
+        var systemArtifactsScreenshotFormat = System.getProperty("artifacts.screenshot.format");
+        if (systemArtifactsScreenshotFormat != null && !systemArtifactsScreenshotFormat.isBlank()) {
+            return systemArtifactsScreenshotFormat;
+        }
+        return artifactScreenshotFormat;
+    }
+
+    /**
+     * Get the size failure screenshots are stored at, relative to the capture.
+     *
+     * @return the scale in percent
+     */
+    public int getArtifactScreenshotScalePercent() {
+        var systemArtifactsScreenshotScalePercent = System.getProperty("artifacts.screenshot.scale.percent");
+        if (systemArtifactsScreenshotScalePercent != null && !systemArtifactsScreenshotScalePercent.isBlank()) {
+            return Integer.parseInt(systemArtifactsScreenshotScalePercent);
+        }
+        return artifactScreenshotScalePercent;
+    }
+
+    /**
+     * Get the JPEG quality for screenshots stored as jpeg.
+     *
+     * @return the quality in percent
+     */
+    public int getArtifactJpegQuality() {
+        var systemArtifactsScreenshotJpegQuality = System.getProperty("artifacts.screenshot.jpeg.quality");
+        if (systemArtifactsScreenshotJpegQuality != null && !systemArtifactsScreenshotJpegQuality.isBlank()) {
+            return Integer.parseInt(systemArtifactsScreenshotJpegQuality);
+        }
+        return artifactJpegQuality;
+    }
+}
@@ -0,0 +1,38 @@
+package org.fugazi.config;
+
+import lombok.Getter;
+
+/**
+ * Enum representing how browser traffic to the application under test is handled.
+ * LIVE talks to the deployment directly, RECORD captures its responses into an archive,
+ * and REPLAY serves them from the archive without touching the network.
+ */
+@Getter public enum NetworkMode {
+    LIVE("live"),
+    RECORD("record"),
+    REPLAY("replay");
+
+    private final String modeName;
+
+    NetworkMode(String modeName) {
+        this.modeName = modeName;
+    }
+
+    /**
+     * Get NetworkMode from string value (case-insensitive).
+     *
+     * @param mode the mode name as string
+     * @return the corresponding NetworkMode, defaults to LIVE if not found
+     */
+    public static NetworkMode fromString(String mode) {
+        if (mode == null || mode.isBlank()) {
+            return LIVE;
+        }
+
+        return switch (mode.toLowerCase().trim()) {
+            case "record" -> RECORD;
+            case "replay" -> REPLAY;
+            default -> LIVE;
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package org.fugazi.data.models;
+
+import java.util.List;
+
+/**
+ * Immutable, point-in-time snapshot of the cart page.
+ * Line items and order summary are captured together by a single in-browser script,
+ * so all values are consistent with each other even while the page re-renders.
+ *
+ * @param items                 the cart line items in display order
+ * @param subtotalText          the subtotal as displayed, or empty string if not shown
+ * @param subtotal              the numeric subtotal, or 0.0 if not shown
+ * @param totalText             the total as displayed (e.g. "$102.99"), or empty string if not shown
+ * @param total                 the numeric total, or 0.0 if not shown
+ * @param freeShippingThreshold the free shipping threshold amount, or 0.0 if not shown
+ * @param onLoginPage           whether the cart redirected to the login page
+ * @param emptyMessageDisplayed whether the empty cart message is visible
+ */
+public record CartSnapshot(List<LineItem> items, String subtotalText, double subtotal, String totalText, double total,
+        double freeShippingThreshold, boolean onLoginPage, boolean emptyMessageDisplayed) {
+
+    /**
+     * Check if the cart is empty (no items, empty message shown, or redirected to login).
+     *
+     * @return true if the cart has no items
+     */
+    public boolean isEmpty() {
+        return onLoginPage || emptyMessageDisplayed || items.isEmpty();
+    }
+
+    /**
+     * Get the number of line items.
+     *
+     * @return the count of items
+     */
+    public int itemCount() {
+        return items.size();
+    }
+
+    /**
+     * Get the names of all line items, skipping items whose name was not rendered yet.
+     *
+     * @return list of item names
+     */
+    public List<String> itemNames() {
+        return items.stream()
+                .map(LineItem::name)
+                .filter(name -> !name.isEmpty())
+                .toList();
+    }
+
+    /**
+     * A single cart line item.
+     *
+     * @param name          the product name
+     * @param quantity      the quantity, or 0 if not shown
+     * @param unitPrice     the unit price, derived from the line total when not shown
+     * @param lineTotalText the line total as displayed, or empty string if not shown
+     * @param lineTotal     the numeric line total, or 0.0 if not shown
+     */
+    public record LineItem(String name, int quantity, double unitPrice, String lineTotalText, double lineTotal) {
+    }
+}
@@ -24,6 +24,19 @@ public record Credentials(String email, String password, UserType userType) {
             UserType.CUSTOMER
     );
 
+    /**
+     * Get the predefined credentials for a user type.
+     *
+     * @param userType the user type
+     * @return the matching predefined credentials
+     */
+    public static Credentials forType(UserType userType) {
+        return switch (userType) {
+            case ADMIN -> ADMIN_CREDENTIALS;
+            case CUSTOMER -> CUSTOMER_CREDENTIALS;
+        };
+    }
+
     /**
      * Enum representing user types.
      */
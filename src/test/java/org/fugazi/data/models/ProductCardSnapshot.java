@@ -0,0 +1,17 @@
+package org.fugazi.data.models;
+
+/**
+ * Immutable snapshot of a product card as rendered in the product grid.
+ * Captured for all cards at once by a single in-browser script.
+ *
+ * @param id        the product id taken from the card's data-testid
+ * @param title     the product title text
+ * @param priceText the price as displayed (including currency symbol)
+ * @param price     the numeric price, or 0.0 if it could not be parsed
+ * @param imageHref the href of the product image link
+ * @param imageSrc  the source URL of the product image (unwrapped from the Next.js image optimizer), or empty
+ * @param category  the category label, or empty string if the card shows none
+ */
+public record ProductCardSnapshot(String id, String title, String priceText, double price, String imageHref,
+        String imageSrc, String category) {
+}
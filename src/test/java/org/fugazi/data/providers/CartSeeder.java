@@ -0,0 +1,215 @@
+package org.fugazi.data.providers;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.qameta.allure.Step;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.fugazi.config.ConfigurationManager;
+import org.fugazi.data.models.CartSnapshot;
+import org.fugazi.data.models.Product;
+import org.fugazi.pages.CartPage;
+import org.fugazi.pages.ProductDetailPage;
+import org.fugazi.pages.ProductsPage;
+import org.fugazi.utils.RunMetrics;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Test fixture that builds cart contents without clicking through product pages.
+ * The desired line items are written straight into the shop's cart persistence (localStorage),
+ * then /cart is loaded once and the result is verified against a {@link CartSnapshot}.
+ * If the application does not pick the seeded cart up, the items are added through the product pages instead,
+ * and storage seeding is turned off for the rest of the fork so later tests do not pay for another miss.
+ * Only a redirect to the login page, which says nothing about the storage format, falls back for one test.
+ * Only tests that verify the add-to-cart interaction itself need to drive the UI.
+ */
+public class CartSeeder {
+
+    private static final Logger log = LoggerFactory.getLogger(CartSeeder.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String ITEMS_PLACEHOLDER = "{items}";
+
+    // Catalog read once per fork from the products grid, so seeded ids always match the live shop
+    private static volatile List<Product> catalog;
+    // Set once the cart page did not show a seeded cart; later seeds go straight to the UI path
+    private static volatile boolean storageSeedingUnsupported;
+
+    private final WebDriver driver;
+    private final ConfigurationManager config;
+    private final Map<Product, Integer> lineItems = new LinkedHashMap<>();
+
+    /**
+     * Create a seeder for the given session.
+     *
+     * @param driver the WebDriver instance
+     */
+    public CartSeeder(WebDriver driver) {
+        this.driver = driver;
+        this.config = ConfigurationManager.getInstance();
+    }
+
+    /**
+     * Get the products listed in the shop catalog, read once per fork.
+     *
+     * @param driver the WebDriver instance used if the catalog has not been read yet
+     * @return the catalog products in grid order
+     */
+    public static List<Product> catalog(WebDriver driver) {
+        if (catalog == null) {
+            synchronized (CartSeeder.class) {
+                if (catalog == null) {
+                    driver.get(ConfigurationManager.getInstance().getBaseUrl() + "/products");
+                    var productsPage = new ProductsPage(driver);
+                    productsPage.waitForContentToLoad();
+                    catalog = productsPage.getProductCardSnapshots().stream()
+                            .map(card -> Product.builder()
+                                    .id(card.id())
+                                    .name(card.title())
+                                    .price(card.price())
+                                    .category(card.category())
+                                    .imageUrl(card.imageSrc())
+                                    .quantity(1)
+                                    .inStock(true)
+                                    .build())
+                            .toList();
+                    log.info("Loaded {} catalog products for cart seeding", catalog.size());
+                }
+            }
+        }
+        return catalog;
+    }
+
+    /**
+     * Add one unit of a product to the cart to seed.
+     *
+     * @param product the product to add
+     * @return this seeder for chaining
+     */
+    public CartSeeder add(Product product) {
+        return add(product, 1);
+    }
+
+    /**
+     * Add a product with the given quantity to the cart to seed.
+     *
+     * @param product  the product to add
+     * @param quantity the quantity, must be positive
+     * @return this seeder for chaining
+     */
+    public CartSeeder add(Product product, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive: " + quantity);
+        }
+        lineItems.merge(product, quantity, Integer::sum);
+        return this;
+    }
+
+    /**
+     * Add the catalog product at the given index (grid order on /products).
+     *
+     * @param index    the catalog index
+     * @param quantity the quantity, must be positive
+     * @return this seeder for chaining
+     */
+    public CartSeeder addCatalogProduct(int index, int quantity) {
+        var products = catalog(driver);
+        if (index < 0 || index >= products.size()) {
+            throw new IllegalArgumentException("No catalog product at index " + index + " of " + products.size());
+        }
+        return add(products.get(index), quantity);
+    }
+
+    /**
+     * Write the cart into storage and open /cart once.
+     *
+     * @return the snapshot of the loaded cart
+     */
+    @Step("Seed cart")
+    public CartSnapshot seed() {
+        if (!storageSeedingUnsupported) {
+            var snapshot = seedThroughStorage();
+            if (snapshot.itemCount() == lineItems.size()) {
+                RunMetrics.increment("cart.seed.storage");
+                log.info("Seeded cart with {} item(s) through storage", snapshot.itemCount());
+                return snapshot;
+            }
+
+            RunMetrics.increment("cart.seed.storage.incomplete");
+            if (snapshot.onLoginPage()) {
+                log.warn("Cart redirected to login after seeding; using the product pages for this test");
+            } else {
+                // Each miss costs a storage write, a /cart load and a full wait, so one is enough to stop trying
+                storageSeedingUnsupported = true;
+                log.warn("Cart page showed {} of {} items seeded under '{}' (URL {}); using the product pages "
+                        + "from now on", snapshot.itemCount(), lineItems.size(), config.getCartStorageKey(),
+                        driver.getCurrentUrl());
+            }
+            ((JavascriptExecutor) driver).executeScript(
+                    "window.localStorage.removeItem(arguments[0]);", config.getCartStorageKey());
+        }
+
+        RunMetrics.increment("cart.seed.ui");
+        return seedThroughUi();
+    }
+
+    private CartSnapshot seedThroughStorage() {
+        var currentUrl = driver.getCurrentUrl();
+        if (currentUrl == null || !currentUrl.startsWith(config.getBaseUrl())) {
+            driver.get(config.getBaseUrl());
+        }
+
+        ((JavascriptExecutor) driver).executeScript("window.localStorage.setItem(arguments[0], arguments[1]);",
+                config.getCartStorageKey(), cartDocument());
+        return openCart();
+    }
+
+    private CartSnapshot seedThroughUi() {
+        var productPage = new ProductDetailPage(driver);
+        lineItems.forEach((product, quantity) -> {
+            driver.get(config.getBaseUrl() + "/products/" + product.getId());
+            if (quantity > 1) {
+                productPage.setQuantity(quantity);
+            }
+            productPage.clickAddToCartAndWait();
+        });
+        return openCart();
+    }
+
+    private CartSnapshot openCart() {
+        driver.get(config.getBaseUrl() + "/cart");
+        return new CartPage(driver).awaitCartSnapshot(lineItems.size());
+    }
+
+    /**
+     * Render the line items into the configured cart storage document.
+     *
+     * @return the JSON document to store
+     */
+    private String cartDocument() {
+        var items = new ArrayList<Map<String, Object>>();
+        lineItems.forEach((product, quantity) -> {
+            var item = new LinkedHashMap<String, Object>();
+            item.put("id", product.getId());
+            item.put("name", product.getName());
+            item.put("price", product.getPrice());
+            item.put("image", product.getImageUrl());
+            item.put("category", product.getCategory());
+            item.put("quantity", quantity);
+            items.add(item);
+        });
+
+        try {
+            return config.getCartStorageTemplate().replace(ITEMS_PLACEHOLDER, MAPPER.writeValueAsString(items));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize cart items", e);
+        }
+    }
+}
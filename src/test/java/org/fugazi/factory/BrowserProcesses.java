@@ -0,0 +1,90 @@
+package org.fugazi.factory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Locates the operating system processes of a browser session.
+ * Firefox reports its process id; Chromium browsers are found among this JVM's descendants
+ * by the user-data-dir they were started with.
+ */
+final class BrowserProcesses {
+
+    private BrowserProcesses() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Find the top-level browser processes of a session.
+     *
+     * @param driver the WebDriver instance
+     * @return the browser root processes, empty if they cannot be determined
+     */
+    static List<ProcessHandle> roots(WebDriver driver) {
+        if (!(driver instanceof HasCapabilities hasCapabilities)) {
+            return List.of();
+        }
+        var capabilities = hasCapabilities.getCapabilities();
+
+        if (capabilities.getCapability("moz:processID") instanceof Number pid) {
+            return ProcessHandle.of(pid.longValue()).stream().toList();
+        }
+
+        String userDataDir = null;
+        for (var vendor : new String[] {"chrome", "msedge"}) {
+            if (capabilities.getCapability(vendor) instanceof Map<?, ?> details
+                    && details.get("userDataDir") instanceof String dir) {
+                userDataDir = dir;
+            }
+        }
+        if (userDataDir == null) {
+            return List.of();
+        }
+
+        var marker = "--user-data-dir=" + userDataDir;
+        // The browser's own children carry the flag too; keep only the topmost matching processes
+        var matches = ProcessHandle.current().descendants()
+                .filter(process -> process.info().commandLine().map(line -> line.contains(marker)).orElse(false))
+                .toList();
+        return matches.stream()
+                .filter(process -> process.parent().map(parent -> !matches.contains(parent)).orElse(true))
+                .toList();
+    }
+
+    /**
+     * Sum the resident set size of the given processes and all their descendants from /proc.
+     *
+     * @param roots the root processes
+     * @return the RSS in bytes, or -1 if it cannot be read on this platform
+     */
+    static long treeRssBytes(List<ProcessHandle> roots) {
+        if (roots.isEmpty() || !Files.isDirectory(Paths.get("/proc/self"))) {
+            return -1;
+        }
+        var total = 0L;
+        for (var root : roots) {
+            total += rssBytes(root.pid());
+            total += root.descendants().mapToLong(process -> rssBytes(process.pid())).sum();
+        }
+        return total;
+    }
+
+    private static long rssBytes(long pid) {
+        try {
+            for (var line : Files.readAllLines(Paths.get("/proc", Long.toString(pid), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Process exited between listing and reading
+        }
+        return 0;
+    }
+}
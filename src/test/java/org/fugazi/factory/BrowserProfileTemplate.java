@@ -0,0 +1,235 @@
+package org.fugazi.factory;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.fugazi.config.BrowserType;
+import org.fugazi.config.ConfigurationManager;
+import org.fugazi.utils.RunMetrics;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Chromium profile template with a warmed HTTP cache, cloned into every new session.
+ * The first session of the run (in any fork) launches a browser on the template profile, loads the home and
+ * product listing pages so the Next.js bundles and product images land in the disk cache, and quits.
+ * Every session then starts from a copy-on-write clone of that profile ({@code cp --reflink=auto}), so static
+ * assets are served from the local cache instead of being downloaded again.
+ * The template records the base URL it was warmed against and is warmed again when the run targets another one.
+ */
+public final class BrowserProfileTemplate {
+
+    private static final Logger log = LoggerFactory.getLogger(BrowserProfileTemplate.class);
+    private static final String WARMED_MARKER = ".warmed";
+    private static final Duration WARM_PAGE_TIMEOUT = Duration.ofSeconds(30);
+
+    // Chromium refuses to start on a profile that still carries another instance's singleton locks
+    private static final Set<String> LOCK_FILES = Set.of("SingletonLock", "SingletonCookie", "SingletonSocket",
+            "lockfile", "DevToolsActivePort");
+
+    private static final Map<WebDriver, Path> sessionProfiles = new ConcurrentHashMap<>();
+    private static volatile Path warmedTemplate;
+
+    private BrowserProfileTemplate() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Create a profile directory for a new session, cloned from the warmed template.
+     *
+     * @param browserType the browser the profile is for
+     * @param launcher    starts a browser on the given user-data-dir; used once to warm the template
+     * @return the cloned profile directory, or empty if the template is disabled or unavailable
+     */
+    public static Optional<Path> cloneForSession(BrowserType browserType, Function<Path, WebDriver> launcher) {
+        var config = ConfigurationManager.getInstance();
+        if (!config.isBrowserCacheTemplate() || browserType == BrowserType.FIREFOX) {
+            return Optional.empty();
+        }
+
+        var root = Paths.get(config.getBrowserCacheDir()).toAbsolutePath();
+        try {
+            var template = ensureWarmed(root.resolve("template-" + browserType.name().toLowerCase(Locale.ROOT)),
+                    launcher);
+            var clone = root.resolve("sessions").resolve(UUID.randomUUID().toString());
+            var start = System.nanoTime();
+            copyTree(template, clone);
+            RunMetrics.increment("browser.profile.clone.ms", (System.nanoTime() - start) / 1_000_000);
+            RunMetrics.increment("browser.profile.clones");
+            return Optional.of(clone);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Warmed browser profile unavailable, starting with an empty cache: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Remember which cloned profile a session runs on, so it can be removed when the session quits.
+     *
+     * @param driver  the WebDriver instance
+     * @param profile the cloned profile directory
+     */
+    public static void register(WebDriver driver, Path profile) {
+        sessionProfiles.put(driver, profile);
+    }
+
+    /**
+     * Delete the cloned profile of a session after it has quit.
+     *
+     * @param driver the WebDriver instance that was quit
+     */
+    public static void release(WebDriver driver) {
+        // Profiles are registered before the factory decorates the session
+        var profile = sessionProfiles.remove(driver instanceof WrapsDriver wraps ? wraps.getWrappedDriver() : driver);
+        if (profile != null) {
+            deleteTree(profile);
+        }
+    }
+
+    /**
+     * Warm the template once; other forks wait on the file lock and reuse the result.
+     */
+    private static Path ensureWarmed(Path template, Function<Path, WebDriver> launcher) throws IOException {
+        if (warmedTemplate != null) {
+            return warmedTemplate;
+        }
+
+        synchronized (BrowserProfileTemplate.class) {
+            if (warmedTemplate != null) {
+                return warmedTemplate;
+            }
+
+            Files.createDirectories(template.getParent());
+            var lockPath = template.resolveSibling(template.getFileName() + ".lock");
+            try (var channel = FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 var ignored = channel.lock()) {
+                var baseUrl = ConfigurationManager.getInstance().getBaseUrl();
+                if (!baseUrl.equals(warmedFor(template).orElse(null))) {
+                    warm(template, launcher, baseUrl);
+                }
+            }
+            warmedTemplate = template;
+            return template;
+        }
+    }
+
+    /**
+     * Read the base URL a template was warmed against from its marker.
+     */
+    private static Optional<String> warmedFor(Path template) {
+        var marker = template.resolve(WARMED_MARKER);
+        try {
+            return Files.exists(marker) ? Optional.of(Files.readString(marker).strip()) : Optional.empty();
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static void warm(Path template, Function<Path, WebDriver> launcher, String baseUrl) throws IOException {
+        deleteTree(template);
+        Files.createDirectories(template);
+
+        var start = System.nanoTime();
+        var driver = launcher.apply(template);
+        try {
+            for (var path : new String[] {"", "/products"}) {
+                driver.get(baseUrl + path);
+                new WebDriverWait(driver, WARM_PAGE_TIMEOUT).until(d -> "complete".equals(
+                        ((JavascriptExecutor) d).executeScript("return document.readyState")));
+            }
+        } finally {
+            // Quitting flushes the disk cache index into the profile
+            driver.quit();
+        }
+
+        Files.writeString(template.resolve(WARMED_MARKER), baseUrl);
+        log.info("Warmed browser profile template {} in {} ms", template, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Clone a directory tree, sharing blocks with the template where the filesystem supports reflinks.
+     */
+    private static void copyTree(Path source, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        if (!System.getProperty("os.name", "").toLowerCase(Locale.ROOT).contains("win")) {
+            var macOs = System.getProperty("os.name", "").toLowerCase(Locale.ROOT).contains("mac");
+            var command = macOs
+                    ? new String[] {"cp", "-c", "-R", source.toString(), target.toString()}
+                    : new String[] {"cp", "-a", "--reflink=auto", source.toString(), target.toString()};
+            try {
+                var process = new ProcessBuilder(command).redirectErrorStream(true).start();
+                if (process.waitFor(60, TimeUnit.SECONDS) && process.exitValue() == 0) {
+                    removeLockFiles(target);
+                    return;
+                }
+                process.destroyForcibly();
+                log.debug("cp clone failed, copying profile file by file");
+                deleteTree(target);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while cloning browser profile", e);
+            }
+        }
+
+        Files.walkFileTree(source, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(target.resolve(source.relativize(dir)));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                if (attrs.isRegularFile() && !LOCK_FILES.contains(file.getFileName().toString())) {
+                    Files.copy(file, target.resolve(source.relativize(file)), StandardCopyOption.COPY_ATTRIBUTES);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static void removeLockFiles(Path profile) throws IOException {
+        for (var name : LOCK_FILES) {
+            Files.deleteIfExists(profile.resolve(name));
+        }
+    }
+
+    private static void deleteTree(Path root) {
+        if (!Files.exists(root)) {
+            return;
+        }
+        try (var paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    log.debug("Could not delete {}: {}", path, e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            log.debug("Could not delete profile {}: {}", root, e.getMessage());
+        }
+    }
+}
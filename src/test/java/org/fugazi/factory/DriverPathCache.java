@@ -0,0 +1,193 @@
+package org.fugazi.factory;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.fugazi.config.ConfigurationManager;
+import org.fugazi.utils.RunMetrics;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.remote.service.DriverFinder;
+import org.openqa.selenium.remote.service.DriverService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches driver and browser binary locations resolved by Selenium Manager in {@code selenium.cache.dir},
+ * so only the first JVM on a machine pays for the resolution. Entries whose files have disappeared, or whose
+ * browser binary has changed since (e.g. an in-place browser update), are resolved again. A driver that still
+ * fails to start a session can be evicted once per fork with {@link #evict(Capabilities)}.
+ */
+final class DriverPathCache {
+
+    private static final Logger log = LoggerFactory.getLogger(DriverPathCache.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String CACHE_FILE = "driver-paths.json";
+    private static final Map<String, ResolvedPaths> resolved = new ConcurrentHashMap<>();
+    // Keys evicted in this fork, so a driver that keeps failing is resolved again only once
+    private static final Set<String> evicted = ConcurrentHashMap.newKeySet();
+
+    private DriverPathCache() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Resolved binary locations for a browser.
+     *
+     * @param driverPath   the driver executable
+     * @param browserPath  the browser binary, or null to let the driver find it
+     * @param browserStamp size and modification time of the browser binary when the driver was resolved,
+     *                     or null if there is no browser path
+     */
+    record ResolvedPaths(String driverPath, String browserPath, String browserStamp) {
+
+        /**
+         * Check that the driver still exists and the browser binary is the one the driver was resolved for.
+         *
+         * @return true if the entry can be used as is
+         */
+        boolean isCurrent() {
+            return driverPath != null && Files.isExecutable(Paths.get(driverPath))
+                    && (browserPath == null || Objects.equals(browserStamp, stampOf(browserPath)));
+        }
+    }
+
+    /**
+     * Get the driver and browser paths for the given service and options, resolving them at most once per machine.
+     *
+     * @param service creates an unstarted service of the right type, used by Selenium Manager to identify the driver
+     * @param options the browser options
+     * @return the resolved paths
+     */
+    static ResolvedPaths resolve(Supplier<? extends DriverService> service, Capabilities options) {
+        var key = keyFor(options);
+        return resolved.computeIfAbsent(key, k -> loadOrResolve(k, service, options));
+    }
+
+    private static ResolvedPaths loadOrResolve(String key, Supplier<? extends DriverService> service,
+            Capabilities options) {
+        var cacheDir = Paths.get(ConfigurationManager.getInstance().getSeleniumCacheDir());
+        var cacheFile = cacheDir.resolve(CACHE_FILE);
+        try {
+            Files.createDirectories(cacheDir);
+            try (var channel = FileChannel.open(cacheDir.resolve(CACHE_FILE + ".lock"),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 var ignored = channel.lock()) {
+                var entries = read(cacheFile);
+                var cached = entries.get(key);
+                if (cached != null && cached.isCurrent()) {
+                    RunMetrics.increment("driver.path.cache.hit");
+                    log.debug("Using cached driver path for {}: {}", key, cached.driverPath());
+                    return cached;
+                }
+
+                var paths = find(service, options);
+                entries.put(key, paths);
+                write(cacheFile, entries);
+                return paths;
+            }
+        } catch (IOException e) {
+            log.warn("Driver path cache unavailable ({}), resolving through Selenium Manager", e.getMessage());
+            return find(service, options);
+        }
+    }
+
+    /**
+     * Drop the cached paths for a browser whose driver failed to start a session, e.g. because the browser was
+     * updated to a version the driver does not support. Only the first eviction per fork takes effect, so a
+     * failure that re-resolving does not fix is not retried on every session.
+     *
+     * @param options the browser options of the failed session
+     * @return true if the entry was evicted and the next {@link #resolve} asks Selenium Manager again
+     */
+    static boolean evict(Capabilities options) {
+        var key = keyFor(options);
+        if (!evicted.add(key)) {
+            return false;
+        }
+        var stale = resolved.remove(key);
+        RunMetrics.increment("driver.path.cache.evicted");
+        log.warn("Evicting cached driver path for {}: {}", key, stale == null ? "none" : stale.driverPath());
+
+        var cacheDir = Paths.get(ConfigurationManager.getInstance().getSeleniumCacheDir());
+        var cacheFile = cacheDir.resolve(CACHE_FILE);
+        try (var channel = FileChannel.open(cacheDir.resolve(CACHE_FILE + ".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             var ignored = channel.lock()) {
+            var entries = read(cacheFile);
+            // Another fork may already have replaced the stale entry
+            if (stale == null || stale.equals(entries.get(key))) {
+                entries.remove(key);
+                write(cacheFile, entries);
+            }
+        } catch (IOException e) {
+            log.debug("Could not update driver path cache: {}", e.getMessage());
+        }
+        return true;
+    }
+
+    private static ResolvedPaths find(Supplier<? extends DriverService> service, Capabilities options) {
+        var start = System.nanoTime();
+        var finder = new DriverFinder(service.get(), options);
+        var browserPath = finder.hasBrowserPath() ? finder.getBrowserPath() : null;
+        var paths = new ResolvedPaths(finder.getDriverPath(), browserPath,
+                browserPath == null ? null : stampOf(browserPath));
+        RunMetrics.increment("driver.path.cache.miss");
+        log.info("Resolved {} in {} ms", paths.driverPath(), (System.nanoTime() - start) / 1_000_000);
+        return paths;
+    }
+
+    /**
+     * Identify the installed browser binary by size and modification time; an update in place changes both,
+     * and reading them is far cheaper than asking the browser for its version.
+     *
+     * @param browserPath the browser binary
+     * @return the stamp, or null if the binary does not exist
+     */
+    private static String stampOf(String browserPath) {
+        try {
+            var path = Paths.get(browserPath);
+            return Files.size(path) + "@" + Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static String keyFor(Capabilities options) {
+        var version = options.getBrowserVersion();
+        return options.getBrowserName() + "-" + (version == null || version.isBlank() ? "stable" : version)
+                + "-" + System.getProperty("os.name") + "-" + System.getProperty("os.arch");
+    }
+
+    private static Map<String, ResolvedPaths> read(Path cacheFile) {
+        if (!Files.exists(cacheFile)) {
+            return new HashMap<>();
+        }
+        try {
+            return MAPPER.readValue(cacheFile.toFile(), new TypeReference<HashMap<String, ResolvedPaths>>() {
+            });
+        } catch (IOException e) {
+            log.debug("Ignoring unreadable driver path cache: {}", e.getMessage());
+            return new HashMap<>();
+        }
+    }
+
+    private static void write(Path cacheFile, Map<String, ResolvedPaths> entries) throws IOException {
+        var temp = cacheFile.resolveSibling(cacheFile.getFileName() + ".tmp");
+        MAPPER.writerWithDefaultPrettyPrinter().writeValue(temp.toFile(), entries);
+        Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,426 @@
+package org.fugazi.factory;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.fugazi.config.ConfigurationManager;
+import org.fugazi.utils.ImplicitWaitGuard;
+import org.fugazi.utils.RunMetrics;
+import org.junit.platform.engine.ConfigurationParameters;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Per-fork pool of warm WebDriver sessions.
+ * Tests lease a session in setup and release it in teardown; released sessions are reset
+ * (cookies, storage, extra windows, viewport, timeouts) and handed to the next test instead of
+ * being quit. Sessions are recycled after a configurable number of uses, when a liveness probe fails or is
+ * too slow, or when the browser's memory exceeds the configured limits (see {@link SessionSupervisor}).
+ * Sessions can also be pre-warmed in the background so the first test on each thread finds one ready.
+ */
+public final class DriverPool {
+
+    private static final Logger log = LoggerFactory.getLogger(DriverPool.class);
+    private static final String FIRST_SESSION_READY_METRIC = "driver.pool.first.session.ready.ms";
+    private static final long WARMUP_POLL_MILLIS = 250;
+    private static volatile DriverPool instance;
+    private static volatile ConfigurationParameters launcherParameters;
+
+    private final ConfigurationManager config;
+    private final int maxSize;
+    private final int maxUses;
+    private final Semaphore leases;
+    private final BlockingDeque<PooledSession> idle = new LinkedBlockingDeque<>();
+    private final Map<WebDriver, PooledSession> leased = Collections.synchronizedMap(new IdentityHashMap<>());
+    private final AtomicInteger pendingWarmups = new AtomicInteger();
+    // Threads waiting in pollIdle for a pending warmup, at most one per pending warmup
+    private final AtomicInteger warmupWaiters = new AtomicInteger();
+    // Pooled sessions that are idle, leased or being created on a lease; warmups never push it past maxSize
+    private final AtomicInteger pooledSessions = new AtomicInteger();
+    private final AtomicInteger totalSessions = new AtomicInteger();
+    private final SessionSupervisor supervisor;
+
+    private DriverPool() {
+        this.config = ConfigurationManager.getInstance();
+        this.maxSize = resolvePoolSize(config);
+        this.maxUses = Math.max(1, config.getDriverPoolMaxUses());
+        this.leases = new Semaphore(maxSize, true);
+        this.supervisor = new SessionSupervisor(config);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "driver-pool-shutdown"));
+        log.info("Driver pool initialized - enabled: {}, size: {}, max uses per session: {}",
+                config.isDriverPoolEnabled(), maxSize, maxUses);
+    }
+
+    /**
+     * Get the singleton pool for this JVM fork.
+     *
+     * @return the DriverPool instance
+     */
+    public static DriverPool getInstance() {
+        if (instance == null) {
+            synchronized (DriverPool.class) {
+                if (instance == null) {
+                    instance = new DriverPool();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Size the pool from the launcher's configuration parameters, which include surefire's
+     * {@code configurationParameters} as well as system properties and {@code junit-platform.properties}.
+     * Must be called before the pool is first used.
+     *
+     * @param parameters the configuration parameters of the launcher discovery request
+     */
+    public static void useConfigurationParameters(ConfigurationParameters parameters) {
+        if (instance != null) {
+            log.debug("Driver pool already sized, ignoring launcher configuration parameters");
+            return;
+        }
+        launcherParameters = parameters;
+    }
+
+    /**
+     * Lease a WebDriver session for the current test.
+     * Reuses an idle healthy session when available, otherwise creates a new one.
+     * Falls back to an unpooled session when the pool is disabled or exhausted.
+     *
+     * @return a ready-to-use WebDriver instance
+     */
+    public WebDriver acquire() {
+        if (!config.isDriverPoolEnabled()) {
+            return WebDriverFactory.createDriver();
+        }
+
+        if (!tryAcquireLease()) {
+            log.warn("Driver pool exhausted ({} sessions), creating an unpooled session", maxSize);
+            return WebDriverFactory.createDriver();
+        }
+
+        try {
+            PooledSession session;
+            while ((session = pollIdle()) != null) {
+                var verdict = supervisor.probe(session.driver);
+                if (verdict.isEmpty()) {
+                    break;
+                }
+                retire(session, verdict.get());
+            }
+
+            if (session == null) {
+                // Counted before the launch so a warmup finishing meanwhile sees the slot as taken
+                pooledSessions.incrementAndGet();
+                try {
+                    session = createSession();
+                } catch (RuntimeException e) {
+                    pooledSessions.decrementAndGet();
+                    throw e;
+                }
+                log.debug("Created new pooled session");
+            }
+
+            session.uses++;
+            leased.put(session.driver, session);
+            log.debug("Leased pooled session (use {} of {})", session.uses, maxUses);
+            return session.driver;
+        } catch (RuntimeException e) {
+            leases.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Start sessions in the background so they are warm by the time tests ask for them.
+     * The number of sessions is capped at the pool size; the call returns immediately.
+     * A warmup that finishes after tests have already filled the pool is quit instead of kept idle.
+     *
+     * @param count the number of sessions to start
+     */
+    public void prewarm(int count) {
+        if (!config.isDriverPoolEnabled() || count <= 0) {
+            return;
+        }
+
+        var sessions = Math.min(count, maxSize);
+        log.info("Pre-warming {} browser session(s) in the background", sessions);
+        pendingWarmups.addAndGet(sessions);
+
+        var executor = Executors.newFixedThreadPool(sessions, runnable -> {
+            var thread = new Thread(runnable, "driver-pool-prewarm");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < sessions; i++) {
+            CompletableFuture.runAsync(() -> {
+                try {
+                    var session = createSession();
+                    if (pooledSessions.incrementAndGet() > maxSize) {
+                        pooledSessions.decrementAndGet();
+                        RunMetrics.increment("driver.pool.warmup.discarded");
+                        log.debug("Pool already full, discarding pre-warmed session");
+                        quit(session.driver);
+                        return;
+                    }
+                    idle.offerLast(session);
+                    log.debug("Pre-warmed session ready");
+                } catch (Exception e) {
+                    log.warn("Failed to pre-warm browser session: {}", e.getMessage());
+                } finally {
+                    pendingWarmups.decrementAndGet();
+                }
+            }, executor);
+        }
+        executor.shutdown();
+    }
+
+    /**
+     * Return a leased session to the pool.
+     * The session is reset for the next test, or quit if it reached its use limit or cannot be reset.
+     * Sessions that were not leased from the pool are simply quit.
+     *
+     * @param driver the WebDriver instance obtained from {@link #acquire()}
+     */
+    public void release(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+
+        var session = leased.remove(driver);
+        if (session == null) {
+            quit(driver);
+            return;
+        }
+
+        try {
+            if (session.uses >= maxUses) {
+                retire(session, new SessionSupervisor.Verdict("max-uses", "reached max uses (" + maxUses + ")"));
+                return;
+            }
+
+            // Memory is measured before the reset, while the test's page is still loaded
+            var verdict = supervisor.checkMemory(session.driver);
+            if (verdict.isPresent()) {
+                retire(session, verdict.get());
+            } else if (!reset(session)) {
+                retire(session, new SessionSupervisor.Verdict("reset-failed", "reset failed"));
+            } else {
+                // LIFO keeps the most recently used (warmest) session at the head
+                idle.offerFirst(session);
+            }
+        } finally {
+            leases.release();
+        }
+    }
+
+    /**
+     * Quit every pooled session and wait for the background quits to finish.
+     * Invoked automatically when the JVM fork exits.
+     */
+    public void shutdown() {
+        PooledSession session;
+        while ((session = idle.pollFirst()) != null) {
+            pooledSessions.decrementAndGet();
+            quit(session.driver);
+        }
+        synchronized (leased) {
+            leased.keySet().forEach(this::quit);
+            pooledSessions.addAndGet(-leased.size());
+            leased.clear();
+        }
+        SessionReaper.getInstance().drain();
+        log.debug("Driver pool shut down");
+    }
+
+    /**
+     * Shut the pool down if it was created in this fork.
+     */
+    public static void shutdownIfRunning() {
+        var running = instance;
+        if (running != null) {
+            running.shutdown();
+        }
+    }
+
+    /**
+     * Take an idle session, waiting for an in-flight pre-warmed session rather than launching a duplicate browser.
+     * Only as many threads wait as there are pending warmups; once every warmup is spoken for, the caller
+     * launches its own browser instead of queueing behind warmups another thread will take.
+     *
+     * @return an idle session, or null if none is available or pending for this thread
+     */
+    private PooledSession pollIdle() {
+        var session = idle.pollFirst();
+        if (session != null || pendingWarmups.get() == 0) {
+            return session;
+        }
+
+        if (warmupWaiters.incrementAndGet() > pendingWarmups.get()) {
+            warmupWaiters.decrementAndGet();
+            return idle.pollFirst();
+        }
+        try {
+            while (session == null && pendingWarmups.get() > 0) {
+                session = idle.pollFirst(WARMUP_POLL_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            warmupWaiters.decrementAndGet();
+        }
+        return session == null ? idle.pollFirst() : session;
+    }
+
+    /**
+     * Launch a new browser session and record the time from JVM start to the first ready session.
+     *
+     * @return the new pooled session
+     */
+    private PooledSession createSession() {
+        var session = PooledSession.create(WebDriverFactory.createDriver());
+        if (totalSessions.getAndIncrement() == 0) {
+            var sinceStart = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+            RunMetrics.gaugeIfAbsent(FIRST_SESSION_READY_METRIC, sinceStart);
+            log.info("First browser session ready {} ms after process start", sinceStart);
+        }
+        return session;
+    }
+
+    private boolean tryAcquireLease() {
+        try {
+            return leases.tryAcquire(config.getTimeout(), TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Reset a session to a clean state so the next test cannot observe the previous one.
+     *
+     * @param session the pooled session
+     * @return true if the reset completed successfully
+     */
+    private boolean reset(PooledSession session) {
+        var driver = session.driver;
+        try {
+            closeExtraWindows(session);
+
+            // Storage is scoped to the current origin, so clear it before leaving the page
+            var currentUrl = driver.getCurrentUrl();
+            if (currentUrl != null && currentUrl.startsWith("http")) {
+                ((JavascriptExecutor) driver).executeScript(
+                        "window.localStorage.clear(); window.sessionStorage.clear();");
+            }
+            driver.manage().deleteAllCookies();
+            if (driver instanceof HasCdp cdp) {
+                // deleteAllCookies only covers the current domain; Chromium can clear every domain at once
+                cdp.executeCdpCommand("Network.clearBrowserCookies", Map.of());
+            }
+
+            driver.get("about:blank");
+            driver.manage().timeouts().implicitlyWait(ImplicitWaitGuard.effectiveImplicitWait());
+            if (!session.windowSize.equals(driver.manage().window().getSize())) {
+                driver.manage().window().setSize(session.windowSize);
+            }
+            return true;
+        } catch (Exception e) {
+            log.warn("Failed to reset pooled session: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void closeExtraWindows(PooledSession session) {
+        var driver = session.driver;
+        for (var handle : driver.getWindowHandles()) {
+            if (!handle.equals(session.windowHandle)) {
+                driver.switchTo().window(handle);
+                driver.close();
+            }
+        }
+        driver.switchTo().window(session.windowHandle);
+    }
+
+    private void retire(PooledSession session, SessionSupervisor.Verdict verdict) {
+        log.info("Recycling pooled session after {} uses: {}", session.uses, verdict.detail());
+        RunMetrics.increment("driver.recycle." + verdict.reason());
+        pooledSessions.decrementAndGet();
+        supervisor.forget(session.driver);
+        quit(session.driver);
+    }
+
+    private void quit(WebDriver driver) {
+        // Quitting can take seconds while the browser flushes its profile; the reaper does it off the test thread
+        SessionReaper.getInstance().quit(driver);
+    }
+
+    /**
+     * Size the pool to the JUnit Jupiter parallelism unless an explicit size is configured.
+     * The parallelism is read from the launcher's configuration parameters when
+     * {@link #useConfigurationParameters(ConfigurationParameters)} was called, otherwise from system properties.
+     *
+     * @param config the configuration manager
+     * @return the number of sessions the pool may hold
+     */
+    private static int resolvePoolSize(ConfigurationManager config) {
+        if (config.getDriverPoolSize() > 0) {
+            return config.getDriverPoolSize();
+        }
+
+        var parameters = launcherParameters;
+        Function<String, Optional<String>> parameter = parameters != null
+                ? parameters::get
+                : key -> Optional.ofNullable(System.getProperty(key));
+
+        var processors = Runtime.getRuntime().availableProcessors();
+        var strategy = parameter.apply("junit.jupiter.execution.parallel.config.strategy").orElse("dynamic");
+        try {
+            if ("fixed".equalsIgnoreCase(strategy)) {
+                return Math.max(1, Integer.parseInt(
+                        parameter.apply("junit.jupiter.execution.parallel.config.fixed.parallelism").orElseThrow()));
+            }
+            var factor = Double.parseDouble(
+                    parameter.apply("junit.jupiter.execution.parallel.config.dynamic.factor").orElse("1"));
+            return Math.max(1, (int) (processors * factor));
+        } catch (RuntimeException e) {
+            return processors;
+        }
+    }
+
+    /**
+     * A pooled browser session and the state needed to restore it between tests.
+     */
+    private static final class PooledSession {
+        private final WebDriver driver;
+        private final String windowHandle;
+        private final Dimension windowSize;
+        private int uses;
+
+        private PooledSession(WebDriver driver, String windowHandle, Dimension windowSize) {
+            this.driver = driver;
+            this.windowHandle = windowHandle;
+            this.windowSize = windowSize;
+        }
+
+        static PooledSession create(WebDriver driver) {
+            return new PooledSession(driver, driver.getWindowHandle(), driver.manage().window().getSize());
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package org.fugazi.factory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import org.fugazi.utils.RunMetrics;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.edge.EdgeDriverService;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.firefox.GeckoDriverService;
+import org.openqa.selenium.net.PortProber;
+import org.openqa.selenium.remote.Browser;
+import org.openqa.selenium.remote.service.DriverService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Long-lived driver services shared by every Chromium session in this fork.
+ * chromedriver and msedgedriver serve any number of concurrent sessions, so each is started once and new
+ * sessions only pay for the browser launch. Quitting a session does not stop the shared service;
+ * {@link #stopAll()} does, when the launcher session closes.
+ * geckodriver handles a single session per process, so Firefox gets a service per session, but still
+ * skips Selenium Manager through the cached driver path.
+ */
+public final class DriverServices {
+
+    private static final Logger log = LoggerFactory.getLogger(DriverServices.class);
+    private static final Duration START_TIMEOUT = Duration.ofSeconds(20);
+
+    private static volatile SharedChromeDriverService chromeService;
+    private static volatile SharedEdgeDriverService edgeService;
+    // Services replaced after their driver was evicted; sessions may still run on them until the fork ends
+    private static final List<DriverService> retired = new ArrayList<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(DriverServices::stopAll, "driver-service-shutdown"));
+    }
+
+    private DriverServices() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Get the shared chromedriver service, starting it on first use, and point the options at the cached browser.
+     *
+     * @param options the options of the session to create
+     * @return the shared service
+     */
+    public static ChromeDriverService chrome(ChromeOptions options) {
+        var paths = DriverPathCache.resolve(ChromeDriverService::createDefaultService, options);
+        if (paths.browserPath() != null) {
+            options.setBinary(paths.browserPath());
+        }
+        if (chromeService == null) {
+            synchronized (DriverServices.class) {
+                if (chromeService == null) {
+                    chromeService = start(() -> new SharedChromeDriverService(paths.driverPath()));
+                }
+            }
+        }
+        return chromeService;
+    }
+
+    /**
+     * Get the shared msedgedriver service, starting it on first use, and point the options at the cached browser.
+     *
+     * @param options the options of the session to create
+     * @return the shared service
+     */
+    public static EdgeDriverService edge(EdgeOptions options) {
+        var paths = DriverPathCache.resolve(EdgeDriverService::createDefaultService, options);
+        if (paths.browserPath() != null) {
+            options.setBinary(paths.browserPath());
+        }
+        if (edgeService == null) {
+            synchronized (DriverServices.class) {
+                if (edgeService == null) {
+                    edgeService = start(() -> new SharedEdgeDriverService(paths.driverPath()));
+                }
+            }
+        }
+        return edgeService;
+    }
+
+    /**
+     * Create a geckodriver service for one Firefox session from the cached driver path.
+     *
+     * @param options the options of the session to create
+     * @return a new, unstarted service that stops when its session quits
+     */
+    public static GeckoDriverService firefox(FirefoxOptions options) {
+        var paths = DriverPathCache.resolve(GeckoDriverService::createDefaultService, options);
+        if (paths.browserPath() != null) {
+            options.setBinary(paths.browserPath());
+        }
+        return new GeckoDriverService.Builder()
+                .usingDriverExecutable(new File(paths.driverPath()))
+                .usingAnyFreePort()
+                .build();
+    }
+
+    /**
+     * Drop the cached driver for a browser after it failed to create a session, so the next session resolves
+     * the driver again and starts a new shared service with it. Takes effect once per browser and fork.
+     *
+     * @param options the browser options of the failed session
+     * @return true if the driver was evicted and creating the session again may succeed
+     */
+    public static boolean evict(Capabilities options) {
+        if (!DriverPathCache.evict(options)) {
+            return false;
+        }
+        synchronized (DriverServices.class) {
+            if (Browser.CHROME.is(options) && chromeService != null) {
+                retired.add(chromeService);
+                chromeService = null;
+            } else if (Browser.EDGE.is(options) && edgeService != null) {
+                retired.add(edgeService);
+                edgeService = null;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stop the shared services started in this fork.
+     */
+    public static synchronized void stopAll() {
+        if (chromeService != null) {
+            chromeService.shutdown();
+            chromeService = null;
+        }
+        if (edgeService != null) {
+            edgeService.shutdown();
+            edgeService = null;
+        }
+        for (var service : retired) {
+            if (service instanceof SharedChromeDriverService chrome) {
+                chrome.shutdown();
+            } else if (service instanceof SharedEdgeDriverService edge) {
+                edge.shutdown();
+            }
+        }
+        retired.clear();
+    }
+
+    private static <T extends DriverService> T start(Callable<T> factory) {
+        var begin = System.nanoTime();
+        T service;
+        try {
+            service = factory.call();
+            service.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to start shared driver service", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to start shared driver service", e);
+        }
+        RunMetrics.increment("driver.service.starts");
+        log.info("Shared driver service {} listening on {} (started in {} ms)",
+                new File(service.getExecutable()).getName(), service.getUrl(), (System.nanoTime() - begin) / 1_000_000);
+        return service;
+    }
+
+    private static List<String> portArgs(int port) {
+        return List.of("--port=" + port);
+    }
+
+    /**
+     * chromedriver service that outlives the sessions created against it.
+     */
+    private static final class SharedChromeDriverService extends ChromeDriverService {
+
+        private SharedChromeDriverService(String executable) throws IOException {
+            this(executable, PortProber.findFreePort());
+        }
+
+        private SharedChromeDriverService(String executable, int port) throws IOException {
+            super(new File(executable), port, START_TIMEOUT, portArgs(port), Map.of());
+        }
+
+        @Override
+        public void stop() {
+            // Sessions quitting must not stop the shared service; see shutdown()
+        }
+
+        private void shutdown() {
+            super.stop();
+        }
+    }
+
+    /**
+     * msedgedriver service that outlives the sessions created against it.
+     */
+    private static final class SharedEdgeDriverService extends EdgeDriverService {
+
+        private SharedEdgeDriverService(String executable) throws IOException {
+            this(executable, PortProber.findFreePort());
+        }
+
+        private SharedEdgeDriverService(String executable, int port) throws IOException {
+            super(new File(executable), port, START_TIMEOUT, portArgs(port), Map.of());
+        }
+
+        @Override
+        public void stop() {
+            // Sessions quitting must not stop the shared service; see shutdown()
+        }
+
+        private void shutdown() {
+            super.stop();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package org.fugazi.factory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.fugazi.config.ConfigurationManager;
+import org.fugazi.utils.RunMetrics;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Quits WebDriver sessions in the background so test threads never wait for a browser to shut down.
+ * Sessions are queued on a small bounded executor; when the queue is full the releasing thread quits the
+ * session itself, which keeps the number of dying browsers in check. A quit that does not finish within
+ * {@code driver.quit.timeout.seconds} is escalated to a forced kill of the browser's process tree.
+ * Sessions handed over after {@link #drain()} are quit on the caller's thread, with the same escalation.
+ */
+public final class SessionReaper {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionReaper.class);
+    private static final int REAPER_THREADS = 2;
+    private static volatile SessionReaper instance;
+
+    private final Duration quitTimeout;
+    private final ThreadPoolExecutor reaper;
+    // Runs the quit command itself, so a hung HTTP call can be abandoned after the timeout
+    private final ExecutorService quitCalls = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicBoolean drained = new AtomicBoolean();
+
+    private SessionReaper() {
+        var config = ConfigurationManager.getInstance();
+        this.quitTimeout = Duration.ofSeconds(Math.max(1, config.getDriverQuitTimeoutSeconds()));
+
+        var threadCount = new AtomicInteger();
+        this.reaper = new ThreadPoolExecutor(REAPER_THREADS, REAPER_THREADS, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, config.getDriverReaperQueueSize())),
+                runnable -> {
+                    var thread = new Thread(runnable, "session-reaper-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, executor) -> {
+                    RunMetrics.increment("session.reaper.inline");
+                    task.run();
+                });
+    }
+
+    /**
+     * Get the singleton reaper for this JVM fork.
+     *
+     * @return the SessionReaper instance
+     */
+    public static SessionReaper getInstance() {
+        if (instance == null) {
+            synchronized (SessionReaper.class) {
+                if (instance == null) {
+                    instance = new SessionReaper();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Quit a session without blocking the caller, unless the reaper queue is full.
+     *
+     * @param driver the session to quit
+     */
+    public void quit(WebDriver driver) {
+        pending.incrementAndGet();
+        reaper.execute(() -> {
+            try {
+                reap(driver);
+            } finally {
+                pending.decrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Wait for every queued quit to finish, killing whatever is still running afterwards.
+     * Call after the last session has been handed over; later calls return immediately.
+     */
+    public void drain() {
+        if (!drained.compareAndSet(false, true)) {
+            return;
+        }
+        reaper.shutdown();
+        try {
+            var budget = quitTimeout.multipliedBy(2).plusSeconds(
+                    quitTimeout.toSeconds() * pending.get() / REAPER_THREADS);
+            if (!reaper.awaitTermination(budget.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Session reaper did not drain within {} s, {} quit(s) abandoned",
+                        budget.toSeconds(), pending.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            quitCalls.shutdownNow();
+        }
+    }
+
+    private void reap(WebDriver driver) {
+        var start = System.nanoTime();
+        var quit = startQuit(driver);
+        try {
+            quit.get(quitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            log.debug("WebDriver closed successfully");
+        } catch (TimeoutException e) {
+            var killed = killBrowser(driver);
+            RunMetrics.increment("session.reaper.killed");
+            log.warn("WebDriver quit hung for {} s; force-killed {} browser process(es)",
+                    quitTimeout.toSeconds(), killed);
+        } catch (ExecutionException e) {
+            log.error("Error closing WebDriver: {}", e.getCause().getMessage());
+            killBrowser(driver);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            BrowserProfileTemplate.release(driver);
+            RunMetrics.increment("session.reaper.quits");
+            RunMetrics.increment("session.reaper.quit.ms", (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /**
+     * Send the quit command on its own thread so a hung call can be abandoned after the timeout.
+     * Once {@link #drain()} has shut the quit executor down, a dedicated virtual thread is used instead.
+     *
+     * @param driver the session to quit
+     * @return a future completed when the quit command returns
+     */
+    private CompletableFuture<Void> startQuit(WebDriver driver) {
+        try {
+            return CompletableFuture.runAsync(driver::quit, quitCalls);
+        } catch (RejectedExecutionException e) {
+            RunMetrics.increment("session.reaper.after.drain");
+            var quit = new CompletableFuture<Void>();
+            Thread.ofVirtual().name("session-quit").start(() -> {
+                try {
+                    driver.quit();
+                    quit.complete(null);
+                } catch (Throwable t) {
+                    quit.completeExceptionally(t);
+                }
+            });
+            return quit;
+        }
+    }
+
+    /**
+     * Forcibly kill the browser of a session together with all its child processes.
+     *
+     * @param driver the session whose browser should be killed
+     * @return the number of processes killed
+     */
+    private int killBrowser(WebDriver driver) {
+        var roots = BrowserProcesses.roots(driver);
+        var killed = 0;
+        for (var root : roots) {
+            var tree = new ArrayList<ProcessHandle>();
+            root.descendants().forEach(tree::add);
+            tree.add(root);
+            for (var process : tree) {
+                if (process.isAlive() && process.destroyForcibly()) {
+                    killed++;
+                }
+            }
+        }
+        return killed;
+    }
+}
@@ -0,0 +1,127 @@
+package org.fugazi.factory;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+
+import org.fugazi.config.ConfigurationManager;
+import org.fugazi.utils.RunMetrics;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decides whether a pooled session is still fit to serve another test.
+ * Checks a cheap liveness probe and its latency, the page's JS heap ({@code performance.memory}, Chromium only)
+ * and the resident memory of the browser's process tree (/proc, Linux only) against configurable limits,
+ * so leaking or wedged browsers are recycled before they slow down or stall a test.
+ * Peak values are published as gauges in the run report.
+ */
+final class SessionSupervisor {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionSupervisor.class);
+    private static final long MB = 1024 * 1024;
+    private static final String HEAP_SCRIPT =
+            "return window.performance && performance.memory ? performance.memory.usedJSHeapSize : null;";
+
+    private final ConfigurationManager config;
+    // Finding a browser's processes walks the JVM's process tree, so it is done once per session
+    private final Map<WebDriver, List<ProcessHandle>> processRoots = Collections.synchronizedMap(new WeakHashMap<>());
+
+    SessionSupervisor(ConfigurationManager config) {
+        this.config = config;
+    }
+
+    /**
+     * A reason to recycle a session.
+     *
+     * @param reason short metric key, e.g. "rss" or "unresponsive"
+     * @param detail human-readable explanation for the log
+     */
+    record Verdict(String reason, String detail) {
+    }
+
+    /**
+     * Probe the session and measure its command latency.
+     *
+     * @param driver the WebDriver instance
+     * @return a verdict if the session is dead or too slow to answer
+     */
+    Optional<Verdict> probe(WebDriver driver) {
+        var start = System.nanoTime();
+        try {
+            if (driver.getWindowHandles().isEmpty()) {
+                return Optional.of(new Verdict("unresponsive", "no open windows"));
+            }
+        } catch (Exception e) {
+            log.debug("Pooled session health check failed: {}", e.getMessage());
+            return Optional.of(new Verdict("unresponsive", "liveness probe failed: " + e.getMessage()));
+        }
+
+        var latencyMs = (System.nanoTime() - start) / 1_000_000;
+        RunMetrics.gaugeMax("driver.supervisor.probe.max.ms", latencyMs);
+        var limit = config.getDriverRecycleLatencyMs();
+        if (limit > 0 && latencyMs > limit) {
+            return Optional.of(new Verdict("latency",
+                    "liveness probe took " + latencyMs + " ms (limit " + limit + ")"));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Check the session's memory while the test's page is still loaded.
+     *
+     * @param driver the WebDriver instance
+     * @return a verdict if the page heap or the browser's RSS exceeds its limit
+     */
+    Optional<Verdict> checkMemory(WebDriver driver) {
+        RunMetrics.increment("driver.supervisor.checks");
+
+        var heapLimit = config.getDriverRecycleHeapMb();
+        if (heapLimit > 0) {
+            var heapBytes = jsHeapBytes(driver);
+            if (heapBytes > 0) {
+                RunMetrics.gaugeMax("driver.supervisor.heap.max.mb", (double) heapBytes / MB);
+                if (heapBytes > heapLimit * MB) {
+                    return Optional.of(new Verdict("heap",
+                            "JS heap " + heapBytes / MB + " MB (limit " + heapLimit + " MB)"));
+                }
+            }
+        }
+
+        var rssLimit = config.getDriverRecycleRssMb();
+        if (rssLimit > 0) {
+            var roots = processRoots.computeIfAbsent(driver, BrowserProcesses::roots);
+            var rssBytes = BrowserProcesses.treeRssBytes(roots);
+            if (rssBytes > 0) {
+                RunMetrics.gaugeMax("driver.supervisor.rss.max.mb", (double) rssBytes / MB);
+                if (rssBytes > rssLimit * MB) {
+                    return Optional.of(new Verdict("rss",
+                            "browser RSS " + rssBytes / MB + " MB (limit " + rssLimit + " MB)"));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Forget cached state of a session that is being retired.
+     *
+     * @param driver the WebDriver instance
+     */
+    void forget(WebDriver driver) {
+        processRoots.remove(driver);
+    }
+
+    private static long jsHeapBytes(WebDriver driver) {
+        try {
+            var value = ((JavascriptExecutor) driver).executeScript(HEAP_SCRIPT);
+            return value instanceof Number number ? number.longValue() : -1;
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+}
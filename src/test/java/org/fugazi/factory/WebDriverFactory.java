@@ -2,17 +2,29 @@ package org.fugazi.factory;
 
 import org.fugazi.config.BrowserType;
 import org.fugazi.config.ConfigurationManager;
+import org.fugazi.config.NetworkMode;
+import org.fugazi.jfr.DriverCreationEvent;
+import org.fugazi.listeners.CommandTimingListener;
+import org.fugazi.utils.ImplicitWaitGuard;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.Proxy;
+import org.openqa.selenium.SessionNotCreatedException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumOptions;
 import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.remote.AbstractDriverOptions;
+import org.openqa.selenium.support.events.EventFiringDecorator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.function.Supplier;
 
 /**
  * Factory class for creating WebDriver instances.
@@ -22,6 +34,8 @@ public class WebDriverFactory {
 
     private static final Logger log = LoggerFactory.getLogger(WebDriverFactory.class);
     private static final String WINDOW_SIZE = "--window-size=1920,1080";
+    // Discard port on loopback: nothing listens there, so proxied connections are refused at once
+    private static final String REPLAY_BLACKHOLE_PROXY = "127.0.0.1:9";
 
     private WebDriverFactory() {
         // Private constructor to prevent instantiation
@@ -49,13 +63,29 @@ public class WebDriverFactory {
 
         log.info("Creating {} driver (headless: {})", browserType, headless);
 
-        var driver = switch (browserType) {
-            case CHROME -> createChromeDriver(headless);
-            case FIREFOX -> createFirefoxDriver(headless);
-            case EDGE -> createEdgeDriver(headless);
-        };
+        var event = new DriverCreationEvent();
+        event.begin();
+        WebDriver driver;
+        try {
+            driver = switch (browserType) {
+                case CHROME -> createChromeDriver(headless);
+                case FIREFOX -> createFirefoxDriver(headless);
+                case EDGE -> createEdgeDriver(headless);
+            };
+            configureDriver(driver, config);
+            event.succeeded = true;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.browser = browserType.name();
+                event.headless = headless;
+                event.commit();
+            }
+        }
 
-        configureDriver(driver, config);
+        if (config.isCommandTimings()) {
+            return new EventFiringDecorator<WebDriver>(new CommandTimingListener()).decorate(driver);
+        }
         return driver;
     }
 
@@ -66,6 +96,22 @@ public class WebDriverFactory {
      * @return configured EdgeDriver instance
      */
     private static WebDriver createEdgeDriver(boolean headless) {
+        var profile = BrowserProfileTemplate.cloneForSession(BrowserType.EDGE,
+                template -> newEdgeDriver(withProfile(edgeOptions(headless), template)));
+        if (profile.isEmpty()) {
+            return newEdgeDriver(edgeOptions(headless));
+        }
+
+        var driver = newEdgeDriver(withProfile(edgeOptions(headless), profile.get()));
+        BrowserProfileTemplate.register(driver, profile.get());
+        return driver;
+    }
+
+    private static WebDriver newEdgeDriver(EdgeOptions options) {
+        return retryWithFreshDriver(options, () -> new EdgeDriver(DriverServices.edge(options), options));
+    }
+
+    private static EdgeOptions edgeOptions(boolean headless) {
         var options = new EdgeOptions();
 
         options.addArguments(WINDOW_SIZE);
@@ -80,8 +126,9 @@ public class WebDriverFactory {
             options.addArguments("--headless=new");
             log.debug("Edge running in headless mode");
         }
+        applyReplayIsolation(options);
 
-        return new EdgeDriver(options);
+        return options;
     }
 
     /**
@@ -91,6 +138,43 @@ public class WebDriverFactory {
      * @return configured ChromeDriver instance
      */
     private static WebDriver createChromeDriver(boolean headless) {
+        var profile = BrowserProfileTemplate.cloneForSession(BrowserType.CHROME,
+                template -> newChromeDriver(withProfile(chromeOptions(headless), template)));
+        if (profile.isEmpty()) {
+            return newChromeDriver(chromeOptions(headless));
+        }
+
+        var driver = newChromeDriver(withProfile(chromeOptions(headless), profile.get()));
+        BrowserProfileTemplate.register(driver, profile.get());
+        return driver;
+    }
+
+    private static WebDriver newChromeDriver(ChromeOptions options) {
+        return retryWithFreshDriver(options, () -> new ChromeDriver(DriverServices.chrome(options), options));
+    }
+
+    /**
+     * Create a session, and if the cached driver cannot create it (typically after the browser updated itself
+     * to a version the driver does not support), resolve the driver again and retry once.
+     *
+     * @param options the browser options
+     * @param session creates the session
+     * @return the new session
+     */
+    private static WebDriver retryWithFreshDriver(Capabilities options, Supplier<WebDriver> session) {
+        try {
+            return session.get();
+        } catch (SessionNotCreatedException e) {
+            if (!DriverServices.evict(options)) {
+                throw e;
+            }
+            log.warn("Session not created with the cached {} driver, resolving it again: {}",
+                    options.getBrowserName(), e.getRawMessage());
+            return session.get();
+        }
+    }
+
+    private static ChromeOptions chromeOptions(boolean headless) {
         var options = new ChromeOptions();
 
         options.addArguments(WINDOW_SIZE);
@@ -110,8 +194,24 @@ public class WebDriverFactory {
             options.addArguments("--disable-site-isolation-trials");
             log.debug("Chrome running in headless mode with React-specific optimizations");
         }
+        applyReplayIsolation(options);
 
-        return new ChromeDriver(options);
+        return options;
+    }
+
+    /**
+     * Point a Chromium browser at a profile directory, keeping its disk cache inside the profile
+     * so the cache travels with every clone.
+     *
+     * @param options the browser options to update
+     * @param profile the user-data-dir to use
+     * @param <T>     the options type
+     * @return the updated options
+     */
+    private static <T extends ChromiumOptions<T>> T withProfile(T options, Path profile) {
+        options.addArguments("--user-data-dir=" + profile);
+        options.addArguments("--disk-cache-dir=" + profile.resolve("Cache"));
+        return options;
     }
 
     /**
@@ -130,8 +230,27 @@ public class WebDriverFactory {
             options.addArguments("--headless");
             log.debug("Firefox running in headless mode");
         }
+        if (applyReplayIsolation(options)) {
+            // Firefox sends loopback traffic through the proxy unless told otherwise
+            options.addPreference("network.proxy.allow_hijacking_localhost", false);
+        }
+
+        return retryWithFreshDriver(options, () -> new FirefoxDriver(DriverServices.firefox(options), options));
+    }
 
-        return new FirefoxDriver(options);
+    /**
+     * In replay mode the application is served from loopback by the replay proxy; route everything else
+     * to a closed port so stray third-party requests fail immediately instead of reaching the network.
+     *
+     * @param options the browser options to update
+     * @return true if replay isolation was applied
+     */
+    private static boolean applyReplayIsolation(AbstractDriverOptions<?> options) {
+        if (ConfigurationManager.getInstance().getNetworkMode() != NetworkMode.REPLAY) {
+            return false;
+        }
+        options.setProxy(new Proxy().setHttpProxy(REPLAY_BLACKHOLE_PROXY).setSslProxy(REPLAY_BLACKHOLE_PROXY));
+        return true;
     }
 
     /**
@@ -141,13 +260,14 @@ public class WebDriverFactory {
      * @param config the configuration manager
      */
     private static void configureDriver(WebDriver driver, ConfigurationManager config) {
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(config.getImplicitWait()));
+        var implicitWait = ImplicitWaitGuard.effectiveImplicitWait();
+        driver.manage().timeouts().implicitlyWait(implicitWait);
         driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(config.getTimeout()));
         driver.manage().timeouts().scriptTimeout(Duration.ofSeconds(config.getTimeout()));
         driver.manage().window().maximize();
 
         log.debug("Driver configured with implicit wait: {}s, page load timeout: {}s",
-                config.getImplicitWait(), config.getTimeout());
+                implicitWait.toSeconds(), config.getTimeout());
     }
 }
 
@@ -0,0 +1,30 @@
+package org.fugazi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for starting a browser session, including the driver service and profile clone.
+ * Emitted by {@link org.fugazi.factory.WebDriverFactory}.
+ */
+@Name("org.fugazi.DriverCreation")
+@Label("Driver Creation")
+@Category({"Fugazi", "WebDriver"})
+@Description("A new browser session was started")
+@StackTrace(false)
+public class DriverCreationEvent extends Event {
+
+    @Label("Browser")
+    public String browser;
+
+    @Label("Headless")
+    public boolean headless;
+
+    @Label("Succeeded")
+    @Description("False if the session could not be started")
+    public boolean succeeded;
+}
@@ -0,0 +1,26 @@
+package org.fugazi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for an Allure step. Emitted by {@link StepEventListener}.
+ */
+@Name("org.fugazi.Step")
+@Label("Step")
+@Category({"Fugazi", "Test"})
+@Description("An Allure @Step of a page object or test")
+@StackTrace(false)
+public class StepEvent extends Event {
+
+    @Label("Name")
+    public String name;
+
+    @Label("Status")
+    @Description("passed, failed, broken or skipped")
+    public String status;
+}
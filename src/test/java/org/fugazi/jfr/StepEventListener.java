@@ -0,0 +1,40 @@
+package org.fugazi.jfr;
+
+import java.util.ArrayDeque;
+import java.util.Locale;
+
+import io.qameta.allure.listener.StepLifecycleListener;
+import io.qameta.allure.model.StepResult;
+
+/**
+ * Allure lifecycle listener that emits a {@link StepEvent} for every step.
+ * Registered through META-INF/services. @Step methods only reach the Allure lifecycle when the AspectJ
+ * weaver is attached, which the jfr Maven profile does.
+ */
+public class StepEventListener implements StepLifecycleListener {
+
+    // Steps nest and start and stop on the thread that runs them
+    private static final ThreadLocal<ArrayDeque<StepEvent>> open = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public void beforeStepStart(StepResult result) {
+        // Pushed even when not recording, so starts and stops stay paired if a recording begins mid-step
+        var event = new StepEvent();
+        event.name = result.getName();
+        event.begin();
+        open.get().push(event);
+    }
+
+    @Override
+    public void afterStepStop(StepResult result) {
+        var event = open.get().poll();
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.status = result.getStatus() == null ? null : result.getStatus().name().toLowerCase(Locale.ROOT);
+            event.commit();
+        }
+    }
+}
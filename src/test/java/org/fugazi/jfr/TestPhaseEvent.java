@@ -0,0 +1,28 @@
+package org.fugazi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for one phase of a test: setup, the test body or teardown.
+ * Emitted by {@link org.fugazi.listeners.TestPhaseExtension}.
+ */
+@Name("org.fugazi.TestPhase")
+@Label("Test Phase")
+@Category({"Fugazi", "Test"})
+@Description("Setup, body or teardown of a test")
+@StackTrace(false)
+public class TestPhaseEvent extends Event {
+
+    @Label("Test")
+    @Description("The test class and method")
+    public String test;
+
+    @Label("Phase")
+    @Description("setup, test or teardown")
+    public String phase;
+}
@@ -0,0 +1,29 @@
+package org.fugazi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for an explicit wait, a page navigation or a backoff sleep.
+ * Emitted for every span of the {@link org.fugazi.utils.WaitProfiler}; unlike the profiler's attribution,
+ * the event's duration includes spans nested inside it.
+ */
+@Name("org.fugazi.Wait")
+@Label("Wait")
+@Category({"Fugazi", "WebDriver"})
+@Description("A wait, navigation or backoff sleep of a page object or test")
+@StackTrace(false)
+public class WaitEvent extends Event {
+
+    @Label("Category")
+    @Description("explicit wait, navigation or backoff")
+    public String category;
+
+    @Label("Site")
+    @Description("Where the time was spent, e.g. ProductsPage.contentLoaded")
+    public String site;
+}
@@ -0,0 +1,32 @@
+package org.fugazi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for one WebDriver command, from the client's request to the driver's response.
+ * Emitted by {@link org.fugazi.utils.CommandTimings} for every timed command.
+ */
+@Name("org.fugazi.WebDriverCommand")
+@Label("WebDriver Command")
+@Category({"Fugazi", "WebDriver"})
+@Description("A WebDriver command issued by a page object or test")
+@StackTrace(false)
+public class WebDriverCommandEvent extends Event {
+
+    @Label("Command")
+    @Description("The command, e.g. findElement")
+    public String command;
+
+    @Label("Caller")
+    @Description("The page object method or test that issued the command")
+    public String caller;
+
+    @Label("Nothing Found")
+    @Description("True if the command was an element lookup that found no element")
+    public boolean nothingFound;
+}
@@ -2,19 +2,23 @@ package org.fugazi.listeners;
 
 import java.util.Optional;
 
-import io.qameta.allure.Attachment;
-
+import org.fugazi.config.ConfigurationManager;
+import org.fugazi.utils.ArtifactStore;
 import org.fugazi.utils.ScreenshotUtils;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.api.extension.TestWatcher;
 import org.openqa.selenium.WebDriver;
+import org.opentest4j.TestAbortedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * JUnit 5 TestWatcher implementation for Allure reporting.
+ * Failure artifacts are captured right after the test method, before @AfterEach returns the browser
+ * session to the pool; TestWatcher callbacks only run after that.
  */
-public class AllureTestListener implements TestWatcher {
+public class AllureTestListener implements TestWatcher, AfterTestExecutionCallback {
 
     private static final Logger log = LoggerFactory.getLogger(AllureTestListener.class);
     private static final ThreadLocal<WebDriver> driverThreadLocal = new ThreadLocal<>();
@@ -52,11 +56,14 @@ public class AllureTestListener implements TestWatcher {
     }
 
     @Override
-    public void testFailed(ExtensionContext context, Throwable cause) {
-        var testName = getTestName(context);
-        log.error("❌ Test FAILED: {} - Reason: {}", testName, cause.getMessage());
+    public void afterTestExecution(ExtensionContext context) {
+        var failure = context.getExecutionException();
+        if (failure.isEmpty() || failure.get() instanceof TestAbortedException
+                || !ConfigurationManager.getInstance().isScreenshotOnFailure()) {
+            return;
+        }
 
-        // Capture screenshot on failure
+        var testName = getTestName(context);
         var driver = driverThreadLocal.get();
         if (driver != null) {
             saveScreenshotOnFailure(driver, testName);
@@ -66,6 +73,11 @@ public class AllureTestListener implements TestWatcher {
         }
     }
 
+    @Override
+    public void testFailed(ExtensionContext context, Throwable cause) {
+        log.error("❌ Test FAILED: {} - Reason: {}", getTestName(context), cause.getMessage());
+    }
+
     @Override
     public void testAborted(ExtensionContext context, Throwable cause) {
         log.warn("⚠️ Test ABORTED: {} - Reason: {}", getTestName(context), cause.getMessage());
@@ -82,13 +94,9 @@ public class AllureTestListener implements TestWatcher {
      * @param driver   the WebDriver instance
      * @param testName the name of the test
      */
-    @Attachment(value = "Screenshot on Failure: {testName}", type = "image/png")
     public void saveScreenshotOnFailure(WebDriver driver, String testName) {
         log.debug("Capturing screenshot for failed test: {}", testName);
-
-        // Also save to file for local debugging
-        ScreenshotUtils.takeScreenshotToFile(driver, testName);
-
+        ScreenshotUtils.attachScreenshot(driver, "Screenshot on Failure: " + testName, testName);
     }
 
     /**
@@ -97,11 +105,13 @@ public class AllureTestListener implements TestWatcher {
      * @param driver   the WebDriver instance
      * @param testName the name of the test
      */
-    @Attachment(value = "Page Source: {testName}", type = "text/html")
     public void savePageSource(WebDriver driver, String testName) {
         log.debug("Capturing page source for: {}", testName);
         try {
-            driver.getPageSource();
+            var pageSource = driver.getPageSource();
+            if (pageSource != null) {
+                ArtifactStore.attachPageSource("Page Source: " + testName, pageSource);
+            }
         } catch (Exception e) {
             log.error("Failed to capture page source: {}", e.getMessage());
         }
@@ -0,0 +1,40 @@
+package org.fugazi.listeners;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.fugazi.utils.CommandTimings;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+/**
+ * WebDriver listener that times every driver, element and navigation call and hands the latency to
+ * {@link CommandTimings}, flagging element lookups that found nothing so implicit-wait stalls can be told apart.
+ * Attached to each session by the driver factory through an EventFiringDecorator.
+ */
+public class CommandTimingListener implements WebDriverListener {
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (CommandTimings.isTimed(method.getName())) {
+            CommandTimings.commandStarted();
+        }
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        if (CommandTimings.isTimed(method.getName())) {
+            CommandTimings.commandFinished(method.getName(),
+                    "findElements".equals(method.getName()) && result instanceof List<?> found && found.isEmpty());
+        }
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        // Failed commands (e.g. NoSuchElementException after the implicit wait) cost time too
+        if (CommandTimings.isTimed(method.getName())) {
+            CommandTimings.commandFinished(method.getName(), e.getCause() instanceof NoSuchElementException);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.fugazi.listeners;
+
+import java.util.ArrayList;
+
+import org.fugazi.network.NetworkStubs;
+import org.fugazi.network.StubResponse;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * JUnit 5 extension that applies {@link StubResponse} declarations to the test's browser session.
+ * Runs after @BeforeEach, so the session has been leased and authenticated, and switches interception off
+ * again before @AfterEach returns the session to the pool.
+ */
+public class NetworkStubExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final Logger log = LoggerFactory.getLogger(NetworkStubExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        var declarations = new ArrayList<StubResponse>();
+        declarations.addAll(AnnotationSupport.findRepeatableAnnotations(context.getElement(), StubResponse.class));
+        declarations.addAll(AnnotationSupport.findRepeatableAnnotations(context.getTestClass(), StubResponse.class));
+        if (declarations.isEmpty()) {
+            return;
+        }
+
+        var driver = AllureTestListener.getDriver();
+        Assumptions.assumeTrue(driver instanceof HasDevTools,
+                "@StubResponse needs a Chromium-based browser with DevTools support");
+
+        var stubs = NetworkStubs.forCurrentTest(driver);
+        declarations.forEach(stubs::stub);
+        log.debug("Applied {} network stub(s) to {}", declarations.size(), context.getDisplayName());
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        NetworkStubs.closeCurrent();
+    }
+}
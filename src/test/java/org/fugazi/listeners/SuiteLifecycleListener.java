@@ -0,0 +1,99 @@
+package org.fugazi.listeners;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.fugazi.config.ConfigurationManager;
+import org.fugazi.config.NetworkMode;
+import org.fugazi.factory.DriverPool;
+import org.fugazi.factory.DriverServices;
+import org.fugazi.network.RecordReplayProxy;
+import org.fugazi.server.LocalShopServer;
+import org.fugazi.tracing.Tracing;
+import org.fugazi.utils.ArtifactWriter;
+import org.fugazi.utils.CommandTimings;
+import org.fugazi.utils.ImplicitWaitGuard;
+import org.fugazi.utils.PageLoadTimings;
+import org.fugazi.utils.RunMetrics;
+import org.fugazi.utils.WaitPolicy;
+import org.fugazi.utils.WaitProfiler;
+import org.junit.platform.launcher.LauncherDiscoveryListener;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.LauncherSessionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * JUnit Platform LauncherSessionListener for fork-wide setup and teardown.
+ * Starts the offline stand-in server (offline mode) or the record/replay proxy (net.mode) and pre-warms
+ * browser sessions in the background as soon as test discovery starts, overlapping startup with discovery,
+ * and writes the run metrics report when the launcher session closes. The driver pool is sized from the
+ * discovery request's configuration parameters, where surefire passes the JUnit parallelism settings.
+ * Registered through META-INF/services so it runs once per surefire fork.
+ */
+public class SuiteLifecycleListener implements LauncherSessionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SuiteLifecycleListener.class);
+
+    @Override
+    public void launcherSessionOpened(LauncherSession session) {
+        var config = ConfigurationManager.getInstance();
+        if (config.isOfflineMode()) {
+            log.info("Offline mode: tests run against {}", LocalShopServer.getInstance().getBaseUrl());
+        } else if (config.getNetworkMode() != NetworkMode.LIVE) {
+            log.info("Network {} mode: tests run against {}", config.getNetworkMode().getModeName(),
+                    RecordReplayProxy.getInstance().getBaseUrl());
+        }
+
+        session.getLauncher().registerLauncherDiscoveryListeners(new PoolWarmer(config.getDriverPoolPrewarmSize()));
+    }
+
+    @Override
+    public void launcherSessionClosed(LauncherSession session) {
+        // Each step runs even if an earlier one fails, so the artifacts and the metrics report are always written
+        runStep("driver pool shutdown", DriverPool::shutdownIfRunning);
+        runStep("driver services stop", DriverServices::stopAll);
+        runStep("offline server stop", LocalShopServer::stopIfRunning);
+        runStep("record/replay proxy stop", RecordReplayProxy::stopIfRunning);
+        runStep("implicit wait report", ImplicitWaitGuard::reportSavings);
+        runStep("page load report", PageLoadTimings::report);
+        runStep("wait policy persist", WaitPolicy::persist);
+        runStep("command timings report", CommandTimings::writeReport);
+        runStep("wait profiler report", WaitProfiler::writeReport);
+        runStep("tracing shutdown", Tracing::shutdown);
+        runStep("artifact flush", ArtifactWriter::flush);
+        runStep("run metrics report", RunMetrics::writeReport);
+    }
+
+    private static void runStep(String name, Runnable step) {
+        try {
+            step.run();
+        } catch (RuntimeException | LinkageError e) {
+            log.warn("Suite teardown step '{}' failed: {}", name, e.toString(), e);
+        }
+    }
+
+    /**
+     * Sizes the driver pool from the first discovery request and pre-warms it.
+     */
+    private static final class PoolWarmer implements LauncherDiscoveryListener {
+        private final int prewarmSize;
+        private final AtomicBoolean started = new AtomicBoolean();
+
+        private PoolWarmer(int prewarmSize) {
+            this.prewarmSize = prewarmSize;
+        }
+
+        @Override
+        public void launcherDiscoveryStarted(LauncherDiscoveryRequest request) {
+            if (!started.compareAndSet(false, true)) {
+                return;
+            }
+            DriverPool.useConfigurationParameters(request.getConfigurationParameters());
+            if (prewarmSize > 0) {
+                log.debug("Test discovery started, pre-warming {} session(s)", prewarmSize);
+                DriverPool.getInstance().prewarm(prewarmSize);
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.fugazi.listeners;
+
+import java.lang.reflect.Method;
+
+import org.fugazi.jfr.TestPhaseEvent;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * JUnit 5 extension that emits a {@link TestPhaseEvent} for the setup, body and teardown of each test,
+ * so flight recordings show which phase a GC pause or CPU spike fell into.
+ * Setup spans @BeforeEach and the extensions registered after this one; teardown likewise.
+ */
+public class TestPhaseExtension implements BeforeEachCallback, BeforeTestExecutionCallback,
+        AfterTestExecutionCallback, AfterEachCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(TestPhaseExtension.class);
+    private static final String PHASE = "phase";
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        begin(context, "setup");
+    }
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        end(context);
+        begin(context, "test");
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        end(context);
+        begin(context, "teardown");
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        end(context);
+    }
+
+    private static void begin(ExtensionContext context, String phase) {
+        var event = new TestPhaseEvent();
+        event.phase = phase;
+        event.begin();
+        context.getStore(NAMESPACE).put(PHASE, event);
+    }
+
+    private static void end(ExtensionContext context) {
+        var event = context.getStore(NAMESPACE).remove(PHASE, TestPhaseEvent.class);
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.test = context.getRequiredTestClass().getSimpleName() + "."
+                    + context.getTestMethod().map(Method::getName).orElse(context.getDisplayName());
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.fugazi.listeners;
+
+import java.lang.reflect.Method;
+
+import org.fugazi.tracing.Tracing;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * JUnit 5 extension that starts a trace for each test (see {@link Tracing}). The test span is current
+ * from @BeforeEach to @AfterEach, so steps, waits and WebDriver commands become its descendants.
+ */
+public class TracingExtension implements BeforeEachCallback, AfterEachCallback {
+
+    private static final Logger log = LoggerFactory.getLogger(TracingExtension.class);
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(TracingExtension.class);
+    private static final String SPAN = "span";
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        if (!Tracing.isEnabled()) {
+            return;
+        }
+        var test = context.getRequiredTestClass().getSimpleName() + "."
+                + context.getTestMethod().map(Method::getName).orElse(context.getDisplayName());
+        var span = Tracing.startTest(test);
+        span.span().setAttribute("test.display_name", context.getDisplayName());
+        context.getStore(NAMESPACE).put(SPAN, span);
+        log.debug("Tracing {} as trace {}", test, span.span().getSpanContext().getTraceId());
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        var span = context.getStore(NAMESPACE).remove(SPAN, Tracing.ScopedSpan.class);
+        if (span == null) {
+            return;
+        }
+        context.getExecutionException().ifPresent(failure -> span.fail(failure.getMessage()));
+        span.close();
+    }
+}
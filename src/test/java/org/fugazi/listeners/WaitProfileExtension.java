@@ -0,0 +1,33 @@
+package org.fugazi.listeners;
+
+import io.qameta.allure.Allure;
+
+import org.fugazi.utils.WaitProfiler;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * JUnit 5 extension that breaks each test's wall time down into explicit waits, implicit-wait stalls,
+ * navigations, backoff sleeps and interaction (see {@link WaitProfiler}).
+ * Register it first, so the measured time includes @BeforeEach and @AfterEach and the other extensions.
+ */
+public class WaitProfileExtension implements BeforeEachCallback, AfterEachCallback {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitProfileExtension.class);
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        WaitProfiler.beginTest();
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        var breakdown = WaitProfiler.endTest();
+        var table = breakdown.toTable();
+        Allure.addAttachment("Wait time breakdown", "text/plain", table, ".txt");
+        log.debug("Time breakdown of {}:{}{}", context.getDisplayName(), System.lineSeparator(), table);
+    }
+}
@@ -0,0 +1,20 @@
+package org.fugazi.network;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Opts a test class or method out of lean rendering.
+ * The session loads images, fonts and third-party resources as a real visitor would, which visual
+ * and image assertions need. Has no effect when {@code lean.mode} is off.
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface FullRendering {
+}
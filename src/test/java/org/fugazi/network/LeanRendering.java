@@ -0,0 +1,92 @@
+package org.fugazi.network;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.fugazi.config.ConfigurationManager;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Lean rendering: blocks third-party scripts and, optionally, image and web font loads at the browser's
+ * network layer (CDP {@code Network.setBlockedURLs}), so page loads only fetch what functional assertions need.
+ * The blocklist is switched per test, because pooled sessions serve both lean and {@link FullRendering} tests.
+ * Only Chromium-based browsers support it; other browsers always render fully.
+ */
+public final class LeanRendering {
+
+    private static final Logger log = LoggerFactory.getLogger(LeanRendering.class);
+
+    private static final List<String> IMAGE_PATTERNS = List.of(
+            "*.png", "*.png?*", "*.jpg", "*.jpg?*", "*.jpeg", "*.jpeg?*", "*.webp", "*.webp?*",
+            "*.avif", "*.avif?*", "*.gif", "*.gif?*", "*/_next/image?*");
+    private static final List<String> FONT_PATTERNS = List.of(
+            "*.woff", "*.woff?*", "*.woff2", "*.woff2?*", "*.ttf", "*.ttf?*", "*.otf", "*.otf?*");
+
+    // Blocklist currently installed per session, so repeated tests of the same kind cost no CDP round trip
+    private static final Map<WebDriver, Boolean> leanSessions = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private LeanRendering() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Install or clear the blocklist for the next test on this session.
+     *
+     * @param driver the WebDriver instance
+     * @param full   true if the test requires full rendering
+     * @return true if the session renders lean for this test
+     */
+    public static boolean configure(WebDriver driver, boolean full) {
+        var config = ConfigurationManager.getInstance();
+        if (!config.isLeanMode() || !(driver instanceof HasCdp cdp)) {
+            return false;
+        }
+
+        var lean = !full;
+        if (Boolean.valueOf(lean).equals(leanSessions.get(driver))) {
+            return lean;
+        }
+
+        try {
+            if (!leanSessions.containsKey(driver)) {
+                cdp.executeCdpCommand("Network.enable", Map.of());
+            }
+            cdp.executeCdpCommand("Network.setBlockedURLs", Map.of("urls", lean ? blockedPatterns() : List.of()));
+            leanSessions.put(driver, lean);
+            log.debug("Lean rendering {} for session", lean ? "enabled" : "disabled");
+            return lean;
+        } catch (WebDriverException e) {
+            log.warn("Could not configure lean rendering: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Build the URL patterns blocked in lean mode from the configuration.
+     *
+     * @return the blocked URL patterns
+     */
+    static List<String> blockedPatterns() {
+        var config = ConfigurationManager.getInstance();
+        var patterns = new ArrayList<String>();
+        Arrays.stream(config.getLeanBlockedUrls().split(","))
+                .map(String::trim)
+                .filter(pattern -> !pattern.isEmpty())
+                .forEach(patterns::add);
+        if (config.isLeanBlockImages()) {
+            patterns.addAll(IMAGE_PATTERNS);
+        }
+        if (config.isLeanBlockFonts()) {
+            patterns.addAll(FONT_PATTERNS);
+        }
+        return patterns;
+    }
+}
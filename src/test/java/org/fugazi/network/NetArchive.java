@@ -0,0 +1,268 @@
+package org.fugazi.network;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.sun.net.httpserver.HttpExchange;
+
+/**
+ * Compact append-only archive of HTTP exchanges, keyed by method and request target.
+ * Layout: an 8-byte magic header followed by entries of
+ * {@code key, status, header count, (name, value)*, flags, body length, body}.
+ * Bodies of text responses are stored gzip-compressed and served as-is with {@code Content-Encoding: gzip}.
+ * For replay the whole file is memory-mapped once and bodies are served straight from the mapping.
+ * The first recording of a key wins, which keeps replays deterministic.
+ */
+final class NetArchive {
+
+    static final int FLAG_GZIP = 1;
+    private static final byte[] MAGIC = "NETARC1\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final Path file;
+    private final Map<String, Entry> index = new ConcurrentHashMap<>();
+    private MappedByteBuffer mapped;
+
+    private NetArchive(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Open an archive for recording, creating it if needed and indexing existing entries.
+     *
+     * @param file the archive file
+     * @return the archive
+     * @throws IOException if the archive cannot be created or read
+     */
+    static NetArchive forRecording(Path file) throws IOException {
+        var archive = new NetArchive(file);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        if (!Files.exists(file) || Files.size(file) == 0) {
+            Files.write(file, MAGIC);
+        }
+        archive.load();
+        return archive;
+    }
+
+    /**
+     * Open an existing archive for replay.
+     *
+     * @param file the archive file
+     * @return the archive
+     * @throws IOException if the archive does not exist or is corrupt
+     */
+    static NetArchive forReplay(Path file) throws IOException {
+        var archive = new NetArchive(file);
+        archive.load();
+        return archive;
+    }
+
+    /**
+     * Build the archive key for a request.
+     *
+     * @param method      the HTTP method
+     * @param target      the request path and query
+     * @param requestBody the request body, empty for none
+     * @return the archive key
+     */
+    static String key(String method, String target, byte[] requestBody) {
+        if (requestBody.length == 0) {
+            return method + " " + target;
+        }
+        return method + " " + target + " #" + Integer.toHexString(Arrays.hashCode(requestBody));
+    }
+
+    /**
+     * Look up a recorded response.
+     *
+     * @param key the archive key
+     * @return the entry, or null if the request was never recorded
+     */
+    Entry get(String key) {
+        return index.get(key);
+    }
+
+    boolean contains(String key) {
+        return index.containsKey(key);
+    }
+
+    Set<String> keys() {
+        return index.keySet();
+    }
+
+    int size() {
+        return index.size();
+    }
+
+    /**
+     * Append a response to the archive unless the key is already recorded.
+     * The file is locked while writing so several forks can record into the same archive.
+     *
+     * @param key     the archive key
+     * @param status  the HTTP status code
+     * @param headers the response headers to replay
+     * @param flags   entry flags, e.g. {@link #FLAG_GZIP}
+     * @param body    the (possibly compressed) body
+     * @throws IOException if the entry cannot be written
+     */
+    synchronized void append(String key, int status, List<Map.Entry<String, String>> headers, int flags, byte[] body)
+            throws IOException {
+        if (index.containsKey(key)) {
+            return;
+        }
+
+        var buffer = new ByteArrayOutputStream(body.length + 256);
+        var out = new DataOutputStream(buffer);
+        out.writeUTF(key);
+        out.writeShort(status);
+        out.writeInt(headers.size());
+        for (var header : headers) {
+            out.writeUTF(header.getKey());
+            out.writeUTF(header.getValue());
+        }
+        out.writeByte(flags);
+        out.writeInt(body.length);
+        out.write(body);
+        out.flush();
+
+        try (var channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+             var ignored = channel.lock()) {
+            channel.write(ByteBuffer.wrap(buffer.toByteArray()));
+        }
+        index.put(key, new Entry(status, headers, flags, ByteBuffer.wrap(body)));
+    }
+
+    /**
+     * Memory-map the archive and index every entry; bodies stay in the mapping.
+     *
+     * @throws IOException if the archive cannot be read
+     */
+    private void load() throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        var magic = new byte[MAGIC.length];
+        if (mapped.remaining() < MAGIC.length) {
+            throw new IOException("Not a network archive: " + file);
+        }
+        mapped.get(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Not a network archive: " + file);
+        }
+
+        var in = new DataInputStream(new BufferInputStream(mapped));
+        while (mapped.hasRemaining()) {
+            var key = in.readUTF();
+            int status = in.readShort();
+            var headerCount = in.readInt();
+            var headers = new ArrayList<Map.Entry<String, String>>(headerCount);
+            for (int i = 0; i < headerCount; i++) {
+                headers.add(Map.entry(in.readUTF(), in.readUTF()));
+            }
+            int flags = in.readByte();
+            var length = in.readInt();
+            var body = mapped.slice(mapped.position(), length);
+            mapped.position(mapped.position() + length);
+            index.putIfAbsent(key, new Entry(status, headers, flags, body));
+        }
+    }
+
+    /**
+     * A recorded response.
+     *
+     * @param status  the HTTP status code
+     * @param headers the response headers
+     * @param flags   entry flags
+     * @param body    the stored body, backed by the archive mapping when replaying
+     */
+    record Entry(int status, List<Map.Entry<String, String>> headers, int flags, ByteBuffer body) {
+
+        boolean gzipped() {
+            return (flags & FLAG_GZIP) != 0;
+        }
+
+        /**
+         * Replay the response on an exchange.
+         *
+         * @param exchange the HTTP exchange
+         * @throws IOException if the response cannot be written
+         */
+        void send(HttpExchange exchange) throws IOException {
+            var responseHeaders = exchange.getResponseHeaders();
+            headers.forEach(header -> responseHeaders.add(header.getKey(), header.getValue()));
+            if (gzipped()) {
+                responseHeaders.set("Content-Encoding", "gzip");
+            }
+
+            var length = body.remaining();
+            var noBody = "HEAD".equals(exchange.getRequestMethod()) || status == 204 || status == 304;
+            exchange.sendResponseHeaders(status, noBody ? -1 : (length == 0 ? -1 : length));
+            if (!noBody && length > 0) {
+                try (var out = exchange.getResponseBody()) {
+                    writeBody(out);
+                }
+            }
+        }
+
+        /**
+         * Copy the body to a stream without disturbing the shared buffer position.
+         *
+         * @param out the destination
+         * @throws IOException if writing fails
+         */
+        void writeBody(OutputStream out) throws IOException {
+            var view = body.duplicate();
+            var chunk = new byte[Math.min(64 * 1024, Math.max(1, view.remaining()))];
+            while (view.hasRemaining()) {
+                var count = Math.min(chunk.length, view.remaining());
+                view.get(chunk, 0, count);
+                out.write(chunk, 0, count);
+            }
+        }
+    }
+
+    /**
+     * Reads entry metadata directly from the mapped buffer.
+     */
+    private static final class BufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            var count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package org.fugazi.network;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import org.fugazi.utils.RunMetrics;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.devtools.NetworkInterceptor;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.openqa.selenium.remote.http.Routable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Per-test response stubs served by the browser's network interception (CDP Fetch domain).
+ * Stubs are added through {@link StubResponse} or programmatically; matching requests are fulfilled in the
+ * browser from in-memory fixtures and never reach the application, everything else continues untouched.
+ * Interception is only switched on for tests that stub something and is closed again before the pooled
+ * session is released, so other tests see an unmodified browser.
+ */
+public final class NetworkStubs implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(NetworkStubs.class);
+    private static final ThreadLocal<NetworkStubs> current = new ThreadLocal<>();
+    // Fixture bodies read once per fork and served from memory
+    private static final Map<String, byte[]> FIXTURES = new ConcurrentHashMap<>();
+
+    private final List<Stub> stubs = new CopyOnWriteArrayList<>();
+    private final NetworkInterceptor interceptor;
+    private final AtomicInteger served = new AtomicInteger();
+
+    private NetworkStubs(WebDriver driver) {
+        if (!(driver instanceof HasDevTools)) {
+            throw new UnsupportedOperationException(
+                    "Network stubbing needs a Chromium-based browser, got " + driver.getClass().getSimpleName());
+        }
+        this.interceptor = new NetworkInterceptor(driver, new StubRoutes());
+    }
+
+    /**
+     * Get the stubs of the test running on this thread, enabling interception on first use.
+     *
+     * @param driver the WebDriver instance of the current test
+     * @return the NetworkStubs for the current test
+     */
+    public static NetworkStubs forCurrentTest(WebDriver driver) {
+        var stubs = current.get();
+        if (stubs == null) {
+            stubs = new NetworkStubs(driver);
+            current.set(stubs);
+        }
+        return stubs;
+    }
+
+    /**
+     * Close the current test's stubs, if any, and switch interception off.
+     */
+    public static void closeCurrent() {
+        var stubs = current.get();
+        current.remove();
+        if (stubs != null) {
+            stubs.close();
+        }
+    }
+
+    /**
+     * Stub a request with a response declared through {@link StubResponse}.
+     *
+     * @param declaration the annotation
+     * @return this instance for chaining
+     */
+    public NetworkStubs stub(StubResponse declaration) {
+        var body = declaration.fixture().isEmpty()
+                ? declaration.body().getBytes(StandardCharsets.UTF_8)
+                : fixture(declaration.fixture());
+        return stub(declaration.method(), declaration.url(), declaration.status(), declaration.contentType(), body);
+    }
+
+    /**
+     * Stub GET requests matching the pattern with a JSON body.
+     *
+     * @param urlPattern the URL pattern, see {@link StubResponse#url()}
+     * @param json       the JSON response body
+     * @return this instance for chaining
+     */
+    public NetworkStubs stubJson(String urlPattern, String json) {
+        return stub("GET", urlPattern, 200, "application/json", json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Stub requests matching the method and pattern.
+     *
+     * @param method      the HTTP method, or "*" for any
+     * @param urlPattern  the URL pattern, see {@link StubResponse#url()}
+     * @param status      the response status
+     * @param contentType the response content type
+     * @param body        the response body
+     * @return this instance for chaining
+     */
+    public NetworkStubs stub(String method, String urlPattern, int status, String contentType, byte[] body) {
+        stubs.add(new Stub(method.toUpperCase(Locale.ROOT), urlPattern.contains("://"), toRegex(urlPattern),
+                status, contentType, body));
+        log.debug("Stubbed {} {} -> {}", method, urlPattern, status);
+        return this;
+    }
+
+    /**
+     * Number of requests answered by a stub so far in this test. Zero after the page has loaded means the
+     * application did not request the stubbed data from the browser (e.g. it was rendered on the server),
+     * so the stub could not change what the page shows.
+     *
+     * @return the number of stubbed responses served
+     */
+    public int served() {
+        return served.get();
+    }
+
+    @Override
+    public void close() {
+        interceptor.close();
+        stubs.clear();
+    }
+
+    private static byte[] fixture(String resource) {
+        return FIXTURES.computeIfAbsent(resource, path -> {
+            try (var in = NetworkStubs.class.getClassLoader().getResourceAsStream(path)) {
+                if (in == null) {
+                    throw new IllegalArgumentException("Stub fixture not found on classpath: " + path);
+                }
+                return in.readAllBytes();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read stub fixture " + path, e);
+            }
+        });
+    }
+
+    private static Pattern toRegex(String urlPattern) {
+        var regex = new StringBuilder();
+        for (var part : urlPattern.split("\\*", -1)) {
+            if (!regex.isEmpty()) {
+                regex.append(".*");
+            }
+            regex.append(Pattern.quote(part));
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    /**
+     * A single stubbed response.
+     */
+    private record Stub(String method, boolean absolute, Pattern url, int status, String contentType, byte[] body) {
+
+        boolean matches(HttpRequest request) {
+            if (!"*".equals(method) && !method.equals(request.getMethod().name())) {
+                return false;
+            }
+            var uri = request.getUri();
+            if (absolute) {
+                return url.matcher(uri).matches();
+            }
+            var parsed = URI.create(uri);
+            var target = parsed.getRawPath() + (parsed.getRawQuery() == null ? "" : "?" + parsed.getRawQuery());
+            return url.matcher(target).matches();
+        }
+    }
+
+    /**
+     * Routes intercepted requests to the first matching stub; unmatched requests continue to the network.
+     */
+    private final class StubRoutes implements Routable {
+
+        @Override
+        public boolean matches(HttpRequest request) {
+            return find(request) != null;
+        }
+
+        @Override
+        public HttpResponse execute(HttpRequest request) {
+            var stub = find(request);
+            if (stub == null) {
+                return NetworkInterceptor.PROCEED_WITH_REQUEST;
+            }
+            served.incrementAndGet();
+            RunMetrics.increment("net.stub.served");
+            return new HttpResponse()
+                    .setStatus(stub.status())
+                    .setHeader("Content-Type", stub.contentType())
+                    .setHeader("Cache-Control", "no-store")
+                    .setHeader("Access-Control-Allow-Origin", "*")
+                    .setContent(Contents.bytes(stub.body()));
+        }
+
+        private Stub find(HttpRequest request) {
+            for (var stub : stubs) {
+                if (stub.matches(request)) {
+                    return stub;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package org.fugazi.network;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.fugazi.config.ConfigurationManager;
+import org.fugazi.config.NetworkMode;
+import org.fugazi.utils.RunMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loopback reverse proxy in front of the shop deployment, used for {@code net.mode=record} and {@code replay}.
+ * In record mode every response is forwarded to the browser and appended to the archive on first sight;
+ * in replay mode responses are served from the memory-mapped archive and unknown requests get a 404,
+ * so runs are deterministic and independent of the deployment, its cold starts and the network.
+ * The browser is pointed at the proxy through the base URL, which keeps the recording free of TLS interception.
+ */
+public final class RecordReplayProxy {
+
+    private static final Logger log = LoggerFactory.getLogger(RecordReplayProxy.class);
+    private static final String LOOPBACK_HOST = "127.0.0.1";
+    private static final Duration UPSTREAM_TIMEOUT = Duration.ofSeconds(30);
+    private static volatile RecordReplayProxy instance;
+
+    // Hop-by-hop and framing headers are re-computed by the proxy, never recorded or forwarded
+    private static final Set<String> SKIPPED_HEADERS = Set.of("connection", "keep-alive", "transfer-encoding",
+            "te", "trailer", "upgrade", "proxy-authenticate", "proxy-authorization", "content-length",
+            "content-encoding", "host", "date", "strict-transport-security", "alt-svc");
+
+    private final NetworkMode mode;
+    private final NetArchive archive;
+    private final URI upstream;
+    private final HttpServer server;
+    private final HttpClient client;
+    private final String baseUrl;
+
+    private RecordReplayProxy() {
+        var config = ConfigurationManager.getInstance();
+        this.mode = config.getNetworkMode();
+        this.upstream = URI.create(stripTrailingSlash(config.getRemoteBaseUrl()));
+        Path archiveFile = Paths.get(config.getNetArchiveFile()).toAbsolutePath().normalize();
+
+        try {
+            this.archive = mode == NetworkMode.RECORD
+                    ? NetArchive.forRecording(archiveFile) : NetArchive.forReplay(archiveFile);
+            this.server = HttpServer.create(new InetSocketAddress(LOOPBACK_HOST, config.getNetProxyPort()), 0);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to start the " + mode.getModeName()
+                    + " proxy with archive " + archiveFile, e);
+        }
+
+        this.client = mode == NetworkMode.RECORD
+                ? HttpClient.newBuilder()
+                        .followRedirects(HttpClient.Redirect.NEVER)
+                        .connectTimeout(UPSTREAM_TIMEOUT)
+                        .build()
+                : null;
+
+        server.createContext("/", this::handle);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+
+        this.baseUrl = "http://" + LOOPBACK_HOST + ":" + server.getAddress().getPort();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::stop, "net-proxy-shutdown"));
+        log.info("Network {} proxy listening on {} for {} (archive: {}, {} entries)",
+                mode.getModeName(), baseUrl, upstream, archiveFile, archive.size());
+    }
+
+    /**
+     * Get the running proxy for this JVM fork, starting it on first use.
+     *
+     * @return the RecordReplayProxy instance
+     */
+    public static RecordReplayProxy getInstance() {
+        if (instance == null) {
+            synchronized (RecordReplayProxy.class) {
+                if (instance == null) {
+                    instance = new RecordReplayProxy();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Stop the proxy if it was started in this fork.
+     */
+    public static void stopIfRunning() {
+        var running = instance;
+        if (running != null) {
+            running.stop();
+        }
+    }
+
+    /**
+     * Get the base URL the browser should use to reach the application through the proxy.
+     *
+     * @return the loopback base URL, without trailing slash
+     */
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    private void stop() {
+        server.stop(0);
+        log.debug("Network {} proxy stopped ({} archived entries)", mode.getModeName(), archive.size());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            var requestBody = exchange.getRequestBody().readAllBytes();
+            var uri = exchange.getRequestURI();
+            var target = uri.getRawPath() + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery());
+            var key = NetArchive.key(exchange.getRequestMethod(), target, requestBody);
+
+            var entry = archive.get(key);
+            if (entry == null && mode == NetworkMode.RECORD) {
+                entry = record(exchange, key, target, requestBody);
+            }
+
+            if (entry == null) {
+                RunMetrics.increment("net.replay.miss");
+                log.warn("No archived response for {}", key);
+                var message = ("Not in network archive: " + key).getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+                exchange.sendResponseHeaders(404, message.length);
+                exchange.getResponseBody().write(message);
+                return;
+            }
+
+            if (mode == NetworkMode.REPLAY) {
+                RunMetrics.increment("net.replay.hit");
+            }
+            entry.send(exchange);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Proxy request {} {} failed: {}", exchange.getRequestMethod(), exchange.getRequestURI(),
+                    e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Forward the request upstream and archive the response.
+     *
+     * @return the archived entry, or null if the upstream could not be reached
+     */
+    private NetArchive.Entry record(HttpExchange exchange, String key, String target, byte[] requestBody)
+            throws IOException {
+        var request = HttpRequest.newBuilder(URI.create(upstream + target))
+                .timeout(UPSTREAM_TIMEOUT)
+                .method(exchange.getRequestMethod(), requestBody.length == 0
+                        ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofByteArray(requestBody));
+        exchange.getRequestHeaders().forEach((name, values) -> {
+            var lower = name.toLowerCase(Locale.ROOT);
+            if (!SKIPPED_HEADERS.contains(lower) && !"accept-encoding".equals(lower) && !"origin".equals(lower)
+                    && !"referer".equals(lower) && !"expect".equals(lower)) {
+                values.forEach(value -> request.header(name, value));
+            }
+        });
+        // Identity bodies can have upstream URLs made root-relative before they are compressed into the archive
+        request.header("Accept-Encoding", "identity");
+
+        HttpResponse<byte[]> response;
+        try {
+            response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (IOException e) {
+            log.warn("Upstream request {} failed: {}", key, e.getMessage());
+            return null;
+        }
+
+        var headers = new ArrayList<Map.Entry<String, String>>();
+        response.headers().map().forEach((name, values) -> {
+            var lower = name.toLowerCase(Locale.ROOT);
+            if (SKIPPED_HEADERS.contains(lower) || lower.startsWith(":")) {
+                return;
+            }
+            for (var value : values) {
+                headers.add(Map.entry(name, rewriteHeader(lower, value)));
+            }
+        });
+
+        var contentType = response.headers().firstValue("content-type").orElse("").toLowerCase(Locale.ROOT);
+        var body = response.body();
+        var flags = 0;
+        if (isText(contentType)) {
+            body = gzip(new String(body, StandardCharsets.UTF_8)
+                    .replace(upstream.toString(), "").getBytes(StandardCharsets.UTF_8));
+            flags |= NetArchive.FLAG_GZIP;
+        }
+
+        archive.append(key, response.statusCode(), List.copyOf(headers), flags, body);
+        RunMetrics.increment("net.record.entries");
+        return archive.get(key);
+    }
+
+    /**
+     * Keep redirects and cookies on the proxy origin: absolute locations become root-relative so the archive
+     * does not depend on the proxy port,
+     * and Secure/Domain attributes are dropped because the proxy is plain HTTP on loopback.
+     */
+    private String rewriteHeader(String lowerName, String value) {
+        if ("location".equals(lowerName) || "content-location".equals(lowerName)) {
+            return value.replace(upstream.toString(), "");
+        }
+        if ("set-cookie".equals(lowerName)) {
+            return value.replaceAll("(?i);\\s*Secure", "").replaceAll("(?i);\\s*Domain=[^;]*", "");
+        }
+        return value;
+    }
+
+    private static boolean isText(String contentType) {
+        return contentType.startsWith("text/") || contentType.contains("json") || contentType.contains("javascript")
+                || contentType.contains("xml") || contentType.contains("svg");
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        var buffer = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (var out = new GZIPOutputStream(buffer)) {
+            out.write(bytes);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
@@ -0,0 +1,112 @@
+package org.fugazi.network;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import org.fugazi.utils.RunMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Read-only view of a network archive captured with {@code net.mode=record}, served by the offline stand-in server.
+ * Recorded exchanges are replayed verbatim, and the recorded requests tell the server which routes the storefront
+ * really calls, so local endpoint implementations only answer requests the application is known to make.
+ */
+public final class RecordedTraffic {
+
+    private static final Logger log = LoggerFactory.getLogger(RecordedTraffic.class);
+
+    private final NetArchive archive;
+
+    private RecordedTraffic(NetArchive archive) {
+        this.archive = archive;
+    }
+
+    /**
+     * Open a recorded archive.
+     *
+     * @param file the archive written by {@code net.mode=record}
+     * @return the recorded traffic, or empty if the archive does not exist or cannot be read
+     */
+    public static Optional<RecordedTraffic> open(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try {
+            var archive = NetArchive.forReplay(file);
+            log.info("Loaded {} recorded exchange(s) from {}", archive.size(), file);
+            return Optional.of(new RecordedTraffic(archive));
+        } catch (IOException e) {
+            log.warn("Could not read network archive {}: {}", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Replay the recorded response for a request, if there is one.
+     *
+     * @param exchange    the HTTP exchange
+     * @param requestBody the request body, already read from the exchange
+     * @return true if a recorded response was sent
+     * @throws IOException if the response cannot be written
+     */
+    public boolean respond(HttpExchange exchange, byte[] requestBody) throws IOException {
+        var uri = exchange.getRequestURI();
+        var target = uri.getRawPath() + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery());
+        var entry = archive.get(NetArchive.key(exchange.getRequestMethod(), target, requestBody));
+        if (entry == null) {
+            return false;
+        }
+        RunMetrics.increment("offline.recorded.hit");
+        entry.send(exchange);
+        return true;
+    }
+
+    /**
+     * Check whether the storefront was recorded calling a route: the same method on the same path, or on a
+     * sibling path that differs only in a trailing id segment (e.g. {@code /products/3} for {@code /products/7}).
+     *
+     * @param method the HTTP method
+     * @param path   the request path, without query
+     * @return true if the recording contains a request for the route
+     */
+    public boolean hasRoute(String method, String path) {
+        var prefix = method + " ";
+        for (var key : archive.keys()) {
+            if (!key.startsWith(prefix)) {
+                continue;
+            }
+            var target = key.substring(prefix.length());
+            var end = target.length();
+            for (var separator : new String[] {"?", " #"}) {
+                var index = target.indexOf(separator);
+                if (index >= 0) {
+                    end = Math.min(end, index);
+                }
+            }
+            if (sameRoute(target.substring(0, end), path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean sameRoute(String recorded, String path) {
+        if (recorded.equals(path)) {
+            return true;
+        }
+        var recordedSlash = recorded.lastIndexOf('/');
+        var pathSlash = path.lastIndexOf('/');
+        return recordedSlash > 0 && recordedSlash == pathSlash
+                && recorded.regionMatches(0, path, 0, recordedSlash)
+                && isId(recorded.substring(recordedSlash + 1)) && isId(path.substring(pathSlash + 1));
+    }
+
+    private static boolean isId(String segment) {
+        return !segment.isEmpty() && segment.chars().anyMatch(Character::isDigit);
+    }
+}
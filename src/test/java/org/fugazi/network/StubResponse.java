@@ -0,0 +1,73 @@
+package org.fugazi.network;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Stubs an application request for the duration of one test.
+ * Matching requests are answered by the browser's network interception with the given status and body,
+ * so the test can put the page into a specific state (out of stock, no results, unknown id) directly.
+ * Declared on a class, the stub applies to every test in it; method-level stubs are checked first.
+ *
+ * <pre>
+ * &#64;StubResponse(url = "/data/*", status = 503, body = "{}")
+ * </pre>
+ * Stubs only change what the page shows if the browser requests the data. Take the URL from a request
+ * the storefront really makes (e.g. a key in a {@code net.mode=record} archive) and check
+ * {@link NetworkStubs#served()} before relying on it.
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Repeatable(StubResponses.class)
+public @interface StubResponse {
+
+    /**
+     * The request URL pattern. {@code *} matches any characters; patterns without a scheme are matched
+     * against the path and query only, so they work for any base URL.
+     *
+     * @return the URL pattern
+     */
+    String url();
+
+    /**
+     * The HTTP method to match.
+     *
+     * @return the method, GET by default; "*" matches any method
+     */
+    String method() default "GET";
+
+    /**
+     * The response status code.
+     *
+     * @return the status, 200 by default
+     */
+    int status() default 200;
+
+    /**
+     * The response content type.
+     *
+     * @return the content type, JSON by default
+     */
+    String contentType() default "application/json";
+
+    /**
+     * Inline response body. Ignored when {@link #fixture()} is set.
+     *
+     * @return the body
+     */
+    String body() default "";
+
+    /**
+     * Classpath resource holding the response body, relative to {@code src/test/resources}.
+     *
+     * @return the fixture path, or empty for an inline body
+     */
+    String fixture() default "";
+}
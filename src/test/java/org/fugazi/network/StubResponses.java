@@ -0,0 +1,25 @@
+package org.fugazi.network;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Container for repeated {@link StubResponse} declarations.
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface StubResponses {
+
+    /**
+     * The declared stubs.
+     *
+     * @return the stubs
+     */
+    StubResponse[] value();
+}
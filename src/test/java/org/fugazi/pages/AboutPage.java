@@ -53,7 +53,7 @@ public class AboutPage extends BasePage {
         // Check if URL contains /about
         if (currentUrl != null && currentUrl.contains("/about")) {
             // Use mission-card as primary indicator (reliable data-testid)
-            boolean hasMissionCard = isDisplayed(MISSION_CARD);
+            boolean hasMissionCard = awaitDisplayed(MISSION_CARD);
             boolean hasHeading = isDisplayed(PAGE_HEADING);
             log.info("About page elements - Mission Card: {}, Heading: {}", hasMissionCard, hasHeading);
             return hasMissionCard || hasHeading;
@@ -3,11 +3,17 @@ package org.fugazi.pages;
 import java.time.Duration;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Function;
 
 import org.fugazi.config.ConfigurationManager;
+import org.fugazi.utils.DomWaiter;
+import org.fugazi.utils.FailureSignalException;
+import org.fugazi.utils.FailureSignals;
+import org.fugazi.utils.ImplicitWaitGuard;
+import org.fugazi.utils.WaitPolicy;
+import org.fugazi.utils.WaitProfiler;
 import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
-import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
@@ -26,6 +32,8 @@ public abstract class BasePage {
     protected final Logger log = LoggerFactory.getLogger(getClass());
     protected final WebDriver driver;
     protected final WebDriverWait wait;
+    protected final Duration explicitWait;
+    private final Duration presenceGrace;
 
     /**
      * Constructor initializing the driver and wait objects.
@@ -35,7 +43,103 @@ public abstract class BasePage {
     protected BasePage(WebDriver driver) {
         this.driver = driver;
         var config = ConfigurationManager.getInstance();
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(config.getExplicitWait()));
+        this.explicitWait = Duration.ofSeconds(config.getExplicitWait());
+        this.wait = new WebDriverWait(driver, explicitWait);
+        this.presenceGrace = Duration.ofSeconds(config.getImplicitWait());
+    }
+
+    /**
+     * Wait for a condition with a timeout and polling interval learned from earlier runs.
+     * The time taken is recorded under the page class and condition name for future runs.
+     * While the condition does not hold, the wait is raced against {@link FailureSignals}.
+     *
+     * @param condition the condition name, unique within the page object
+     * @param ceiling   the configured timeout, never exceeded
+     * @param isTrue    the condition to wait for
+     * @param <T>       the condition's return type
+     * @return the condition's value once it is truthy
+     * @throws TimeoutException       if the condition is not met in time
+     * @throws FailureSignalException if the page reached a known failure state first
+     */
+    protected <T> T await(String condition, Duration ceiling, Function<? super WebDriver, T> isTrue) {
+        var key = getClass().getSimpleName() + "." + condition;
+        var timing = WaitPolicy.timingFor(key, ceiling);
+        var signals = raceFailureSignals() ? FailureSignals.start(driver) : null;
+        var start = System.nanoTime();
+        var satisfied = false;
+        var aborted = false;
+        try (var ignored = WaitProfiler.start(WaitProfiler.Category.EXPLICIT_WAIT, key)) {
+            var value = new WebDriverWait(driver, timing.timeout(), timing.polling()).until(d -> {
+                var result = isTrue.apply(d);
+                if (signals != null && (result == null || Boolean.FALSE.equals(result))) {
+                    signals.check();
+                }
+                return result;
+            });
+            satisfied = true;
+            return value;
+        } catch (FailureSignalException e) {
+            // Aborted waits say nothing about the condition's latency
+            aborted = true;
+            throw e;
+        } finally {
+            if (!aborted) {
+                WaitPolicy.record(key, Duration.ofNanos(System.nanoTime() - start), satisfied);
+            }
+        }
+    }
+
+    /**
+     * Wait for a JavaScript condition observed in the browser (see {@link DomWaiter}), with a timeout
+     * learned from earlier runs.
+     *
+     * @param condition the condition name, unique within the page object
+     * @param ceiling   the configured timeout, never exceeded
+     * @param script    the JavaScript expression to wait for
+     * @param args      values exposed to the expression as {@code args[i]}
+     * @return true if the condition was met in time, false on timeout or when the page reached a known
+     *         failure state first
+     */
+    protected boolean awaitInBrowser(String condition, Duration ceiling, String script, Object... args) {
+        var key = getClass().getSimpleName() + "." + condition;
+        var timing = WaitPolicy.timingFor(key, ceiling);
+        var failure = raceFailureSignals() ? FailureSignals.expression() : "null";
+        var start = System.nanoTime();
+        var satisfied = false;
+        try (var ignored = WaitProfiler.start(WaitProfiler.Category.EXPLICIT_WAIT, key)) {
+            satisfied = DomWaiter.waitForUnless(driver, script, failure, timing.timeout(), args);
+            WaitPolicy.record(key, Duration.ofNanos(System.nanoTime() - start), satisfied);
+            return satisfied;
+        } catch (FailureSignalException e) {
+            log.warn("Stopped waiting for {}: {}", condition, e.getRawMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Pause for a fixed time, e.g. to let a UI state settle where no condition can be observed.
+     * The pause is reported as backoff by the {@link WaitProfiler}.
+     *
+     * @param reason   what the pause waits for, used as the profiler site
+     * @param duration how long to pause
+     */
+    protected void pause(String reason, Duration duration) {
+        try (var ignored = WaitProfiler.start(WaitProfiler.Category.BACKOFF,
+                getClass().getSimpleName() + "." + reason)) {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Whether waits of this page object abort on {@link FailureSignals}.
+     * Components shown on every page, including error views, opt out.
+     *
+     * @return true if waits race against failure signals
+     */
+    protected boolean raceFailureSignals() {
+        return true;
     }
 
     /**
@@ -46,7 +150,7 @@ public abstract class BasePage {
      */
     protected WebElement waitForVisibility(By locator) {
         log.debug("Waiting for visibility of element: {}", locator);
-        return wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+        return await("visible " + locator, explicitWait, ExpectedConditions.visibilityOfElementLocated(locator));
     }
 
     /**
@@ -57,7 +161,7 @@ public abstract class BasePage {
      */
     protected WebElement waitForClickable(By locator) {
         log.debug("Waiting for element to be clickable: {}", locator);
-        return wait.until(ExpectedConditions.elementToBeClickable(locator));
+        return await("clickable " + locator, explicitWait, ExpectedConditions.elementToBeClickable(locator));
     }
 
     /**
@@ -68,7 +172,7 @@ public abstract class BasePage {
      */
     protected WebElement waitForPresence(By locator) {
         log.debug("Waiting for presence of element: {}", locator);
-        return wait.until(ExpectedConditions.presenceOfElementLocated(locator));
+        return await("present " + locator, explicitWait, ExpectedConditions.presenceOfElementLocated(locator));
     }
 
     /**
@@ -76,7 +180,7 @@ public abstract class BasePage {
      */
     protected void waitForPageLoad() {
         log.debug("Waiting for page to load completely");
-        wait.until(driver -> {
+        await("pageLoad", explicitWait, driver -> {
             var js = (JavascriptExecutor) driver;
             return Objects.requireNonNull(js.executeScript("return document.readyState")).equals("complete");
         });
@@ -89,36 +193,41 @@ public abstract class BasePage {
      */
     protected void waitForUrlChange(String currentUrl) {
         log.debug("Waiting for URL to change from: {}", currentUrl);
-        wait.until(ExpectedConditions.not(ExpectedConditions.urlToBe(currentUrl)));
+        await("urlChange", explicitWait, ExpectedConditions.not(ExpectedConditions.urlToBe(currentUrl)));
     }
 
     /**
-     * Wait for animations to complete by checking for stable DOM.
-     * Uses JavaScript to detect when no animations are running.
+     * Wait for animations to complete.
+     * Resolves in the browser on the last animation/transition end event instead of polling.
      */
     protected void waitForAnimationsToComplete() {
         log.debug("Waiting for animations to complete");
-        wait.until(driver -> {
-            var js = (JavascriptExecutor) driver;
-            // Check if there are any running CSS animations or transitions
-            var noAnimations = (Boolean) js.executeScript(
-                    "return document.getAnimations().length === 0;"
-            );
-            return Boolean.TRUE.equals(noAnimations);
-        });
+        if (!awaitInBrowser("animations", explicitWait, "document.getAnimations().length === 0")) {
+            throw new TimeoutException("Animations still running after " + explicitWait.toSeconds() + "s");
+        }
     }
 
     /**
      * Wait for at least one element matching the locator to be present.
-     * Useful for waiting for dynamic content to load.
+     * Useful for waiting for dynamic content to load. CSS locators are watched in the browser
+     * with a MutationObserver; other locator types are polled.
      *
      * @param locator  the element locator
      * @param minCount minimum number of elements expected
      */
     protected void waitForMinimumElements(By locator, int minCount) {
         log.debug("Waiting for at least {} elements: {}", minCount, locator);
+        var css = DomWaiter.cssSelectorOf(locator);
+        if (css.isPresent()) {
+            if (!awaitInBrowser("minimum " + locator, explicitWait,
+                    "document.querySelectorAll(args[0]).length >= args[1]", css.get(), minCount)) {
+                log.debug("Timeout waiting for {} elements: {}", minCount, locator);
+            }
+            return;
+        }
+
         try {
-            wait.until(driver -> driver.findElements(locator).size() >= minCount);
+            await("minimum " + locator, explicitWait, driver -> driver.findElements(locator).size() >= minCount);
         } catch (TimeoutException e) {
             log.debug("Timeout waiting for {} elements: {}", minCount, locator);
         }
@@ -203,46 +312,78 @@ public abstract class BasePage {
 
     /**
      * Check if an element is displayed.
+     * Zero-wait probe: returns immediately when the element is absent instead of blocking on the implicit wait.
      *
      * @param locator the element locator
      * @return true if element is displayed
      */
     protected boolean isDisplayed(By locator) {
         try {
-            return driver.findElement(locator).isDisplayed();
-        } catch (NoSuchElementException | StaleElementReferenceException e) {
+            var elements = ImplicitWaitGuard.findElementsNow(driver, locator);
+            return !elements.isEmpty() && elements.getFirst().isDisplayed();
+        } catch (StaleElementReferenceException e) {
             log.debug("Element not displayed: {}", locator);
             return false;
         }
     }
 
+    /**
+     * Check if an element becomes visible within the given timeout.
+     * Use for positive checks that must tolerate rendering delays (e.g. React hydration).
+     *
+     * @param locator the element locator
+     * @param timeout the maximum time to wait
+     * @return true if element became visible in time
+     */
+    protected boolean isDisplayedWithin(By locator, Duration timeout) {
+        try {
+            await("visible " + locator, timeout, ExpectedConditions.visibilityOfElementLocated(locator));
+            return true;
+        } catch (FailureSignalException e) {
+            log.debug("Element not displayed, {}: {}", e.getRawMessage(), locator);
+            return false;
+        } catch (TimeoutException e) {
+            log.debug("Element not displayed within {}s: {}", timeout.toSeconds(), locator);
+            return false;
+        }
+    }
+
+    /**
+     * Check if an element becomes visible within the configured implicit wait window.
+     * Preserves the grace period page-loaded checks used to get from the implicit wait.
+     *
+     * @param locator the element locator
+     * @return true if element became visible in time
+     */
+    protected boolean awaitDisplayed(By locator) {
+        return isDisplayedWithin(locator, presenceGrace);
+    }
+
     /**
      * Check if an element is enabled.
+     * Zero-wait probe: returns immediately when the element is absent.
      *
      * @param locator the element locator
      * @return true if element is enabled
      */
     protected boolean isEnabled(By locator) {
         try {
-            return driver.findElement(locator).isEnabled();
-        } catch (NoSuchElementException e) {
+            var elements = ImplicitWaitGuard.findElementsNow(driver, locator);
+            return !elements.isEmpty() && elements.getFirst().isEnabled();
+        } catch (StaleElementReferenceException e) {
             return false;
         }
     }
 
     /**
      * Check if an element exists in the DOM.
+     * Zero-wait probe: returns immediately when the element is absent.
      *
      * @param locator the element locator
      * @return true if element exists
      */
     protected boolean isElementPresent(By locator) {
-        try {
-            driver.findElement(locator);
-            return true;
-        } catch (NoSuchElementException e) {
-            return false;
-        }
+        return !ImplicitWaitGuard.findElementsNow(driver, locator).isEmpty();
     }
 
     /**
@@ -277,12 +418,13 @@ public abstract class BasePage {
 
     /**
      * Get the count of elements matching the locator.
+     * Zero-wait probe: returns 0 immediately when no element is present.
      *
      * @param locator the element locator
      * @return the count of matching elements
      */
     protected int getElementCount(By locator) {
-        return driver.findElements(locator).size();
+        return ImplicitWaitGuard.findElementsNow(driver, locator).size();
     }
 
     /**
@@ -6,6 +6,10 @@ import java.util.Objects;
 
 import io.qameta.allure.Step;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.fugazi.data.models.CartSnapshot;
 import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.NoSuchElementException;
@@ -13,7 +17,6 @@ import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
 /**
  * Page Object Model for the shopping cart page.
@@ -21,20 +24,27 @@ import org.openqa.selenium.support.ui.WebDriverWait;
  */
 public class CartPage extends BasePage {
 
-    private static final By CART_ITEMS = By.cssSelector("[data-testid^='cart-item-'][role='article']");
-    private static final By CART_ITEM_NAME = By.cssSelector("a[data-testid^='cart-item-product-name']");
+    private static final String CART_ITEMS_CSS = "[data-testid^='cart-item-'][role='article']";
+    private static final String CART_ITEM_NAME_CSS = "a[data-testid^='cart-item-product-name']";
+    private static final String CART_ITEM_QUANTITY_CSS = "span[data-testid^='cart-quantity-']";
+    private static final String CART_ITEM_UNIT_PRICE_CSS = "[data-testid^='cart-item-price-']";
+    private static final String CART_ITEM_TOTAL_PRICE_CSS = "p[data-testid^='cart-item-total-price-']";
+    private static final String CART_SUBTOTAL_CSS = "div[data-testid='cart-subtotal']";
+    private static final String CART_TOTAL_CSS = "div[data-testid='cart-total']";
+    private static final String FREE_SHIPPING_THRESHOLD_CSS = "div[data-testid='free-shipping-threshold']";
+    private static final String EMPTY_CART_MESSAGE_CSS = "[data-testid='empty-cart'], [class*='empty-cart']";
+
+    private static final By CART_ITEMS = By.cssSelector(CART_ITEMS_CSS);
 
     static {
         By.cssSelector("img[data-testid^='cart-item-product-image']");
         By.cssSelector("p[data-testid^='cart-item-category']");
     }
 
-    private static final By CART_ITEM_QUANTITY_DISPLAY = By.cssSelector("span[data-testid^='cart-quantity-']");
     private static final By CART_ITEM_DECREASE_BUTTON = By.cssSelector(
             "button[data-testid^='cart-decrease-quantity-']");
     private static final By CART_ITEM_INCREASE_BUTTON = By.cssSelector(
             "button[data-testid^='cart-increase-quantity-']");
-    private static final By CART_ITEM_TOTAL_PRICE = By.cssSelector("p[data-testid^='cart-item-total-price-']");
     private static final By CART_ITEM_REMOVE_BUTTON = By.cssSelector("button[data-testid^='cart-remove-item-']");
 
     // Order Summary
@@ -44,24 +54,73 @@ public class CartPage extends BasePage {
         By.cssSelector("div[data-testid='order-summary-card']");
     }
 
-    private static final By CART_SUBTOTAL = By.cssSelector("div[data-testid='cart-subtotal']");
-
-    static {
-        By.cssSelector("div[data-testid='free-shipping-threshold']");
-    }
-
-    private static final By CART_TOTAL = By.cssSelector("div[data-testid='cart-total']");
     private static final By CHECKOUT_BUTTON = By.cssSelector("button[data-testid='checkout-button']");
     private static final By CONTINUE_SHOPPING_BUTTON = By.cssSelector("button[data-testid='continue-shopping']");
 
     // Empty cart / Login redirect detection
     private static final By CART_TITLE = By.cssSelector("h1, h2, h3[data-testid^='cart-title']");
-    private static final By EMPTY_CART_MESSAGE = By.cssSelector("[data-testid='empty-cart'], [class*='empty-cart']");
+    private static final By EMPTY_CART_MESSAGE = By.cssSelector(EMPTY_CART_MESSAGE_CSS);
 
     static {
         By.cssSelector("[data-testid='login-form']");
     }
 
+    // Captures line items and order summary in one round trip so all values come from the same render
+    private static final String CART_SNAPSHOT_SCRIPT = """
+            const [itemsCss, nameCss, quantityCss, unitPriceCss, lineTotalCss,
+                   subtotalCss, totalCss, thresholdCss, emptyCss] = arguments;
+            const money = text => {
+                const match = (text || '').match(/[\\d,]+(\\.\\d+)?/);
+                return match ? (parseFloat(match[0].replace(/,/g, '')) || 0) : 0;
+            };
+            const text = (root, css) => {
+                const element = root ? root.querySelector(css) : null;
+                return element ? (element.innerText || element.textContent || '').trim() : '';
+            };
+            const visible = element => !!element && element.getClientRects().length > 0;
+
+            const items = Array.from(document.querySelectorAll(itemsCss), item => {
+                const quantity = parseInt(text(item, quantityCss), 10) || 0;
+                const lineTotalText = text(item, lineTotalCss);
+                const lineTotal = money(lineTotalText);
+                const unitPriceText = text(item, unitPriceCss);
+                return {
+                    name: text(item, nameCss),
+                    quantity: quantity,
+                    unitPrice: unitPriceText ? money(unitPriceText) : (quantity > 0 ? lineTotal / quantity : 0),
+                    lineTotalText: lineTotalText,
+                    lineTotal: lineTotal
+                };
+            });
+
+            const subtotalElement = document.querySelector(subtotalCss);
+            const subtotalMatch = subtotalElement ? subtotalElement.innerText.match(/\\$[\\d,.]+/) : null;
+            const subtotalText = subtotalMatch ? subtotalMatch[0] : (subtotalElement ? subtotalElement.innerText.trim() : '');
+
+            const totalElement = document.querySelector(totalCss);
+            let totalText = '';
+            if (totalElement) {
+                const labelled = totalElement.querySelector("span[aria-label^='Total']");
+                const labelMatch = labelled ? (labelled.getAttribute('aria-label') || '').match(/\\$[\\d,.]+/) : null;
+                const textMatch = totalElement.innerText.match(/\\$[\\d,.]+/);
+                totalText = labelMatch ? labelMatch[0]
+                        : (labelled && labelled.innerText.trim()) ? labelled.innerText.trim()
+                        : textMatch ? textMatch[0] : totalElement.innerText.trim();
+            }
+
+            return JSON.stringify({
+                items: items,
+                subtotalText: subtotalText,
+                subtotal: money(subtotalText),
+                totalText: totalText,
+                total: money(totalText),
+                freeShippingThreshold: money(text(document, thresholdCss)),
+                onLoginPage: window.location.pathname.includes('/login'),
+                emptyMessageDisplayed: visible(document.querySelector(emptyCss))
+            });
+            """;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
     /**
      * Initializes the CartPage with a WebDriver instance.
      *
@@ -90,6 +149,44 @@ public class CartPage extends BasePage {
         return isDisplayed(CART_ITEMS) || isDisplayed(EMPTY_CART_MESSAGE);
     }
 
+    /**
+     * Captures a consistent point-in-time snapshot of line items and order summary in a single script call.
+     *
+     * @return the cart snapshot
+     */
+    @Step("Capture cart snapshot")
+    public CartSnapshot getCartSnapshot() {
+        var json = (String) ((JavascriptExecutor) driver).executeScript(CART_SNAPSHOT_SCRIPT,
+                CART_ITEMS_CSS, CART_ITEM_NAME_CSS, CART_ITEM_QUANTITY_CSS, CART_ITEM_UNIT_PRICE_CSS,
+                CART_ITEM_TOTAL_PRICE_CSS, CART_SUBTOTAL_CSS, CART_TOTAL_CSS, FREE_SHIPPING_THRESHOLD_CSS,
+                EMPTY_CART_MESSAGE_CSS);
+        try {
+            return MAPPER.readValue(Objects.requireNonNull(json), CartSnapshot.class);
+        } catch (JsonProcessingException e) {
+            log.error("Could not parse cart snapshot: {}", e.getMessage());
+            return new CartSnapshot(List.of(), "", 0.0, "", 0.0, 0.0, false, false);
+        }
+    }
+
+    /**
+     * Waits until the cart renders the expected number of line items (or redirects to login), then captures it.
+     * Use after loading /cart with known contents, where the items appear only once the app has hydrated.
+     *
+     * @param expectedItems the number of line items expected
+     * @return the cart snapshot, captured even if the wait timed out
+     */
+    @Step("Wait for {expectedItems} cart item(s)")
+    public CartSnapshot awaitCartSnapshot(int expectedItems) {
+        var rendered = awaitInBrowser("cartItems",
+                explicitWait,
+                "document.querySelectorAll(args[0]).length >= args[1] || window.location.pathname.includes('/login')",
+                CART_ITEMS_CSS, expectedItems);
+        if (!rendered) {
+            log.debug("Cart did not render {} item(s) in time", expectedItems);
+        }
+        return getCartSnapshot();
+    }
+
     /**
      * Checks if the cart is empty.
      *
@@ -97,23 +194,16 @@ public class CartPage extends BasePage {
      */
     @Step("Check if cart is empty (login page)")
     public boolean isCartEmpty() {
-        var currentUrl = getCurrentUrl();
-        boolean onLoginPage = currentUrl != null && currentUrl.contains("/login");
+        var snapshot = getCartSnapshot();
 
-        if (onLoginPage) {
+        if (snapshot.onLoginPage()) {
             log.debug("On login page with cart redirect, cannot determine if cart is empty");
             return true;
         }
 
-        boolean noItemsDisplayed = isDisplayed(EMPTY_CART_MESSAGE);
-        boolean noCartItems = getCartItemCount() == 0;
-
-        boolean isEmpty = noItemsDisplayed || noCartItems;
-
-        log.debug("Cart empty status: {} (on login page: {}, no items displayed: {}, no cart items: {})",
-                isEmpty, false, noItemsDisplayed, noCartItems);
-
-        return isEmpty;
+        log.debug("Cart empty status: {} (no items displayed: {}, cart items: {})",
+                snapshot.isEmpty(), snapshot.emptyMessageDisplayed(), snapshot.itemCount());
+        return snapshot.isEmpty();
     }
 
     /**
@@ -123,15 +213,14 @@ public class CartPage extends BasePage {
      */
     @Step("Check if cart is loaded with items")
     public boolean isCartLoadedWithItems() {
-        var currentUrl = getCurrentUrl();
-        boolean onLoginPage = currentUrl != null && currentUrl.contains("/login");
+        var snapshot = getCartSnapshot();
 
-        if (onLoginPage) {
+        if (snapshot.onLoginPage()) {
             log.debug("On login page, cart not loaded with items");
             return false;
         }
 
-        boolean hasItems = getCartItemCount() > 0;
+        boolean hasItems = snapshot.itemCount() > 0;
 
         log.debug("Cart loaded with items: {}", hasItems);
         return hasItems;
@@ -180,45 +269,13 @@ public class CartPage extends BasePage {
 
     /**
      * Gets all item names from the cart.
-     * Uses innerHTML as fallback to handle React hydration timing issues.
+     * Names are read with innerText/textContent, which also covers elements not yet visible during React hydration.
      *
      * @return list of item names, empty items are filtered out
      */
     @Step("Get item names in cart")
     public List<String> getItemNames() {
-        return getCartItems().stream()
-                .map(item -> {
-                    try {
-                        var nameElement = item.findElement(CART_ITEM_NAME);
-                        // Try getText() first for visible elements
-                        try {
-                            var text = nameElement.getText();
-                            if (!text.isEmpty()) {
-                                return text;
-                            }
-                        } catch (Exception e) {
-                            log.debug("getText() failed, trying innerHTML: {}", e.getMessage());
-                        }
-
-                        // Fallback: Use innerHTML attribute (works even if element is not displayed)
-                        // This handles React hydration timing issues where element exists but isn't visible yet
-                        var innerHtml = nameElement.getDomAttribute("innerHTML");
-                        if (innerHtml != null && !innerHtml.isEmpty()) {
-                            return innerHtml.trim();
-                        }
-
-                        log.debug("Both getText() and innerHTML are empty");
-                        return "";
-                    } catch (StaleElementReferenceException e) {
-                        log.debug("Item name element was stale, returning empty string");
-                        return "";
-                    } catch (NoSuchElementException e) {
-                        log.debug("Item name element not found, returning empty string");
-                        return "";
-                    }
-                })
-                .filter(name -> !name.isEmpty())
-                .toList();
+        return getCartSnapshot().itemNames();
     }
 
     /**
@@ -229,24 +286,13 @@ public class CartPage extends BasePage {
      */
     @Step("Get quantity of specific item")
     public int getItemQuantity(int itemIndex) {
-        var items = getCartItems();
+        var items = getCartSnapshot().items();
 
         if (itemIndex >= 0 && itemIndex < items.size()) {
-            try {
-                var quantityDisplay = items.get(itemIndex).findElement(CART_ITEM_QUANTITY_DISPLAY);
-                return Integer.parseInt(quantityDisplay.getText().trim());
-            } catch (StaleElementReferenceException e) {
-                log.debug("Item quantity element was stale, refreshing items and retrying");
-                var refreshedItems = getCartItems();
-                if (itemIndex < refreshedItems.size()) {
-                    var quantityDisplay = refreshedItems.get(itemIndex).findElement(CART_ITEM_QUANTITY_DISPLAY);
-                    return Integer.parseInt(quantityDisplay.getText().trim());
-                }
-            } catch (NoSuchElementException e) {
-                log.debug("Quantity element not found for item {}", itemIndex);
-            }
+            return items.get(itemIndex).quantity();
         }
 
+        log.debug("Quantity not found for item {}", itemIndex);
         return 0;
     }
 
@@ -258,24 +304,13 @@ public class CartPage extends BasePage {
      */
     @Step("Get total price of specific item")
     public String getItemTotalPrice(int itemIndex) {
-        var items = getCartItems();
+        var items = getCartSnapshot().items();
 
-        if (itemIndex >= 0 && itemIndex < items.size()) {
-            try {
-                var priceElement = items.get(itemIndex).findElement(CART_ITEM_TOTAL_PRICE);
-                return priceElement.getText().trim();
-            } catch (StaleElementReferenceException e) {
-                log.debug("Item price element was stale, refreshing items and retrying");
-                var refreshedItems = getCartItems();
-                if (itemIndex < refreshedItems.size()) {
-                    var priceElement = refreshedItems.get(itemIndex).findElement(CART_ITEM_TOTAL_PRICE);
-                    return priceElement.getText().trim();
-                }
-            } catch (NoSuchElementException e) {
-                log.debug("Price element not found for item {}", itemIndex);
-            }
+        if (itemIndex >= 0 && itemIndex < items.size() && !items.get(itemIndex).lineTotalText().isEmpty()) {
+            return items.get(itemIndex).lineTotalText();
         }
 
+        log.debug("Price not found for item {}", itemIndex);
         return "0.00";
     }
 
@@ -406,18 +441,11 @@ public class CartPage extends BasePage {
      */
     @Step("Get cart subtotal")
     public String getCartSubtotal() {
-        if (isCartEmpty()) {
-            return "0.00";
-        }
-
-        try {
-            var subtotalElement = driver.findElement(CART_SUBTOTAL);
-            var priceText = findPriceText(subtotalElement);
-            return extractPrice(priceText);
-        } catch (NoSuchElementException e) {
-            log.debug("Subtotal element not found");
+        var snapshot = getCartSnapshot();
+        if (snapshot.isEmpty()) {
             return "0.00";
         }
+        return extractPrice(snapshot.subtotalText());
     }
 
     /**
@@ -428,8 +456,8 @@ public class CartPage extends BasePage {
     @Step("Check if checkout button is displayed")
     public boolean isCheckoutButtonDisplayed() {
         try {
-            var wait = new WebDriverWait(driver, Duration.ofSeconds(5));
-            wait.until(ExpectedConditions.presenceOfElementLocated(CHECKOUT_BUTTON));
+            await("checkoutButton", Duration.ofSeconds(5),
+                    ExpectedConditions.presenceOfElementLocated(CHECKOUT_BUTTON));
             var element = driver.findElement(CHECKOUT_BUTTON);
             // Scroll to element to make it visible
             ((org.openqa.selenium.JavascriptExecutor) driver).executeScript(
@@ -476,48 +504,11 @@ public class CartPage extends BasePage {
      */
     @Step("Get cart total text")
     public String getTotal() {
-        if (isCartEmpty()) {
-            return "$0.00";
-        }
-
-        try {
-            var totalElement = driver.findElement(CART_TOTAL);
-            // Scroll to element to make it visible
-            ((org.openqa.selenium.JavascriptExecutor) driver).executeScript(
-                    "arguments[0].scrollIntoView({block: 'center'});", totalElement);
-
-            // Try to get from the span with aria-label (contains "Total: $xxx.xx")
-            var priceSpan = totalElement.findElements(By.cssSelector("span[aria-label^='Total']"));
-            if (!priceSpan.isEmpty()) {
-                var ariaLabel = priceSpan.getFirst().getDomAttribute("aria-label");
-                if (ariaLabel != null && ariaLabel.contains("$")) {
-                    // Extract price from "Total: $102.99"
-                    var matcher = java.util.regex.Pattern.compile("\\$[\\d,.]+").matcher(ariaLabel);
-                    if (matcher.find()) {
-                        return matcher.group();
-                    }
-                }
-                // Try direct text
-                var text = priceSpan.getFirst().getText();
-                if (!text.isEmpty()) {
-                    return text.trim();
-                }
-            }
-
-            // Fallback: get all text from the element
-            var fullText = totalElement.getText().trim();
-            if (fullText.contains("$")) {
-                var matcher = java.util.regex.Pattern.compile("\\$[\\d,.]+").matcher(fullText);
-                if (matcher.find()) {
-                    return matcher.group();
-                }
-            }
-
-            return fullText.isEmpty() ? "$0.00" : fullText;
-        } catch (NoSuchElementException e) {
-            log.debug("Total element not found");
+        var snapshot = getCartSnapshot();
+        if (snapshot.isEmpty() || snapshot.totalText().isEmpty()) {
             return "$0.00";
         }
+        return snapshot.totalText();
     }
 
     /**
@@ -555,17 +546,6 @@ public class CartPage extends BasePage {
         waitForPageLoad();
     }
 
-    /**
-     * Extracts price text from a WebElement.
-     *
-     * @param priceElement the element containing price
-     * @return the cleaned price text
-     */
-    private String findPriceText(WebElement priceElement) {
-        var text = priceElement.getText();
-        return text.replaceAll("[^0-9.$,]", "").trim();
-    }
-
     /**
      * Removes currency symbols and returns numeric price.
      *
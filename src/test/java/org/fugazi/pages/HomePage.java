@@ -58,7 +58,7 @@ public class HomePage extends BasePage {
         log.debug("Checking if home page is loaded");
         waitForPageLoad();
         // Home page is loaded if main content is present and hero section or featured products are visible
-        return isDisplayed(MAIN_CONTENT) && (isDisplayed(HERO_SECTION) || isDisplayed(FEATURED_SECTION));
+        return awaitDisplayed(MAIN_CONTENT) && (isDisplayed(HERO_SECTION) || isDisplayed(FEATURED_SECTION));
     }
 
     /**
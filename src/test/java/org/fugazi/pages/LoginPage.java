@@ -9,7 +9,6 @@ import org.openqa.selenium.By;
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
 /**
  * Page Object representing the Login Page.
@@ -46,7 +45,7 @@ public class LoginPage extends BasePage {
         var currentUrl = getCurrentUrl();
         if (currentUrl != null && currentUrl.contains("/login")) {
             // Also verify the form is visible
-            return isDisplayed(LOGIN_FORM);
+            return awaitDisplayed(LOGIN_FORM);
         }
 
         return false;
@@ -264,11 +263,10 @@ public class LoginPage extends BasePage {
     @Step("Wait for successful login")
     private void waitForSuccessfulLogin() {
         log.debug("Waiting for successful login - verifying URL change");
-        var wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-
         try {
             // Wait for URL to no longer contain /login
-            wait.until(ExpectedConditions.not(ExpectedConditions.urlContains("/login")));
+            await("loginRedirect", Duration.ofSeconds(10),
+                    ExpectedConditions.not(ExpectedConditions.urlContains("/login")));
 
             var currentUrl = driver.getCurrentUrl();
             log.info("Login successful - redirected to: {}", currentUrl);
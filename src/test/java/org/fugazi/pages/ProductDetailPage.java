@@ -1,5 +1,6 @@
 package org.fugazi.pages;
 
+import java.time.Duration;
 import java.util.Objects;
 
 import io.qameta.allure.Step;
@@ -71,7 +72,7 @@ public class ProductDetailPage extends BasePage {
     public boolean isPageLoaded() {
         log.debug("Checking if product detail page is loaded");
         waitForPageLoad();
-        return isDisplayed(PRODUCT_TITLE) && isDisplayed(PRODUCT_PRICE);
+        return awaitDisplayed(PRODUCT_TITLE) && isDisplayed(PRODUCT_PRICE);
     }
 
     /**
@@ -166,7 +167,7 @@ public class ProductDetailPage extends BasePage {
         click(ADD_TO_CART_BUTTON);
 
         // Wait for any of: success message, URL change, or button state change
-        wait.until(driver -> {
+        await("addToCartConfirmation", explicitWait, driver -> {
             // Check if URL changed (redirect to log in or cart)
             if (!Objects.requireNonNull(driver.getCurrentUrl()).equals(currentUrl)) {
                 return true;
@@ -293,11 +294,7 @@ public class ProductDetailPage extends BasePage {
             for (int i = 0; i < clicksNeeded; i++) {
                 click(QUANTITY_INCREASE);
                 // Small wait to allow React state to update
-                try {
-                    Thread.sleep(100);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
+                pause("setQuantity", Duration.ofMillis(100));
             }
             log.info("Clicked increase button {} times", clicksNeeded);
         }
@@ -306,11 +303,7 @@ public class ProductDetailPage extends BasePage {
             var clicksNeeded = currentQuantity - quantity;
             for (int i = 0; i < clicksNeeded; i++) {
                 click(QUANTITY_DECREASE);
-                try {
-                    Thread.sleep(100);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
+                pause("setQuantity", Duration.ofMillis(100));
             }
             log.info("Clicked decrease button {} times", clicksNeeded);
         } else {
@@ -332,11 +325,7 @@ public class ProductDetailPage extends BasePage {
             click(QUANTITY_INCREASE);
 
             // Wait for quantity to update (React state change)
-            try {
-                Thread.sleep(200);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
+            pause("increaseQuantity", Duration.ofMillis(200));
 
             var newQuantity = getQuantity();
             log.info("Quantity increased: {} → {}", initialQuantity, newQuantity);
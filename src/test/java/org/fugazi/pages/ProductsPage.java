@@ -7,11 +7,16 @@ import java.util.regex.Pattern;
 
 import io.qameta.allure.Step;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.fugazi.data.models.ProductCardSnapshot;
 import org.fugazi.pages.components.HeaderComponent;
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
 /**
  * Page Object Model for the products listing page.
@@ -29,20 +34,62 @@ public class ProductsPage extends BasePage {
     private static final By SEARCH_INPUT = By.cssSelector("[data-testid='search-products-input']");
 
     // Product grid
-    private static final By PRODUCT_CARDS = By.cssSelector("[data-testid^='product-card-']");
-    private static final By PRODUCT_TITLE = By.cssSelector("[data-testid^='product-title-link-'] h3");
-    private static final By PRODUCT_PRICE = By.cssSelector("[data-testid^='product-price-']");
-    private static final By PRODUCT_IMAGE_LINK = By.cssSelector("[data-testid^='product-image-link-']");
+    private static final String PRODUCT_CARDS_CSS = "[data-testid^='product-card-']";
+    private static final String PRODUCT_TITLE_CSS = "[data-testid^='product-title-link-'] h3";
+    private static final String PRODUCT_PRICE_CSS = "[data-testid^='product-price-']";
+    private static final String PRODUCT_IMAGE_LINK_CSS = "[data-testid^='product-image-link-']";
+    private static final String PRODUCT_CATEGORY_CSS = "[data-testid^='product-category-']";
+    private static final By PRODUCT_CARDS = By.cssSelector(PRODUCT_CARDS_CSS);
+    private static final By PRODUCT_IMAGE_LINK = By.cssSelector(PRODUCT_IMAGE_LINK_CSS);
+
+    // Extracts every card in one round trip; selectors are passed as arguments to keep a single source of truth
+    private static final String PRODUCT_CARDS_SCRIPT = """
+            const [cardsCss, titleCss, priceCss, imageCss, categoryCss] = arguments;
+            const text = (card, css) => {
+                const element = card.querySelector(css);
+                return element ? element.innerText.trim() : '';
+            };
+            const source = img => {
+                if (!img || !img.src) {
+                    return '';
+                }
+                const url = new URL(img.src, location.href);
+                return url.pathname.endsWith('/_next/image') && url.searchParams.get('url')
+                        ? url.searchParams.get('url') : img.getAttribute('src');
+            };
+            return JSON.stringify(Array.from(document.querySelectorAll(cardsCss), card => {
+                const priceText = text(card, priceCss);
+                const priceMatch = priceText.match(/[\\d,.]+/);
+                const image = card.querySelector(imageCss);
+                return {
+                    id: card.getAttribute('data-testid').replace('product-card-', ''),
+                    title: text(card, titleCss),
+                    priceText: priceText,
+                    price: priceMatch ? (parseFloat(priceMatch[0].replace(/,/g, '')) || 0) : 0,
+                    imageHref: image ? image.href : '',
+                    imageSrc: source(card.querySelector('img')),
+                    category: text(card, categoryCss)
+                };
+            }));
+            """;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
 
     // Skeleton loading indicator
-    private static final By SKELETON_LOADER = By.cssSelector("[data-slot='skeleton']");
+    private static final String SKELETON_LOADER_CSS = "[data-slot='skeleton']";
 
     // Pagination
     private static final By PAGINATION_CURRENT = By.cssSelector(
             "[data-testid='pagination-current'], [aria-current='page']");
 
     // Results info
-    private static final By NO_RESULTS_MESSAGE = By.cssSelector("[data-testid='no-results'], .no-results");
+    private static final String NO_RESULTS_MESSAGE_CSS = "[data-testid='no-results'], .no-results";
+    private static final By NO_RESULTS_MESSAGE = By.cssSelector(NO_RESULTS_MESSAGE_CSS);
+
+    // Content is loaded once skeletons are gone, product cards are rendered or the no-results message is shown
+    private static final String CONTENT_LOADED_CONDITION = "document.querySelectorAll(args[0]).length === 0"
+            + " || document.querySelectorAll(args[1]).length > 0"
+            + " || document.querySelector(args[2]) !== null";
+    private static final Duration CONTENT_LOAD_TIMEOUT = Duration.ofSeconds(30);
 
     /**
      * Initializes the ProductsPage with a WebDriver instance.
@@ -74,26 +121,20 @@ public class ProductsPage extends BasePage {
         log.debug("Checking if products page is loaded");
         waitForPageLoad();
         waitForContentToLoad();
-        return isDisplayed(MAIN_CONTENT) && (hasProducts() || isNoResultsDisplayed());
+        return awaitDisplayed(MAIN_CONTENT) && (hasProducts() || isNoResultsDisplayed());
     }
 
     /**
      * Waits for content to fully load (skeletons disappear or products appear).
+     * The condition is observed in the browser, so the wait costs a single command instead of three per poll.
      */
     @Step("Wait for products to load")
     public void waitForContentToLoad() {
         log.debug("Waiting for products content to load");
         // Use a longer timeout for content loading due to parallel test execution
-        var contentWait = new WebDriverWait(driver, Duration.ofSeconds(30));
-        try {
-            contentWait.until(d -> {
-                int skeletonCount = getElementCount(SKELETON_LOADER);
-                int productCount = getElementCount(PRODUCT_CARDS);
-                // Also check for no-results message
-                boolean noResults = isElementPresent(NO_RESULTS_MESSAGE);
-                return skeletonCount == 0 || productCount > 0 || noResults;
-            });
-        } catch (Exception e) {
+        var loaded = awaitInBrowser("contentLoaded", CONTENT_LOAD_TIMEOUT, CONTENT_LOADED_CONDITION,
+                SKELETON_LOADER_CSS, PRODUCT_CARDS_CSS, NO_RESULTS_MESSAGE_CSS);
+        if (!loaded) {
             log.warn("Timeout waiting for content to load, continuing anyway");
         }
     }
@@ -242,6 +283,24 @@ public class ProductsPage extends BasePage {
         return getElements(PRODUCT_CARDS);
     }
 
+    /**
+     * Captures id, title, price, image link, image source and category of every product card in a single script call.
+     *
+     * @return list of card snapshots in grid order
+     */
+    @Step("Capture product card snapshots")
+    public List<ProductCardSnapshot> getProductCardSnapshots() {
+        var json = (String) ((JavascriptExecutor) driver).executeScript(PRODUCT_CARDS_SCRIPT,
+                PRODUCT_CARDS_CSS, PRODUCT_TITLE_CSS, PRODUCT_PRICE_CSS, PRODUCT_IMAGE_LINK_CSS, PRODUCT_CATEGORY_CSS);
+        try {
+            return MAPPER.readValue(Objects.requireNonNull(json), new TypeReference<>() {
+            });
+        } catch (JsonProcessingException e) {
+            log.error("Could not parse product card snapshot: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
     /**
      * Gets all product titles.
      *
@@ -249,14 +308,8 @@ public class ProductsPage extends BasePage {
      */
     @Step("Get all product titles")
     public List<String> getProductTitles() {
-        return getElements(PRODUCT_CARDS).stream()
-                .map(card -> {
-                    try {
-                        return card.findElement(PRODUCT_TITLE).getText().trim();
-                    } catch (Exception e) {
-                        return "";
-                    }
-                })
+        return getProductCardSnapshots().stream()
+                .map(ProductCardSnapshot::title)
                 .filter(title -> !title.isEmpty())
                 .toList();
     }
@@ -268,14 +321,8 @@ public class ProductsPage extends BasePage {
      */
     @Step("Get all product prices")
     public List<String> getProductPrices() {
-        return getElements(PRODUCT_CARDS).stream()
-                .map(card -> {
-                    try {
-                        return card.findElement(PRODUCT_PRICE).getText().trim();
-                    } catch (Exception e) {
-                        return "";
-                    }
-                })
+        return getProductCardSnapshots().stream()
+                .map(ProductCardSnapshot::priceText)
                 .filter(price -> !price.isEmpty())
                 .toList();
     }
@@ -287,32 +334,12 @@ public class ProductsPage extends BasePage {
      */
     @Step("Get product prices as numbers")
     public List<Double> getProductPricesAsNumbers() {
-        return getProductPrices().stream()
-                .map(this::extractPriceValue)
+        return getProductCardSnapshots().stream()
+                .map(ProductCardSnapshot::price)
                 .filter(price -> price > 0)
                 .toList();
     }
 
-    /**
-     * Extracts numeric price value from price string.
-     *
-     * @param priceText the price text to parse
-     * @return the numeric price value, or 0.0 if parsing fails
-     */
-    private double extractPriceValue(String priceText) {
-        try {
-            var pattern = Pattern.compile("[\\d,.]+");
-            var matcher = pattern.matcher(priceText);
-            if (matcher.find()) {
-                var priceStr = matcher.group().replace(",", "");
-                return Double.parseDouble(priceStr);
-            }
-        } catch (Exception e) {
-            log.debug("Could not parse price: {}", priceText);
-        }
-        return 0.0;
-    }
-
     /**
      * Clicks on product at specified index.
      *
@@ -336,9 +363,9 @@ public class ProductsPage extends BasePage {
             }
 
             // Wait for URL to change (navigation to product detail)
-            var urlWait = new WebDriverWait(driver, Duration.ofSeconds(15));
             try {
-                urlWait.until(d -> !Objects.equals(d.getCurrentUrl(), initialUrl));
+                await("detailNavigation", Duration.ofSeconds(15),
+                        d -> !Objects.equals(d.getCurrentUrl(), initialUrl));
             } catch (Exception ex) {
                 log.warn("URL did not change after click on product index {}", index);
             }
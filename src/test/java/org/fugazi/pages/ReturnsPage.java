@@ -49,7 +49,7 @@ public class ReturnsPage extends BasePage {
 
         // Check if URL contains /returns
         if (currentUrl != null && currentUrl.contains("/returns")) {
-            boolean hasContainer = isDisplayed(PAGE_CONTAINER);
+            boolean hasContainer = awaitDisplayed(PAGE_CONTAINER);
             boolean hasHeading = isDisplayed(PAGE_HEADING);
             log.info("Returns page elements - Container: {}, Heading: {}", hasContainer, hasHeading);
             return hasContainer || hasHeading || isDisplayed(PAGE_CONTENT);
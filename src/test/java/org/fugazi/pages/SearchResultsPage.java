@@ -10,7 +10,6 @@ import org.fugazi.pages.components.HeaderComponent;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
 /**
  * Page Object representing the Search/Products Results Page.
@@ -47,7 +46,7 @@ public class SearchResultsPage extends BasePage {
         // Wait for skeletons to disappear (content loaded)
         waitForSkeletonsToDisappear();
 
-        return isDisplayed(RESULTS_CONTAINER) && isElementPresent(SEARCH_INPUT);
+        return awaitDisplayed(RESULTS_CONTAINER) && isElementPresent(SEARCH_INPUT);
     }
 
     /**
@@ -59,7 +58,7 @@ public class SearchResultsPage extends BasePage {
         log.debug("Waiting for skeleton loaders to disappear");
 
         // Wait for either: skeletons to disappear OR results to appear OR correct URL
-        wait.until(driver -> {
+        await("resultsLoaded", explicitWait, driver -> {
             int skeletonCount = getElementCount(SKELETON_LOADER);
             int resultCount = getElementCount(RESULT_ITEMS);
             var currentUrl = Objects.requireNonNull(driver.getCurrentUrl());
@@ -152,9 +151,9 @@ public class SearchResultsPage extends BasePage {
             }
 
             // Wait for URL to change (navigation to product detail)
-            var urlWait = new WebDriverWait(driver, Duration.ofSeconds(15));
             try {
-                urlWait.until(d -> !Objects.equals(d.getCurrentUrl(), initialUrl));
+                await("detailNavigation", Duration.ofSeconds(15),
+                        d -> !Objects.equals(d.getCurrentUrl(), initialUrl));
             } catch (Exception ex) {
                 log.warn("URL did not change after click on result index {}", index);
             }
@@ -43,7 +43,7 @@ public class ShippingPage extends BasePage {
 
         // Check if URL contains /shipping
         if (currentUrl != null && currentUrl.contains("/shipping")) {
-            boolean hasContainer = isDisplayed(PAGE_CONTAINER);
+            boolean hasContainer = awaitDisplayed(PAGE_CONTAINER);
             boolean hasHeading = isDisplayed(PAGE_HEADING);
             log.info("Shipping page elements - Container: {}, Heading: {}", hasContainer, hasHeading);
             return hasContainer || hasHeading || isDisplayed(PAGE_CONTENT);
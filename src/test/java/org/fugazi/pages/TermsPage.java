@@ -46,7 +46,7 @@ public class TermsPage extends BasePage {
 
         // Check if URL contains /terms
         if (currentUrl != null && currentUrl.contains("/terms")) {
-            boolean hasContainer = isDisplayed(PAGE_CONTAINER);
+            boolean hasContainer = awaitDisplayed(PAGE_CONTAINER);
             boolean hasSection = isDisplayed(TERMS_SECTION);
             log.info("Terms page elements - Container: {}, Section: {}", hasContainer, hasSection);
             return hasContainer || hasSection || isDisplayed(PAGE_CONTENT);
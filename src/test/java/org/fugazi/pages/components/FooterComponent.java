@@ -42,9 +42,15 @@ public class FooterComponent extends BasePage {
         super(driver);
     }
 
+    @Override
+    protected boolean raceFailureSignals() {
+        // The footer is also shown on not-found and error views
+        return false;
+    }
+
     @Override
     public boolean isPageLoaded() {
-        return isDisplayed(FOOTER_CONTAINER);
+        return awaitDisplayed(FOOTER_CONTAINER);
     }
 
     /**
@@ -1,5 +1,7 @@
 package org.fugazi.pages.components;
 
+import java.time.Duration;
+
 import io.qameta.allure.Step;
 
 import org.fugazi.pages.BasePage;
@@ -40,6 +42,12 @@ public class HeaderComponent extends BasePage {
         super(driver);
     }
 
+    @Override
+    protected boolean raceFailureSignals() {
+        // The header is also shown on not-found and error views
+        return false;
+    }
+
     private String getBaseUrl() {
         var current = driver.getCurrentUrl();
         if (current == null || current.isBlank()) {
@@ -57,7 +65,7 @@ public class HeaderComponent extends BasePage {
 
     @Override
     public boolean isPageLoaded() {
-        return isDisplayed(HEADER_CONTAINER) || isDisplayed(START_SHOPPING_BUTTON);
+        return awaitDisplayed(HEADER_CONTAINER) || isDisplayed(START_SHOPPING_BUTTON);
     }
 
     /**
@@ -274,11 +282,7 @@ public class HeaderComponent extends BasePage {
         if (isElementPresent(THEME_TOGGLE_BUTTON)) {
             click(THEME_TOGGLE_BUTTON);
             // Wait briefly for theme transition
-            try {
-                Thread.sleep(500);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
+            pause("clickThemeToggle", Duration.ofMillis(500));
         } else {
             log.warn("Theme toggle button not found");
         }
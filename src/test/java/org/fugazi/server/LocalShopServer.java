@@ -0,0 +1,308 @@
+package org.fugazi.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import org.fugazi.config.ConfigurationManager;
+import org.fugazi.network.RecordedTraffic;
+import org.fugazi.tracing.Tracing;
+import org.fugazi.utils.RunMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Embedded stand-in for the music tech shop, used when the suite runs in offline mode.
+ * Serves the traffic captured with {@code net.mode=record} from {@code net.archive.file}: recorded requests get
+ * their recorded response, and the login and cart routes the recording shows are answered by {@link ShopApi} so
+ * they keep per-session state. Unrecorded requests fall back to the static export in {@code offline.snapshot.dir}
+ * for pages, and get a 404 for the API. Without a recording, {@link ShopApi} answers every API route.
+ * Bound to the loopback interface so page loads are fast and independent of the network and of cold starts.
+ * Requests that carry a traceparent header are traced as server spans of the test that made them.
+ */
+public final class LocalShopServer {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalShopServer.class);
+    private static final String LOOPBACK_HOST = "127.0.0.1";
+    private static volatile LocalShopServer instance;
+
+    private static final Map<String, String> CONTENT_TYPES = Map.ofEntries(
+            Map.entry("html", "text/html; charset=utf-8"),
+            Map.entry("js", "text/javascript; charset=utf-8"),
+            Map.entry("mjs", "text/javascript; charset=utf-8"),
+            Map.entry("css", "text/css; charset=utf-8"),
+            Map.entry("json", "application/json"),
+            Map.entry("map", "application/json"),
+            Map.entry("txt", "text/plain; charset=utf-8"),
+            Map.entry("svg", "image/svg+xml"),
+            Map.entry("png", "image/png"),
+            Map.entry("jpg", "image/jpeg"),
+            Map.entry("jpeg", "image/jpeg"),
+            Map.entry("webp", "image/webp"),
+            Map.entry("avif", "image/avif"),
+            Map.entry("gif", "image/gif"),
+            Map.entry("ico", "image/x-icon"),
+            Map.entry("woff", "font/woff"),
+            Map.entry("woff2", "font/woff2"));
+
+    private final HttpServer server;
+    private final Path snapshotRoot;
+    private final Optional<RecordedTraffic> recording;
+    private final ShopApi api;
+    private final String baseUrl;
+
+    private LocalShopServer() {
+        var config = ConfigurationManager.getInstance();
+        this.snapshotRoot = Paths.get(config.getOfflineSnapshotDir()).toAbsolutePath().normalize();
+        var archiveFile = Paths.get(config.getNetArchiveFile()).toAbsolutePath().normalize();
+        this.recording = RecordedTraffic.open(archiveFile);
+        try {
+            this.server = HttpServer.create(
+                    new InetSocketAddress(LOOPBACK_HOST, config.getOfflineServerPort()), 0);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to start the offline shop server", e);
+        }
+
+        this.api = new ShopApi(config.getAuthApiLoginPath());
+        server.createContext("/api/", traced(this::serveApi));
+        if (!config.getAuthApiLoginPath().startsWith("/api/")) {
+            server.createContext(config.getAuthApiLoginPath(), traced(this::serveApi));
+        }
+        server.createContext("/", traced(this::servePage));
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+
+        this.baseUrl = "http://" + LOOPBACK_HOST + ":" + server.getAddress().getPort();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::stop, "offline-shop-shutdown"));
+
+        if (recording.isEmpty()) {
+            log.warn("No recording at {}; capture one with -Dnet.mode=record. The API routes are a stand-in "
+                    + "until then", archiveFile);
+            if (!Files.isDirectory(snapshotRoot)) {
+                log.warn("Offline snapshot directory {} not found; only the API endpoints will respond",
+                        snapshotRoot);
+            }
+        }
+        log.info("Offline shop server listening on {} (recording: {}, snapshot: {})", baseUrl,
+                recording.isPresent() ? archiveFile : "none", snapshotRoot);
+    }
+
+    /**
+     * Get the running server for this JVM fork, starting it on first use.
+     *
+     * @return the LocalShopServer instance
+     */
+    public static LocalShopServer getInstance() {
+        if (instance == null) {
+            synchronized (LocalShopServer.class) {
+                if (instance == null) {
+                    instance = new LocalShopServer();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Stop the server if it was started in this fork.
+     */
+    public static void stopIfRunning() {
+        var running = instance;
+        if (running != null) {
+            running.stop();
+        }
+    }
+
+    /**
+     * Get the base URL the browser should use to reach the server.
+     *
+     * @return the loopback base URL, without trailing slash
+     */
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    private void stop() {
+        server.stop(0);
+        log.debug("Offline shop server stopped");
+    }
+
+    /**
+     * Trace requests that carry a trace context as children of the browser-side span that sent them.
+     *
+     * @param handler the handler to trace
+     * @return the traced handler
+     */
+    private static HttpHandler traced(HttpHandler handler) {
+        return exchange -> {
+            var parent = Tracing.extract(exchange.getRequestHeaders().getFirst("traceparent"));
+            if (parent == null) {
+                handler.handle(exchange);
+                return;
+            }
+
+            var method = exchange.getRequestMethod();
+            var path = exchange.getRequestURI().getPath();
+            var span = Tracing.serverTracer().spanBuilder(method + " " + path)
+                    .setParent(parent)
+                    .setSpanKind(SpanKind.SERVER)
+                    .setAttribute("http.request.method", method)
+                    .setAttribute("url.path", path)
+                    .startSpan();
+            try {
+                handler.handle(exchange);
+            } catch (IOException | RuntimeException e) {
+                span.setStatus(StatusCode.ERROR, String.valueOf(e.getMessage()));
+                throw e;
+            } finally {
+                var status = exchange.getResponseCode();
+                span.setAttribute("http.response.status_code", status);
+                if (status >= 500) {
+                    span.setStatus(StatusCode.ERROR);
+                }
+                span.end();
+            }
+        };
+    }
+
+    /**
+     * Serve an API request. With a recording, the session-dependent routes the storefront was recorded calling go
+     * to {@link ShopApi}; everything else is replayed, and requests the recording does not contain get a 404.
+     *
+     * @param exchange the HTTP exchange
+     * @throws IOException if the response cannot be written
+     */
+    private void serveApi(HttpExchange exchange) throws IOException {
+        var method = exchange.getRequestMethod();
+        var path = exchange.getRequestURI().getPath();
+        if (recording.isEmpty() || api.isStateful(method, path) && recording.get().hasRoute(method, path)) {
+            api.handle(exchange);
+            return;
+        }
+
+        try (exchange) {
+            if (!recording.get().respond(exchange, exchange.getRequestBody().readAllBytes())) {
+                RunMetrics.increment("offline.recorded.miss");
+                log.warn("No recorded response for {} {}", method, exchange.getRequestURI());
+                ShopApi.sendText(exchange, 404, "Not in recording: " + method + " " + exchange.getRequestURI());
+            }
+        }
+    }
+
+    /**
+     * Serve a page or asset, from the recording when it has the request and from the snapshot otherwise.
+     *
+     * @param exchange the HTTP exchange
+     * @throws IOException if the response cannot be written
+     */
+    private void servePage(HttpExchange exchange) throws IOException {
+        if (recording.isPresent()) {
+            try {
+                if (recording.get().respond(exchange, exchange.getRequestBody().readAllBytes())) {
+                    exchange.close();
+                    return;
+                }
+            } catch (IOException | RuntimeException e) {
+                exchange.close();
+                throw e;
+            }
+        }
+        serveSnapshot(exchange);
+    }
+
+    /**
+     * Serve a file from the snapshot. Extension-less routes resolve like a static export:
+     * {@code /path.html}, {@code /path/index.html}, a dynamic segment file such as {@code /products/[id].html},
+     * and finally the root {@code index.html} so client-side routing can take over.
+     *
+     * @param exchange the HTTP exchange
+     * @throws IOException if the response cannot be written
+     */
+    private void serveSnapshot(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            var method = exchange.getRequestMethod();
+            if (!"GET".equals(method) && !"HEAD".equals(method)) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            var file = resolve(exchange.getRequestURI().getPath());
+            if (file.isEmpty()) {
+                ShopApi.sendText(exchange, 404, "Not found in offline snapshot");
+                return;
+            }
+
+            var path = file.get();
+            var headers = exchange.getResponseHeaders();
+            headers.set("Content-Type", contentType(path));
+            headers.set("Cache-Control", exchange.getRequestURI().getPath().startsWith("/_next/static/")
+                    ? "public, max-age=31536000, immutable" : "no-cache");
+
+            if ("HEAD".equals(method)) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, Files.size(path));
+            try (var body = exchange.getResponseBody()) {
+                Files.copy(path, body);
+            }
+        }
+    }
+
+    private Optional<Path> resolve(String requestPath) throws IOException {
+        var relative = requestPath.replaceFirst("^/+", "");
+        var target = snapshotRoot.resolve(relative).normalize();
+        if (!target.startsWith(snapshotRoot)) {
+            return Optional.empty();
+        }
+
+        if (Files.isRegularFile(target)) {
+            return Optional.of(target);
+        }
+        if (relative.substring(relative.lastIndexOf('/') + 1).contains(".")) {
+            // Asset request with an extension that is not in the snapshot
+            return Optional.empty();
+        }
+
+        for (var candidate : new Path[] {
+                snapshotRoot.resolve(relative + ".html").normalize(), target.resolve("index.html")}) {
+            if (candidate.startsWith(snapshotRoot) && Files.isRegularFile(candidate)) {
+                return Optional.of(candidate);
+            }
+        }
+
+        var parent = target.getParent();
+        if (parent != null && parent.startsWith(snapshotRoot) && Files.isDirectory(parent)) {
+            try (var siblings = Files.list(parent)) {
+                var dynamic = siblings
+                        .filter(sibling -> sibling.getFileName().toString().matches("\\[.+]\\.html"))
+                        .findFirst();
+                if (dynamic.isPresent()) {
+                    return dynamic;
+                }
+            }
+        }
+
+        var index = snapshotRoot.resolve("index.html");
+        return Files.isRegularFile(index) ? Optional.of(index) : Optional.empty();
+    }
+
+    private static String contentType(Path file) {
+        var name = file.getFileName().toString();
+        var extension = name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        return CONTENT_TYPES.getOrDefault(extension, "application/octet-stream");
+    }
+}
@@ -0,0 +1,375 @@
+package org.fugazi.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpCookie;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+
+import org.fugazi.data.models.Credentials;
+import org.fugazi.data.models.Product;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Local implementation of the shop's product, cart and login endpoints for {@link LocalShopServer}.
+ * Products come from testdata/products.json; accounts are the predefined {@link Credentials}
+ * plus testdata/users.json. Sessions and carts live in memory for the lifetime of the fork.
+ * The routes and response shapes are a stand-in, not taken from the deployment: when a recording exists,
+ * {@link LocalShopServer} only lets this class answer the stateful routes the recording shows the storefront
+ * calling, and replays everything else verbatim.
+ */
+final class ShopApi {
+
+    private static final Logger log = LoggerFactory.getLogger(ShopApi.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String SESSION_COOKIE = "session";
+
+    private final String loginPath;
+    private final List<Product> products;
+    private final Map<String, Account> accounts = new HashMap<>();
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    ShopApi(String loginPath) {
+        this.loginPath = loginPath;
+        this.products = readResource("testdata/products.json", new TypeReference<>() {
+        });
+
+        for (var credentials : List.of(Credentials.ADMIN_CREDENTIALS, Credentials.CUSTOMER_CREDENTIALS)) {
+            accounts.put(credentials.email(), new Account(credentials.email(), credentials.password(),
+                    credentials.userType().name().toLowerCase(Locale.ROOT)));
+        }
+        List<Map<String, Object>> users = readResource("testdata/users.json", new TypeReference<>() {
+        });
+        for (var user : users) {
+            var email = String.valueOf(user.get("email"));
+            accounts.putIfAbsent(email, new Account(email, String.valueOf(user.get("password")), "customer"));
+        }
+        log.debug("Offline API seeded with {} products and {} accounts", products.size(), accounts.size());
+    }
+
+    /**
+     * Route an API request.
+     *
+     * @param exchange the HTTP exchange
+     * @throws IOException if the response cannot be written
+     */
+    void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            try {
+                route(exchange, exchange.getRequestMethod(), exchange.getRequestURI().getPath());
+            } catch (RuntimeException e) {
+                log.warn("Offline API request {} failed: {}", exchange.getRequestURI(), e.getMessage());
+                sendJson(exchange, 400, Map.of("error", String.valueOf(e.getMessage())));
+            }
+        }
+    }
+
+    /**
+     * Check whether a request goes to a route that depends on the caller's session (login or cart), which a
+     * recording cannot replay because its responses change as the test acts.
+     *
+     * @param method the request method
+     * @param path   the request path
+     * @return true for the auth and cart routes
+     */
+    boolean isStateful(String method, String path) {
+        return path.equals(loginPath) || path.startsWith("/api/auth/")
+                || path.equals("/api/cart") || path.startsWith("/api/cart/");
+    }
+
+    private void route(HttpExchange exchange, String method, String path) throws IOException {
+        if (path.equals(loginPath) && "POST".equals(method)) {
+            login(exchange);
+        } else if (path.equals("/api/auth/logout") && "POST".equals(method)) {
+            logout(exchange);
+        } else if (path.equals("/api/auth/session") && "GET".equals(method)) {
+            currentSession(exchange);
+        } else if (path.equals("/api/products") && "GET".equals(method)) {
+            listProducts(exchange);
+        } else if (path.startsWith("/api/products/") && "GET".equals(method)) {
+            getProduct(exchange, path.substring("/api/products/".length()));
+        } else if (path.equals("/api/cart") || path.startsWith("/api/cart/")) {
+            cart(exchange, method, path);
+        } else {
+            sendJson(exchange, 404, Map.of("error", "Not found"));
+        }
+    }
+
+    private void login(HttpExchange exchange) throws IOException {
+        var body = readBody(exchange);
+        var account = accounts.get(String.valueOf(body.get("email")));
+        if (account == null || !account.password().equals(String.valueOf(body.get("password")))) {
+            sendJson(exchange, 401, Map.of("error", "Invalid email or password"));
+            return;
+        }
+
+        var session = session(exchange);
+        session.user = account;
+        sendJson(exchange, 200, Map.of("user", userJson(account)));
+    }
+
+    private void logout(HttpExchange exchange) throws IOException {
+        var token = sessionToken(exchange);
+        if (token != null) {
+            sessions.remove(token);
+        }
+        exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=; Path=/; Max-Age=0; HttpOnly");
+        sendJson(exchange, 200, Map.of("ok", true));
+    }
+
+    private void currentSession(HttpExchange exchange) throws IOException {
+        var token = sessionToken(exchange);
+        var session = token == null ? null : sessions.get(token);
+        if (session == null || session.user == null) {
+            sendJson(exchange, 401, Map.of("error", "Not authenticated"));
+            return;
+        }
+        sendJson(exchange, 200, Map.of("user", userJson(session.user)));
+    }
+
+    private void listProducts(HttpExchange exchange) throws IOException {
+        var query = queryParameters(exchange);
+        var category = query.getOrDefault("category", "");
+        var search = query.getOrDefault("search", query.getOrDefault("q", "")).toLowerCase(Locale.ROOT);
+
+        var matches = products.stream()
+                .filter(product -> category.isEmpty() || product.getCategory().equalsIgnoreCase(category))
+                .filter(product -> search.isEmpty()
+                        || product.getName().toLowerCase(Locale.ROOT).contains(search)
+                        || product.getDescription().toLowerCase(Locale.ROOT).contains(search))
+                .toList();
+        sendJson(exchange, 200, matches);
+    }
+
+    private void getProduct(HttpExchange exchange, String id) throws IOException {
+        var product = findProduct(id);
+        if (product == null) {
+            sendJson(exchange, 404, Map.of("error", "Product not found"));
+            return;
+        }
+        sendJson(exchange, 200, product);
+    }
+
+    /**
+     * Cart endpoints: {@code GET/DELETE /api/cart}, {@code POST /api/cart/items},
+     * {@code PUT/DELETE /api/cart/items/{id}}.
+     *
+     * @param exchange the HTTP exchange
+     * @param method   the request method
+     * @param path     the request path
+     * @throws IOException if the response cannot be written
+     */
+    private void cart(HttpExchange exchange, String method, String path) throws IOException {
+        var session = session(exchange);
+        var itemId = path.startsWith("/api/cart/items/") ? path.substring("/api/cart/items/".length()) : null;
+
+        synchronized (session) {
+            if (path.equals("/api/cart") && "DELETE".equals(method)) {
+                session.cart.clear();
+            } else if (path.equals("/api/cart/items") && "POST".equals(method)) {
+                var body = readBody(exchange);
+                var id = String.valueOf(body.get("id"));
+                if (findProduct(id) == null) {
+                    sendJson(exchange, 404, Map.of("error", "Product not found"));
+                    return;
+                }
+                session.cart.merge(id, quantityOf(body), Integer::sum);
+            } else if (itemId != null && "PUT".equals(method)) {
+                var quantity = quantityOf(readBody(exchange));
+                if (quantity <= 0) {
+                    session.cart.remove(itemId);
+                } else {
+                    session.cart.put(itemId, quantity);
+                }
+            } else if (itemId != null && "DELETE".equals(method)) {
+                session.cart.remove(itemId);
+            } else if (!"GET".equals(method)) {
+                sendJson(exchange, 405, Map.of("error", "Method not allowed"));
+                return;
+            }
+            sendJson(exchange, 200, cartJson(session));
+        }
+    }
+
+    private Map<String, Object> cartJson(Session session) {
+        var items = new ArrayList<Map<String, Object>>();
+        var subtotal = 0.0;
+        for (var entry : session.cart.entrySet()) {
+            var product = findProduct(entry.getKey());
+            if (product == null) {
+                continue;
+            }
+            var item = new LinkedHashMap<String, Object>();
+            item.put("id", product.getId());
+            item.put("name", product.getName());
+            item.put("price", product.getPrice());
+            item.put("image", product.getImageUrl());
+            item.put("category", product.getCategory());
+            item.put("quantity", entry.getValue());
+            items.add(item);
+            subtotal += product.getPrice() * entry.getValue();
+        }
+
+        var cart = new LinkedHashMap<String, Object>();
+        cart.put("items", items);
+        cart.put("subtotal", Math.round(subtotal * 100) / 100.0);
+        return cart;
+    }
+
+    /**
+     * Get the caller's session, creating one (and its cookie) for first-time visitors.
+     *
+     * @param exchange the HTTP exchange
+     * @return the session
+     */
+    private Session session(HttpExchange exchange) {
+        var token = sessionToken(exchange);
+        if (token != null) {
+            var existing = sessions.get(token);
+            if (existing != null) {
+                return existing;
+            }
+        }
+
+        var newToken = UUID.randomUUID().toString();
+        var session = new Session();
+        sessions.put(newToken, session);
+        exchange.getResponseHeaders().add("Set-Cookie",
+                SESSION_COOKIE + "=" + newToken + "; Path=/; HttpOnly; SameSite=Lax");
+        return session;
+    }
+
+    private static String sessionToken(HttpExchange exchange) {
+        for (var header : exchange.getRequestHeaders().getOrDefault("Cookie", List.of())) {
+            for (var part : header.split(";")) {
+                var cookies = HttpCookie.parse("Set-Cookie:" + part.trim());
+                for (var cookie : cookies) {
+                    if (SESSION_COOKIE.equals(cookie.getName())) {
+                        return cookie.getValue();
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private Product findProduct(String id) {
+        return products.stream().filter(product -> product.getId().equals(id)).findFirst().orElse(null);
+    }
+
+    private static int quantityOf(Map<String, Object> body) {
+        var quantity = body.get("quantity");
+        return quantity instanceof Number number ? number.intValue() : 1;
+    }
+
+    private static Map<String, Object> userJson(Account account) {
+        return Map.of("email", account.email(), "role", account.role());
+    }
+
+    private static Map<String, String> queryParameters(HttpExchange exchange) {
+        var parameters = new HashMap<String, String>();
+        var query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return parameters;
+        }
+        for (var pair : query.split("&")) {
+            var separator = pair.indexOf('=');
+            var key = separator < 0 ? pair : pair.substring(0, separator);
+            var value = separator < 0 ? "" : pair.substring(separator + 1);
+            parameters.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    private static Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            var bytes = body.readAllBytes();
+            if (bytes.length == 0) {
+                return Map.of();
+            }
+            return MAPPER.readValue(bytes, new TypeReference<>() {
+            });
+        } catch (JsonProcessingException e) {
+            // Answered with 400 by handle(), like any other bad request
+            throw new IllegalArgumentException("Malformed JSON body: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private static <T> T readResource(String resource, TypeReference<T> type) {
+        try (var input = ShopApi.class.getClassLoader().getResourceAsStream(resource)) {
+            if (input == null) {
+                throw new IllegalStateException("Missing test data resource: " + resource);
+            }
+            return MAPPER.readValue(input, type);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read test data resource: " + resource, e);
+        }
+    }
+
+    /**
+     * Write a JSON response.
+     *
+     * @param exchange the HTTP exchange
+     * @param status   the HTTP status code
+     * @param payload  the object to serialize
+     * @throws IOException if the response cannot be written
+     */
+    static void sendJson(HttpExchange exchange, int status, Object payload) throws IOException {
+        var bytes = MAPPER.writeValueAsBytes(payload);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (var body = exchange.getResponseBody()) {
+            body.write(bytes);
+        }
+    }
+
+    /**
+     * Write a plain text response.
+     *
+     * @param exchange the HTTP exchange
+     * @param status   the HTTP status code
+     * @param text     the response text
+     * @throws IOException if the response cannot be written
+     */
+    static void sendText(HttpExchange exchange, int status, String text) throws IOException {
+        var bytes = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (var body = exchange.getResponseBody()) {
+            body.write(bytes);
+        }
+    }
+
+    /**
+     * A test account known to the offline API.
+     *
+     * @param email    the account email
+     * @param password the account password
+     * @param role     the account role
+     */
+    private record Account(String email, String password, String role) {
+    }
+
+    /**
+     * Server-side session state: the signed-in account and the cart (product id to quantity).
+     */
+    private static final class Session {
+        private volatile Account user;
+        private final Map<String, Integer> cart = new LinkedHashMap<>();
+    }
+}
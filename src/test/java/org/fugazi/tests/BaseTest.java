@@ -1,11 +1,24 @@
 package org.fugazi.tests;
 
+import java.lang.annotation.Annotation;
+import java.util.Optional;
+
 import io.qameta.allure.Step;
 
 import org.assertj.core.api.SoftAssertions;
+import org.fugazi.auth.AuthenticatedSession;
+import org.fugazi.auth.StorageStateStore;
 import org.fugazi.config.ConfigurationManager;
-import org.fugazi.factory.WebDriverFactory;
+import org.fugazi.data.models.Credentials;
+import org.fugazi.factory.DriverPool;
 import org.fugazi.listeners.AllureTestListener;
+import org.fugazi.listeners.NetworkStubExtension;
+import org.fugazi.listeners.TestPhaseExtension;
+import org.fugazi.listeners.TracingExtension;
+import org.fugazi.listeners.WaitProfileExtension;
+import org.fugazi.network.FullRendering;
+import org.fugazi.network.LeanRendering;
+import org.fugazi.network.NetworkStubs;
 import org.fugazi.pages.AboutPage;
 import org.fugazi.pages.CartPage;
 import org.fugazi.pages.HomePage;
@@ -18,9 +31,16 @@ import org.fugazi.pages.ShippingPage;
 import org.fugazi.pages.TermsPage;
 import org.fugazi.pages.components.FooterComponent;
 import org.fugazi.pages.components.HeaderComponent;
+import org.fugazi.tracing.Tracing;
+import org.fugazi.utils.CommandTimings;
+import org.fugazi.utils.FailureSignals;
+import org.fugazi.utils.PageLoadTimings;
+import org.fugazi.utils.WaitProfiler;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.TestInfo;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.platform.commons.support.AnnotationSupport;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
@@ -32,7 +52,8 @@ import org.slf4j.LoggerFactory;
  * Base test class providing common setup and teardown functionality.
  * All test classes should extend this class.
  */
-@ExtendWith(AllureTestListener.class)
+@ExtendWith({WaitProfileExtension.class, TestPhaseExtension.class, TracingExtension.class,
+        AllureTestListener.class, NetworkStubExtension.class})
 public abstract class BaseTest {
 
     protected final Logger log = LoggerFactory.getLogger(getClass());
@@ -57,16 +78,33 @@ public abstract class BaseTest {
 
     @BeforeEach
     @Step("Initialize WebDriver and navigate to base URL")
-    void setUp() {
+    void setUp(TestInfo testInfo) {
         log.info("=== Setting up test ===");
         config = ConfigurationManager.getInstance();
+        CommandTimings.startTest();
 
-        // Create WebDriver instance
-        driver = WebDriverFactory.createDriver();
+        // Lease a warm WebDriver session from the pool
+        driver = DriverPool.getInstance().acquire();
         AllureTestListener.setDriver(driver);
 
+        // Restore the saved login state for @AuthenticatedSession tests before the application loads
+        var account = findAnnotation(testInfo, AuthenticatedSession.class)
+                .map(session -> Credentials.forType(session.value()));
+        account.ifPresent(credentials -> StorageStateStore.getInstance().restore(driver, credentials));
+
+        // Block third-party and heavy assets unless the test needs full rendering
+        var lean = LeanRendering.configure(driver, findAnnotation(testInfo, FullRendering.class).isPresent());
+        FailureSignals.watch(driver);
+        Tracing.propagateTo(driver);
+
         // Navigate to base URL
         navigateToBaseUrl();
+        PageLoadTimings.record(driver, lean ? "lean" : "full");
+
+        // A restored login the application no longer accepts is replaced by one fresh login
+        if (account.isPresent() && StorageStateStore.getInstance().verify(driver, account.get())) {
+            navigateToBaseUrl();
+        }
 
         log.info("Test setup completed - Browser: {}, URL: {}",
                 config.getBrowserType(), config.getBaseUrl());
@@ -74,19 +112,21 @@ public abstract class BaseTest {
 
     @AfterEach
     @Step("Clean up WebDriver")
-    void tearDown() {
+    void tearDown(TestInfo testInfo) {
         log.info("=== Tearing down test ===");
 
         if (driver != null) {
             try {
-                driver.quit();
-                log.debug("WebDriver closed successfully");
+                Tracing.stopPropagation(driver);
+                DriverPool.getInstance().release(driver);
+                log.debug("WebDriver released to pool");
             } catch (Exception e) {
-                log.error("Error closing WebDriver: {}", e.getMessage());
+                log.error("Error releasing WebDriver: {}", e.getMessage());
             } finally {
                 AllureTestListener.clearDriver();
             }
         }
+        CommandTimings.finishTest(testInfo.getDisplayName());
 
         // Reset page objects
         homePage = null;
@@ -103,12 +143,34 @@ public abstract class BaseTest {
         log.info("Test teardown completed");
     }
 
+    /**
+     * Find an annotation declared on the test method or, failing that, its class.
+     *
+     * @param testInfo       the current test information
+     * @param annotationType the annotation to look for
+     * @param <A>            the annotation type
+     * @return the annotation, if declared
+     */
+    private <A extends Annotation> Optional<A> findAnnotation(TestInfo testInfo, Class<A> annotationType) {
+        var onMethod = AnnotationSupport.findAnnotation(testInfo.getTestMethod(), annotationType);
+        if (onMethod.isPresent()) {
+            return onMethod;
+        }
+        return AnnotationSupport.findAnnotation(testInfo.getTestClass(), annotationType);
+    }
+
     /**
      * Navigate to the base URL with retry logic.
      * Uses WebDriverWait instead of Thread.sleep for better reliability.
      */
     @Step("Navigate to base URL")
     protected void navigateToBaseUrl() {
+        try (var ignored = WaitProfiler.start(WaitProfiler.Category.NAVIGATION, "BaseTest.navigateToBaseUrl")) {
+            navigateToBaseUrlWithRetry();
+        }
+    }
+
+    private void navigateToBaseUrlWithRetry() {
         log.debug("Navigating to base URL: {}", config.getBaseUrl());
         int maxAttempts = 3;
 
@@ -141,7 +203,8 @@ public abstract class BaseTest {
 
                 // Wait with exponential backoff using WebDriverWait
                 var backoffSeconds = attempt * 2; // 2s, 4s
-                try {
+                try (var ignored = WaitProfiler.start(WaitProfiler.Category.BACKOFF,
+                        "BaseTest.navigateToBaseUrl retry")) {
                     var backoffWait = new WebDriverWait(
                             driver, java.time.Duration.ofSeconds(backoffSeconds)
                     );
@@ -163,7 +226,19 @@ public abstract class BaseTest {
     protected void navigateTo(String path) {
         var url = config.getBaseUrl() + path;
         log.debug("Navigating to: {}", url);
-        driver.get(url);
+        try (var ignored = WaitProfiler.start(WaitProfiler.Category.NAVIGATION, "BaseTest.navigateTo")) {
+            driver.get(url);
+        }
+    }
+
+    /**
+     * Get the network stubs for this test, switching on request interception on first use.
+     * Stubs added here and through {@link org.fugazi.network.StubResponse} are removed when the test ends.
+     *
+     * @return the NetworkStubs for the current test
+     */
+    protected NetworkStubs networkStubs() {
+        return NetworkStubs.forCurrentTest(driver);
     }
 
     // ==================== SoftAssertions Helper ====================
@@ -9,14 +9,14 @@ import io.qameta.allure.SeverityLevel;
 import io.qameta.allure.Story;
 
 import org.assertj.core.api.SoftAssertions;
+import org.fugazi.auth.AuthenticatedSession;
 import org.fugazi.config.ConfigurationManager;
+import org.fugazi.data.providers.CartSeeder;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
-import org.openqa.selenium.By;
-import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
 /**
@@ -26,70 +26,25 @@ import org.openqa.selenium.support.ui.WebDriverWait;
  */
 @Epic("Music Tech Shop E2E Tests")
 @Feature("Cart Operations")
+@AuthenticatedSession
 @DisplayName("Cart Operations Tests")
 class CartOperationsTest extends BaseTest {
 
-    private WebDriverWait wait;
-
     @BeforeEach
     void addProductToCart() {
         log.info("=== Setting up test ===");
         
-        wait = new WebDriverWait(driver, Duration.ofSeconds(30));
-        
-        // Step 1: Login with customer account (cart requires authentication)
-        performLogin();
-        
-        // Step 2: Navigate to products and add item to cart
-        log.info("Step 2: Adding product to cart");
-        driver.get(ConfigurationManager.getInstance().getBaseUrl());
-        homePage().clickFirstProduct();
-        productDetailPage().clickAddToCart();
+        // Step 1: Customer session (cart requires authentication) is restored by BaseTest via @AuthenticatedSession
         
-        // Step 3: Navigate to cart
-        log.info("Step 3: Navigating to cart");
-        productDetailPage().goToCart();
-        
-        // Wait for cart page to load (skeletons to disappear)
-        wait.until(ExpectedConditions.urlContains("/cart"));
-        try {
-            wait.until(ExpectedConditions.invisibilityOfElementLocated(By.cssSelector("[data-slot='skeleton']")));
-        } catch (Exception e) {
-            log.debug("No skeletons found or already hidden");
-        }
+        // Step 2: Seed one product straight into the cart and open /cart
+        log.info("Step 2: Seeding cart with one product");
+        new CartSeeder(driver).addCatalogProduct(0, 1).seed();
 
         log.info("Test setup completed - Browser: {}, URL: {}",
                 ConfigurationManager.getInstance().getBrowserType(),
                 driver.getCurrentUrl());
     }
 
-    // TODO: Refactorize
-    /**
-     * Perform login using LoginPage object with customer credentials.
-     * Navigates to login page and authenticates with retry logic for reliability.
-     */
-    private void performLogin() {
-        log.info("Step 1: Navigating to login page");
-
-        try {
-            driver.get(ConfigurationManager.getInstance().getBaseUrl() + "/login");
-        } catch (Exception e) {
-            log.warn("Initial navigation failed, retrying: {}", e.getMessage());
-            // Use WebDriverWait instead of Thread.sleep (framework compliance)
-            var retryWait = new WebDriverWait(driver, java.time.Duration.ofSeconds(2));
-            try {
-                retryWait.until(d -> false);  // Wait for timeout without action
-            } catch (org.openqa.selenium.TimeoutException te) {
-                log.debug("Retry wait completed");
-            }
-            driver.get(ConfigurationManager.getInstance().getBaseUrl() + "/login");
-        }
-
-        // Use LoginPage object for authentication
-        loginPage().loginWithCustomerAccount();
-        log.info("Login completed successfully - URL: {}", driver.getCurrentUrl());
-    }
-
     @Test
     @Tag("smoke")
     @Tag("regression")
@@ -99,27 +54,28 @@ class CartOperationsTest extends BaseTest {
     void shouldDisplayCartItems() {
         // Act
         var cartTitle = cartPage().getCartTitle();
+        var cart = cartPage().getCartSnapshot();
 
         // Assert with conditional logic for both scenarios
         SoftAssertions.assertSoftly(softly -> {
-            if (cartPage().isCartEmpty()) {
+            if (cart.isEmpty()) {
                 log.info("Cart is empty (login page scenario)");
                 
                 softly.assertThat(cartTitle)
                         .as("Cart title should indicate empty cart")
                         .isEqualTo("Your Items (0)");
                 
-                softly.assertThat(cartPage().getCartItemCount())
+                softly.assertThat(cart.itemCount())
                         .as("Cart should have 0 items when empty")
                         .isEqualTo(0);
-            } else if (cartPage().isCartLoadedWithItems()) {
+            } else if (cart.itemCount() > 0) {
                 log.info("Cart has items (checkout page with modal/sidebar)");
                 
                 softly.assertThat(cartPage().isPageLoaded())
                         .as("Cart page should be loaded")
                         .isTrue();
                 
-                softly.assertThat(cartPage().getCartItemCount())
+                softly.assertThat(cart.itemCount())
                         .as("Cart should have at least one item")
                         .isGreaterThan(0);
             } else {
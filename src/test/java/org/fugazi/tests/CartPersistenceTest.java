@@ -5,6 +5,7 @@ import java.time.Duration;
 import io.qameta.allure.*;
 
 import org.assertj.core.api.SoftAssertions;
+import org.fugazi.auth.AuthenticatedSession;
 import org.fugazi.config.ConfigurationManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -23,6 +24,7 @@ import org.openqa.selenium.support.ui.WebDriverWait;
  */
 @Epic("Music Tech Shop E2E Tests")
 @Feature("Cart Workflows")
+@AuthenticatedSession
 @DisplayName("Cart Persistence Tests")
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 class CartPersistenceTest extends BaseTest {
@@ -33,14 +35,6 @@ class CartPersistenceTest extends BaseTest {
     void setupWithLogin() {
         log.info("=== Setting up CartPersistenceTest ===");
         wait = new WebDriverWait(driver, Duration.ofSeconds(30));
-        performLogin();
-    }
-
-    private void performLogin() {
-        log.info("Performing login with customer account");
-        driver.get(ConfigurationManager.getInstance().getBaseUrl() + "/login");
-        loginPage().loginWithCustomerAccount();
-        log.info("Login completed");
     }
 
     private void addProductToCart() {
@@ -9,7 +9,10 @@ import io.qameta.allure.SeverityLevel;
 import io.qameta.allure.Story;
 
 import org.assertj.core.api.SoftAssertions;
+import org.fugazi.auth.AuthenticatedSession;
 import org.fugazi.config.ConfigurationManager;
+import org.fugazi.data.providers.CartSeeder;
+import org.fugazi.network.FullRendering;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
@@ -26,6 +29,7 @@ import org.openqa.selenium.support.ui.WebDriverWait;
  */
 @Epic("Music Tech Shop E2E Tests")
 @Feature("Cart Workflows")
+@AuthenticatedSession
 @DisplayName("Cart Workflow Tests")
 class CartWorkflowTest extends BaseTest {
 
@@ -34,36 +38,8 @@ class CartWorkflowTest extends BaseTest {
     @BeforeEach
     void setupWithLogin() {
         log.info("=== Setting up CartWorkflowTest ===");
+        // Customer session (cart requires authentication) is restored by BaseTest via @AuthenticatedSession
         wait = new WebDriverWait(driver, Duration.ofSeconds(30));
-
-        // Login with customer account (cart requires authentication)
-        performLogin();
-    }
-
-    /**
-     * Perform login using LoginPage object with customer credentials.
-     * Navigates to login page and authenticates with retry logic for reliability.
-     */
-    private void performLogin() {
-        log.info("Performing login with customer account");
-
-        try {
-            driver.get(ConfigurationManager.getInstance().getBaseUrl() + "/login");
-        } catch (Exception e) {
-            log.warn("Initial navigation failed, retrying: {}", e.getMessage());
-            // Use WebDriverWait instead of Thread.sleep (framework compliance)
-            var retryWait = new WebDriverWait(driver, Duration.ofSeconds(2));
-            try {
-                retryWait.until(d -> false);  // Wait for timeout without action
-            } catch (org.openqa.selenium.TimeoutException te) {
-                log.debug("Retry wait completed");
-            }
-            driver.get(ConfigurationManager.getInstance().getBaseUrl() + "/login");
-        }
-
-        // Use LoginPage object for authentication
-        loginPage().loginWithCustomerAccount();
-        log.info("Login completed successfully - URL: {}", driver.getCurrentUrl());
     }
 
     private void addProductToCart() {
@@ -72,6 +48,19 @@ class CartWorkflowTest extends BaseTest {
         productDetailPage().clickAddToCart();
     }
 
+    /**
+     * Seed the cart with the first catalog products and open /cart, skipping the add-to-cart UI.
+     *
+     * @param products the number of distinct products to add
+     */
+    private void seedCart(int products) {
+        var seeder = new CartSeeder(driver);
+        for (int i = 0; i < products; i++) {
+            seeder.addCatalogProduct(i, 1);
+        }
+        seeder.seed();
+    }
+
     private void navigateToCart() {
         productDetailPage().goToCart();
         wait.until(ExpectedConditions.urlContains("/cart"));
@@ -108,17 +97,17 @@ class CartWorkflowTest extends BaseTest {
         navigateToCart();
 
         // Assert
+        var cart = cartPage().getCartSnapshot();
         SoftAssertions.assertSoftly(softly -> {
-            softly.assertThat(cartPage().getCartItemCount())
+            softly.assertThat(cart.itemCount())
                     .as("Cart should have exactly 1 item")
                     .isEqualTo(1);
 
-            var itemNames = cartPage().getItemNames();
-            softly.assertThat(itemNames)
+            softly.assertThat(cart.itemNames())
                     .as("Cart should contain the added product")
                     .contains(expectedProductName);
 
-            softly.assertThat(cartPage().getTotal())
+            softly.assertThat(cart.totalText())
                     .as("Cart total should match product price")
                     .contains("$");
         });
@@ -163,8 +152,7 @@ class CartWorkflowTest extends BaseTest {
     @DisplayName("Should increase item quantity in cart")
     void shouldIncreaseItemQuantityInCart() {
         // Arrange
-        addProductToCart();
-        navigateToCart();
+        seedCart(1);
         var initialQuantity = cartPage().getItemQuantity(0);
         var initialTotal = cartPage().getTotal(); // Use String comparison
 
@@ -199,8 +187,7 @@ class CartWorkflowTest extends BaseTest {
     @DisplayName("Should decrease item quantity in cart")
     void shouldDecreaseItemQuantityInCart() {
         // Arrange - add product and increase quantity first
-        addProductToCart();
-        navigateToCart();
+        seedCart(1);
         cartPage().increaseItemQuantity(0); // Now quantity = 2
 
         wait.until(d -> cartPage().getItemQuantity(0) >= 2);
@@ -269,10 +256,7 @@ class CartWorkflowTest extends BaseTest {
     @DisplayName("Should display correct item count in header cart icon")
     void shouldDisplayCorrectItemCountInHeader() {
         // Arrange - add product
-        addProductToCart();
-
-        // Navigate to cart to verify items are persisted
-        navigateToCart();
+        seedCart(1);
 
         // Assert - cart should have items
         var cartItemCount = cartPage().getCartItemCount();
@@ -291,8 +275,7 @@ class CartWorkflowTest extends BaseTest {
     @DisplayName("Should persist cart items after page refresh")
     void shouldPersistCartAfterPageRefresh() {
         // Arrange
-        addProductToCart();
-        navigateToCart();
+        seedCart(1);
         var itemsBefore = cartPage().getCartItemCount();
         var namesBefore = cartPage().getItemNames().stream().toList(); // Create defensive copy
 
@@ -336,8 +319,7 @@ class CartWorkflowTest extends BaseTest {
     @DisplayName("Should display checkout button when cart has items")
     void shouldProceedToCheckoutWhenLoggedIn() {
         // Arrange
-        addProductToCart();
-        navigateToCart();
+        seedCart(1);
 
         // Assert
         SoftAssertions.assertSoftly(softly -> {
@@ -383,10 +365,10 @@ class CartWorkflowTest extends BaseTest {
     @Story("Cart Display")
     @Severity(SeverityLevel.NORMAL)
     @DisplayName("Should display item images in cart")
+    @FullRendering
     void shouldDisplayItemImagesInCart() {
         // Arrange
-        addProductToCart();
-        navigateToCart();
+        seedCart(1);
 
         // Act - check for images
         var cartItems = cartPage().getCartItems();
@@ -422,8 +404,7 @@ class CartWorkflowTest extends BaseTest {
     @DisplayName("Should display item prices in cart")
     void shouldDisplayItemPricesInCart() {
         // Arrange
-        addProductToCart();
-        navigateToCart();
+        seedCart(1);
 
         // Act
         var itemPrice = cartPage().getItemTotalPrice(0);
@@ -449,12 +430,12 @@ class CartWorkflowTest extends BaseTest {
     @DisplayName("Should calculate subtotal correctly")
     void shouldCalculateSubtotalCorrectly() {
         // Arrange
-        addProductToCart();
-        navigateToCart();
+        seedCart(1);
 
         // Act
-        var subtotal = cartPage().getCartSubtotal();
-        var total = cartPage().getTotal();
+        var cart = cartPage().getCartSnapshot();
+        var subtotal = cart.subtotalText();
+        var total = cart.totalText();
 
         // Assert
         SoftAssertions.assertSoftly(softly -> {
@@ -477,8 +458,7 @@ class CartWorkflowTest extends BaseTest {
     @DisplayName("Should handle multiple quantity increases")
     void shouldHandleMultipleQuantityIncreases() {
         // Arrange
-        addProductToCart();
-        navigateToCart();
+        seedCart(1);
         var initialQuantity = cartPage().getItemQuantity(0);
 
         // Act - increase quantity multiple times
@@ -503,9 +483,7 @@ class CartWorkflowTest extends BaseTest {
     @DisplayName("Should remove all items from cart")
     void shouldRemoveAllItemsFromCart() {
         // Arrange - add multiple products
-        addProductToCart();
-        addSecondProduct();
-        navigateToCart();
+        seedCart(2);
 
         var initialCount = cartPage().getCartItemCount();
         log.info("Initial cart count: {}", initialCount);
@@ -534,8 +512,7 @@ class CartWorkflowTest extends BaseTest {
     @DisplayName("Should navigate back to shopping from cart")
     void shouldNavigateBackToShoppingFromCart() {
         // Arrange
-        addProductToCart();
-        navigateToCart();
+        seedCart(1);
 
         // Act
         cartPage().clickContinueShopping();
@@ -2,6 +2,7 @@ package org.fugazi.tests;
 
 import io.qameta.allure.*;
 import org.assertj.core.api.SoftAssertions;
+import org.fugazi.network.FullRendering;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
@@ -72,6 +73,7 @@ class ProductDetailTest extends BaseTest {
     @Story("Product Image")
     @Severity(SeverityLevel.NORMAL)
     @DisplayName("Should display product image")
+    @FullRendering
     void shouldDisplayProductImage() {
         // Arrange
         homePage().clickFirstProduct();
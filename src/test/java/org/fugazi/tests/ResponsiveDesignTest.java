@@ -4,6 +4,7 @@ import io.qameta.allure.*;
 import lombok.extern.slf4j.Slf4j;
 
 import org.assertj.core.api.SoftAssertions;
+import org.fugazi.network.FullRendering;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
@@ -26,6 +27,7 @@ import org.openqa.selenium.TimeoutException;
 @Feature("Responsive Design")
 @DisplayName("Responsive Design Tests")
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@FullRendering
 class ResponsiveDesignTest extends BaseTest {
     private static final Dimension MOBILE_MEDIUM = new Dimension(375, 667);  // iPhone 6/7/8
     private static final Dimension TABLET = new Dimension(768, 1024);        // iPad
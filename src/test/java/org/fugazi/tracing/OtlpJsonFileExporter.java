@@ -0,0 +1,144 @@
+package org.fugazi.tracing;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Span exporter that appends every batch as one OTLP-JSON line (an ExportTraceServiceRequest) to a file,
+ * the format read by the OpenTelemetry Collector's otlpjsonfile receiver. Needs no network or collector
+ * while the tests run.
+ */
+final class OtlpJsonFileExporter implements SpanExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(OtlpJsonFileExporter.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Path file;
+
+    OtlpJsonFileExporter(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        try {
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, MAPPER.writeValueAsString(request(spans)) + "\n", StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            log.warn("Failed to write {} span(s) to {}: {}", spans.size(), file, e.getMessage());
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    private static Map<String, Object> request(Collection<SpanData> spans) {
+        var resourceSpans = new ArrayList<Map<String, Object>>();
+        var byResource = spans.stream().collect(Collectors.groupingBy(SpanData::getResource,
+                LinkedHashMap::new, Collectors.groupingBy(SpanData::getInstrumentationScopeInfo,
+                        LinkedHashMap::new, Collectors.toList())));
+        byResource.forEach((resource, byScope) -> {
+            var scopeSpans = new ArrayList<Map<String, Object>>();
+            byScope.forEach((scope, scoped) -> {
+                var scopeJson = new LinkedHashMap<String, Object>();
+                scopeJson.put("name", scope.getName());
+                if (scope.getVersion() != null) {
+                    scopeJson.put("version", scope.getVersion());
+                }
+                scopeSpans.add(Map.of("scope", scopeJson,
+                        "spans", scoped.stream().map(OtlpJsonFileExporter::span).toList()));
+            });
+            resourceSpans.add(Map.of("resource", Map.of("attributes", attributes(resource.getAttributes())),
+                    "scopeSpans", scopeSpans));
+        });
+        return Map.of("resourceSpans", resourceSpans);
+    }
+
+    private static Map<String, Object> span(SpanData span) {
+        var json = new LinkedHashMap<String, Object>();
+        json.put("traceId", span.getTraceId());
+        json.put("spanId", span.getSpanId());
+        if (span.getParentSpanContext().isValid()) {
+            json.put("parentSpanId", span.getParentSpanId());
+        }
+        json.put("name", span.getName());
+        json.put("kind", kind(span.getKind()));
+        // 64-bit integers are strings in OTLP-JSON
+        json.put("startTimeUnixNano", Long.toString(span.getStartEpochNanos()));
+        json.put("endTimeUnixNano", Long.toString(span.getEndEpochNanos()));
+        json.put("attributes", attributes(span.getAttributes()));
+
+        var status = new LinkedHashMap<String, Object>();
+        status.put("code", span.getStatus().getStatusCode() == StatusCode.ERROR ? 2
+                : span.getStatus().getStatusCode() == StatusCode.OK ? 1 : 0);
+        if (!span.getStatus().getDescription().isEmpty()) {
+            status.put("message", span.getStatus().getDescription());
+        }
+        json.put("status", status);
+        return json;
+    }
+
+    private static int kind(SpanKind kind) {
+        return switch (kind) {
+            case INTERNAL -> 1;
+            case SERVER -> 2;
+            case CLIENT -> 3;
+            case PRODUCER -> 4;
+            case CONSUMER -> 5;
+        };
+    }
+
+    private static List<Map<String, Object>> attributes(Attributes attributes) {
+        var json = new ArrayList<Map<String, Object>>();
+        attributes.forEach((key, value) -> json.add(Map.of("key", key.getKey(), "value", value(key, value))));
+        return json;
+    }
+
+    private static Map<String, Object> value(AttributeKey<?> key, Object value) {
+        return switch (key.getType()) {
+            case BOOLEAN -> Map.of("boolValue", value);
+            case LONG -> Map.of("intValue", value.toString());
+            case DOUBLE -> Map.of("doubleValue", value);
+            case STRING -> Map.of("stringValue", value);
+            default -> Map.of("arrayValue", Map.of("values", ((List<?>) value).stream()
+                    .map(element -> element instanceof Long || element instanceof Integer
+                            ? Map.of("intValue", element.toString())
+                            : element instanceof Double ? Map.of("doubleValue", element)
+                            : element instanceof Boolean ? Map.of("boolValue", element)
+                            : Map.of("stringValue", String.valueOf(element)))
+                    .toList()));
+        };
+    }
+}
@@ -0,0 +1,39 @@
+package org.fugazi.tracing;
+
+import java.util.ArrayDeque;
+
+import io.qameta.allure.listener.StepLifecycleListener;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.StepResult;
+
+import io.opentelemetry.api.common.Attributes;
+
+/**
+ * Allure lifecycle listener that traces every step as a child of the current span (see {@link Tracing}).
+ * Registered through META-INF/services; @Step methods only reach the Allure lifecycle when the AspectJ
+ * weaver is attached.
+ */
+public class StepSpanListener implements StepLifecycleListener {
+
+    // Steps nest and start and stop on the thread that runs them
+    private static final ThreadLocal<ArrayDeque<Tracing.ScopedSpan>> open = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public void beforeStepStart(StepResult result) {
+        if (Tracing.isEnabled()) {
+            open.get().push(Tracing.start(result.getName(), Attributes.empty()));
+        }
+    }
+
+    @Override
+    public void afterStepStop(StepResult result) {
+        var span = open.get().poll();
+        if (span == null) {
+            return;
+        }
+        if (result.getStatus() == Status.FAILED || result.getStatus() == Status.BROKEN) {
+            span.fail(result.getStatusDetails() == null ? null : result.getStatusDetails().getMessage());
+        }
+        span.close();
+    }
+}
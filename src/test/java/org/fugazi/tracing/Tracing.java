@@ -0,0 +1,255 @@
+package org.fugazi.tracing;
+
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.api.trace.TracerProvider;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+
+import org.fugazi.config.ConfigurationManager;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * OpenTelemetry tracing of test runs: each test is a trace whose spans are its Allure steps, the
+ * {@link org.fugazi.utils.WaitProfiler} waits, navigations and backoffs, and the WebDriver commands, tagged
+ * with the page object method that issued them. Spans are exported as OTLP-JSON lines to
+ * target/traces/{service}-{pid}.jsonl, so a slow test can be viewed as a flame graph without a profiler.
+ * In offline mode the browser sends the test's traceparent header with every request, and the stand-in
+ * server's spans join the trace as children of the test span.
+ * When tracing is disabled every method is a no-op and spans are OpenTelemetry's non-recording spans.
+ */
+public final class Tracing {
+
+    private static final Logger log = LoggerFactory.getLogger(Tracing.class);
+    private static final String TRACES_DIR = "target/traces";
+    private static final String SCOPE = "org.fugazi";
+    private static final String TRACEPARENT = "traceparent";
+
+    private static final TextMapGetter<Map<String, String>> MAP_GETTER = new TextMapGetter<>() {
+        @Override
+        public Iterable<String> keys(Map<String, String> carrier) {
+            return carrier.keySet();
+        }
+
+        @Override
+        public String get(Map<String, String> carrier, String key) {
+            return carrier == null ? null : carrier.get(key);
+        }
+    };
+
+    private static volatile Providers providers;
+
+    private Tracing() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * A span made current on the current thread. Closing it ends the span and restores the previous context.
+     *
+     * @param span  the span
+     * @param scope the scope that made the span current
+     */
+    public record ScopedSpan(Span span, Scope scope) implements AutoCloseable {
+
+        /**
+         * Mark the span as failed.
+         *
+         * @param message the failure message, may be null
+         */
+        public void fail(String message) {
+            span.setStatus(StatusCode.ERROR, message == null ? "" : message);
+        }
+
+        @Override
+        public void close() {
+            scope.close();
+            span.end();
+        }
+    }
+
+    /**
+     * Check whether spans are recorded and exported.
+     *
+     * @return true if tracing is enabled
+     */
+    public static boolean isEnabled() {
+        return ConfigurationManager.getInstance().isTracing();
+    }
+
+    /**
+     * Get the tracer for test-side spans.
+     *
+     * @return the tracer; a no-op tracer when tracing is disabled
+     */
+    public static Tracer tracer() {
+        return providers().tests.get(SCOPE);
+    }
+
+    /**
+     * Get the tracer for spans of the offline stand-in server, which are exported as a separate service.
+     *
+     * @return the tracer; a no-op tracer when tracing is disabled
+     */
+    public static Tracer serverTracer() {
+        return providers().server.get(SCOPE);
+    }
+
+    /**
+     * Start a test's root span and make it current.
+     *
+     * @param name the test name, e.g. "CartPage.shouldAddProduct"
+     * @return the scoped span, to close when the test ends
+     */
+    public static ScopedSpan startTest(String name) {
+        var span = tracer().spanBuilder(name).setNoParent().startSpan();
+        return new ScopedSpan(span, span.makeCurrent());
+    }
+
+    /**
+     * Start a child of the current span and make it current.
+     *
+     * @param name       the span name
+     * @param attributes the span attributes
+     * @return the scoped span, to close when the activity ends
+     */
+    public static ScopedSpan start(String name, Attributes attributes) {
+        var span = tracer().spanBuilder(name).setAllAttributes(attributes).startSpan();
+        return new ScopedSpan(span, span.makeCurrent());
+    }
+
+    /**
+     * Start a WebDriver command span as a child of the current span. The span is not made current;
+     * name it and add the caller when the command returns.
+     *
+     * @return the span; a non-recording span when tracing is disabled
+     */
+    public static Span startCommand() {
+        if (!isEnabled()) {
+            return Span.getInvalid();
+        }
+        return tracer().spanBuilder("command").setSpanKind(SpanKind.CLIENT).startSpan();
+    }
+
+    /**
+     * Send the current span's trace context with every request the browser makes, so the offline stand-in
+     * server can join the trace. Only done in offline mode on Chromium-based browsers: the extra header
+     * would make cross-origin requests to live third parties fail their CORS preflight.
+     *
+     * @param driver the test's WebDriver instance
+     */
+    public static void propagateTo(WebDriver driver) {
+        if (Span.current().getSpanContext().isValid()) {
+            var headers = new HashMap<String, String>();
+            W3CTraceContextPropagator.getInstance().inject(Context.current(), headers, Map::put);
+            setTraceHeader(driver, headers);
+        }
+    }
+
+    /**
+     * Stop sending a trace context from the browser, before the session serves another test.
+     *
+     * @param driver the test's WebDriver instance
+     */
+    public static void stopPropagation(WebDriver driver) {
+        if (Span.current().getSpanContext().isValid()) {
+            setTraceHeader(driver, Map.of());
+        }
+    }
+
+    /**
+     * Extract a remote parent from request headers.
+     *
+     * @param traceparent the traceparent header value, may be null
+     * @return the context carrying the remote parent, or null if the header is missing or invalid
+     */
+    public static Context extract(String traceparent) {
+        if (traceparent == null) {
+            return null;
+        }
+        var context = W3CTraceContextPropagator.getInstance()
+                .extract(Context.root(), Map.of(TRACEPARENT, traceparent), MAP_GETTER);
+        return Span.fromContext(context).getSpanContext().isValid() ? context : null;
+    }
+
+    /**
+     * Export the spans still buffered. Call once after the fork's last test.
+     */
+    public static void shutdown() {
+        var current = providers;
+        if (current != null && current.sdk != null) {
+            current.sdk.shutdown().join(10, TimeUnit.SECONDS);
+            current.serverSdk.shutdown().join(10, TimeUnit.SECONDS);
+            log.info("Traces written to {}", Paths.get(TRACES_DIR).toAbsolutePath());
+        }
+    }
+
+    private static void setTraceHeader(WebDriver driver, Map<String, String> headers) {
+        if (!(driver instanceof HasCdp cdp) || !ConfigurationManager.getInstance().isOfflineMode()) {
+            return;
+        }
+        try {
+            cdp.executeCdpCommand("Network.enable", Map.of());
+            cdp.executeCdpCommand("Network.setExtraHTTPHeaders", Map.of("headers", headers));
+        } catch (WebDriverException e) {
+            log.debug("Could not set the trace header: {}", e.getMessage());
+        }
+    }
+
+    private static Providers providers() {
+        var current = providers;
+        if (current == null) {
+            synchronized (Tracing.class) {
+                current = providers;
+                if (current == null) {
+                    current = isEnabled() ? Providers.exporting() : Providers.NOOP;
+                    providers = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Tracer providers of the tests and of the offline stand-in server.
+     */
+    private record Providers(TracerProvider tests, TracerProvider server, SdkTracerProvider sdk,
+                             SdkTracerProvider serverSdk) {
+
+        private static final Providers NOOP = new Providers(TracerProvider.noop(), TracerProvider.noop(), null, null);
+
+        private static Providers exporting() {
+            var pid = ProcessHandle.current().pid();
+            var tests = provider("fugazi-tests", pid);
+            var server = provider("offline-shop", pid);
+            return new Providers(tests, server, tests, server);
+        }
+
+        private static SdkTracerProvider provider(String service, long pid) {
+            var exporter = new OtlpJsonFileExporter(Paths.get(TRACES_DIR, service + "-" + pid + ".jsonl"));
+            return SdkTracerProvider.builder()
+                    .setResource(Resource.getDefault().merge(Resource.create(Attributes.of(
+                            AttributeKey.stringKey("service.name"), service,
+                            AttributeKey.longKey("process.pid"), pid))))
+                    .addSpanProcessor(BatchSpanProcessor.builder(exporter).build())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package org.fugazi.utils;
+
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.model.Attachment;
+import io.qameta.allure.util.PropertiesUtils;
+
+import org.fugazi.config.ConfigurationManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Content-addressed store for failure artifacts in the Allure results directory.
+ * Each artifact is named after the SHA-256 of what was captured, so when a shared page breaks and many
+ * tests fail with the same screenshot and page source, one copy is stored and every test's attachment
+ * references it. Hashing the capture happens on the test thread, because the attachment has to be linked
+ * to the test while it is running; re-encoding, compression and the write itself run on the
+ * {@link ArtifactWriter}. Page sources are gzip-compressed and screenshots can be scaled down or stored as
+ * JPEG (see the artifacts.* settings). Local copies, such as those under target/screenshots, are hard links
+ * to the stored file.
+ */
+public final class ArtifactStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ArtifactStore.class);
+
+    // Completes with the stored file once it has been written; one entry per distinct artifact in this fork
+    private static final Map<String, CompletableFuture<Path>> stored = new ConcurrentHashMap<>();
+
+    private static volatile Path resultsDirectory;
+
+    private ArtifactStore() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Attach a screenshot to the current test.
+     *
+     * @param name      the attachment name
+     * @param base64Png the screenshot as returned by the driver
+     * @param localCopy where to also link the screenshot, or null; a .png name follows the stored format
+     */
+    public static void attachScreenshot(String name, String base64Png, Path localCopy) {
+        var config = ConfigurationManager.getInstance();
+        var jpeg = "jpeg".equalsIgnoreCase(config.getArtifactScreenshotFormat());
+        var scale = Math.clamp(config.getArtifactScreenshotScalePercent(), 1, 100);
+        var quality = Math.clamp(config.getArtifactJpegQuality(), 1, 100);
+        var variant = jpeg ? "jpeg " + scale + " " + quality : "png " + scale;
+
+        var extension = jpeg ? ".jpg" : ".png";
+        var link = localCopy == null ? null
+                : localCopy.resolveSibling(localCopy.getFileName().toString().replaceFirst("\\.png$", extension));
+        attach(name, jpeg ? "image/jpeg" : "image/png", extension,
+                hash(base64Png.getBytes(StandardCharsets.US_ASCII), variant), link, () -> {
+                    var png = Base64.getDecoder().decode(base64Png);
+                    return jpeg || scale < 100 ? reencode(png, jpeg, scale, quality) : png;
+                });
+    }
+
+    /**
+     * Attach a page source to the current test.
+     *
+     * @param name       the attachment name
+     * @param pageSource the page source
+     */
+    public static void attachPageSource(String name, String pageSource) {
+        var html = pageSource.getBytes(StandardCharsets.UTF_8);
+        if (!ConfigurationManager.getInstance().isArtifactPageSourceGzip()) {
+            attach(name, "text/html", ".html", hash(html, "html"), null, () -> html);
+            return;
+        }
+        attach(name, "application/gzip", ".html.gz", hash(html, "gzip"), null, () -> gzip(html));
+    }
+
+    private static void attach(String name, String mimeType, String extension, String key, Path localCopy,
+                               Encoder encoder) {
+        var source = key + "-attachment" + extension;
+        link(new Attachment().setName(name).setType(mimeType).setSource(source));
+
+        var file = new CompletableFuture<Path>();
+        var existing = stored.putIfAbsent(source, file);
+        if (existing != null) {
+            RunMetrics.increment("artifacts.deduplicated");
+            file = existing;
+        } else {
+            var pending = file;
+            ArtifactWriter.submit(name, () -> {
+                try {
+                    pending.complete(store(source, encoder));
+                } catch (Exception e) {
+                    stored.remove(source, pending);
+                    pending.completeExceptionally(e);
+                    throw e;
+                }
+            });
+        }
+        if (localCopy != null) {
+            file.thenAccept(target -> linkLocalCopy(localCopy, target));
+        }
+    }
+
+    /**
+     * Add the attachment to the running step or test.
+     */
+    private static void link(Attachment attachment) {
+        var lifecycle = Allure.getLifecycle();
+        var current = lifecycle.getCurrentTestCaseOrStep();
+        if (current.isEmpty()) {
+            log.debug("No test running, {} is stored but not attached", attachment.getName());
+        } else if (current.equals(lifecycle.getCurrentTestCase())) {
+            lifecycle.updateTestCase(result -> result.getAttachments().add(attachment));
+        } else {
+            lifecycle.updateStep(current.get(), step -> step.getAttachments().add(attachment));
+        }
+    }
+
+    private static Path store(String source, Encoder encoder) throws Exception {
+        var target = resultsDirectory().resolve(source);
+        // Another fork may have stored the same content already
+        if (!Files.exists(target)) {
+            var bytes = encoder.encode();
+            ArtifactWriter.writeAtomically(target, bytes);
+            RunMetrics.increment("artifacts.bytes", bytes.length);
+        }
+        return target;
+    }
+
+    private static void linkLocalCopy(Path localCopy, Path target) {
+        try {
+            Files.createDirectories(localCopy.toAbsolutePath().getParent());
+            try {
+                Files.createLink(localCopy, target);
+            } catch (FileAlreadyExistsException e) {
+                return;
+            } catch (UnsupportedOperationException | IOException e) {
+                // No hard links here (e.g. another file system): fall back to a copy
+                Files.copy(target, localCopy);
+            }
+            log.info("Artifact saved: {}", localCopy);
+        } catch (IOException e) {
+            log.error("Failed to save {}: {}", localCopy, e.getMessage());
+        }
+    }
+
+    private static byte[] reencode(byte[] png, boolean jpeg, int scale, int quality) throws IOException {
+        var image = ImageIO.read(new ByteArrayInputStream(png));
+        if (image == null) {
+            return png;
+        }
+
+        var width = Math.max(1, image.getWidth() * scale / 100);
+        var height = Math.max(1, image.getHeight() * scale / 100);
+        // JPEG has no alpha channel
+        var scaled = new BufferedImage(width, height, jpeg ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        var graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        var output = new ByteArrayOutputStream();
+        if (!jpeg) {
+            ImageIO.write(scaled, "png", output);
+            return output.toByteArray();
+        }
+        var writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (var stream = ImageIO.createImageOutputStream(output)) {
+            writer.setOutput(stream);
+            var parameters = writer.getDefaultWriteParam();
+            parameters.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            parameters.setCompressionQuality(quality / 100f);
+            writer.write(null, new IIOImage(scaled, null, null), parameters);
+        } finally {
+            writer.dispose();
+        }
+        return output.toByteArray();
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        var output = new ByteArrayOutputStream(content.length / 4);
+        try (var gzip = new GZIPOutputStream(output)) {
+            gzip.write(content);
+        }
+        return output.toByteArray();
+    }
+
+    private static String hash(byte[] content, String variant) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            digest.update(content);
+            // Different encodings of the same capture are different artifacts
+            digest.update(variant.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Path resultsDirectory() {
+        var directory = resultsDirectory;
+        if (directory == null) {
+            directory = Paths.get(PropertiesUtils.loadAllureProperties()
+                    .getProperty("allure.results.directory", "allure-results"));
+            resultsDirectory = directory;
+        }
+        return directory;
+    }
+
+    /**
+     * Produces the stored bytes from the captured data, on a writer thread.
+     */
+    @FunctionalInterface
+    private interface Encoder {
+        byte[] encode() throws Exception;
+    }
+}
@@ -0,0 +1,152 @@
+package org.fugazi.utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.fugazi.config.ConfigurationManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes failure artifacts such as screenshots and page sources off the test thread.
+ * The test thread only captures the raw data, and {@link ArtifactStore} links the Allure attachment to
+ * the running test; decoding, compression and disk writes run on a small bounded pool. When its queue
+ * is full the submitting thread does the work itself, so a burst of failures slows the failing tests down
+ * instead of buffering screenshots without limit. Files are written next to their destination and renamed into place, so
+ * readers never see a partial file. {@link #flush()} is the barrier that waits for pending writes
+ * when the fork ends.
+ */
+public final class ArtifactWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(ArtifactWriter.class);
+
+    private static final Set<Path> createdDirectories = ConcurrentHashMap.newKeySet();
+    private static volatile ThreadPoolExecutor executor;
+
+    private ArtifactWriter() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Save an artifact to a local file only.
+     *
+     * @param destination the file to write
+     * @param encoder     produces the artifact's bytes from the captured data
+     */
+    public static void save(Path destination, Callable<byte[]> encoder) {
+        submit(destination.getFileName().toString(), () -> {
+            var bytes = encoder.call();
+            writeAtomically(destination, bytes);
+            log.info("Artifact saved: {}", destination);
+            RunMetrics.increment("artifacts.bytes", bytes.length);
+        });
+    }
+
+    /**
+     * Wait until every submitted artifact has been written. Call once after the fork's last test.
+     */
+    public static void flush() {
+        var current = executor;
+        if (current == null) {
+            return;
+        }
+        current.shutdown();
+        var timeout = ConfigurationManager.getInstance().getArtifactFlushTimeoutSeconds();
+        try {
+            if (!current.awaitTermination(timeout, TimeUnit.SECONDS)) {
+                log.warn("{} artifact(s) not written within {}s",
+                        current.getQueue().size() + current.getActiveCount(), timeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Write bytes to a temporary file in the destination's directory and rename it into place.
+     *
+     * @param destination the file to write
+     * @param bytes       the content
+     * @throws IOException if the file cannot be written
+     */
+    static void writeAtomically(Path destination, byte[] bytes) throws IOException {
+        var directory = destination.toAbsolutePath().getParent();
+        if (createdDirectories.add(directory)) {
+            Files.createDirectories(directory);
+        }
+        // Not Files.createTempFile, which would make the artifact readable by its owner only
+        var temporary = directory.resolve("." + destination.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            Files.write(temporary, bytes, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            Files.move(temporary, destination, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Run a write on a writer thread, or on the calling thread when the queue is full.
+     *
+     * @param name  what is written, for the log
+     * @param write the work
+     */
+    static void submit(String name, Write write) {
+        RunMetrics.increment("artifacts.submitted");
+        executor().execute(() -> {
+            try {
+                write.run();
+            } catch (Exception e) {
+                log.error("Failed to write {}: {}", name, e.getMessage());
+                RunMetrics.increment("artifacts.failed");
+            }
+        });
+    }
+
+    private static ThreadPoolExecutor executor() {
+        var current = executor;
+        if (current == null) {
+            synchronized (ArtifactWriter.class) {
+                current = executor;
+                if (current == null) {
+                    var config = ConfigurationManager.getInstance();
+                    var threads = Math.max(1, config.getArtifactWriterThreads());
+                    var number = new AtomicInteger();
+                    current = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                            new ArrayBlockingQueue<>(Math.max(1, config.getArtifactWriterQueue())),
+                            runnable -> {
+                                var thread = new Thread(runnable, "artifact-writer-" + number.incrementAndGet());
+                                thread.setDaemon(true);
+                                return thread;
+                            },
+                            (runnable, pool) -> {
+                                // Backpressure: the failing test writes its own artifact
+                                RunMetrics.increment("artifacts.caller.runs");
+                                runnable.run();
+                            });
+                    current.allowCoreThreadTimeOut(true);
+                    executor = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Encoding and writing of one artifact, run on a writer thread.
+     */
+    @FunctionalInterface
+    interface Write {
+        void run() throws Exception;
+    }
+}
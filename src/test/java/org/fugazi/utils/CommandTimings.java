@@ -0,0 +1,270 @@
+package org.fugazi.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import io.qameta.allure.Allure;
+
+import io.opentelemetry.api.trace.Span;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.fugazi.jfr.WebDriverCommandEvent;
+import org.fugazi.tracing.Tracing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Latency of every WebDriver command, tagged with the page object method that issued it
+ * (e.g. "ProductsPage.clickProductByIndex findElement").
+ * Each thread records into its own histograms, so the hot path takes no locks; per-test figures are attached
+ * to the Allure report when the test ends and folded into the thread's totals, which are merged into
+ * target/metrics/command-latency-{pid}.json when the fork ends.
+ * Every command is also emitted as a {@link WebDriverCommandEvent} for flight recordings and traced
+ * by {@link Tracing}.
+ */
+public final class CommandTimings {
+
+    private static final Logger log = LoggerFactory.getLogger(CommandTimings.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String METRICS_DIR = "target/metrics";
+    private static final String PAGES_PACKAGE = "org.fugazi.pages.";
+    private static final String BASE_PAGE = "org.fugazi.pages.BasePage";
+    private static final String PROJECT_PACKAGE = "org.fugazi.";
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    // Answered by the client without a round trip to the driver
+    private static final Set<String> LOCAL_COMMANDS = Set.of("manage", "navigate", "switchTo", "timeouts",
+            "window", "getWrappedDriver", "getWrappedElement", "equals", "hashCode", "toString");
+
+    // Every recorder ever created, read only once the fork's tests have finished
+    private static final Queue<Recorder> recorders = new ConcurrentLinkedQueue<>();
+    private static final ThreadLocal<Recorder> recorder = ThreadLocal.withInitial(() -> {
+        var created = new Recorder();
+        recorders.add(created);
+        return created;
+    });
+
+    private CommandTimings() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Histograms and in-flight command start times of a single thread.
+     */
+    private static final class Recorder {
+        private final Map<String, LatencyHistogram> test = new HashMap<>();
+        private final Map<String, LatencyHistogram> fork = new HashMap<>();
+        private final ArrayDeque<InFlight> started = new ArrayDeque<>();
+    }
+
+    /**
+     * A command that has been sent and not yet answered.
+     */
+    private record InFlight(long start, WebDriverCommandEvent event, Span span) {
+    }
+
+    /**
+     * Mark the start of a command on the current thread.
+     */
+    public static void commandStarted() {
+        var event = new WebDriverCommandEvent();
+        event.begin();
+        recorder.get().started.push(new InFlight(System.nanoTime(), event, Tracing.startCommand()));
+    }
+
+    /**
+     * Record the end of the command most recently started on the current thread.
+     * A lookup that found nothing after at least half the implicit wait is also reported to the
+     * {@link WaitProfiler} as an implicit-wait stall.
+     *
+     * @param command      the command name, e.g. "findElement"
+     * @param nothingFound true if the command was an element lookup that found no element
+     */
+    public static void commandFinished(String command, boolean nothingFound) {
+        var current = recorder.get();
+        var inFlight = current.started.poll();
+        if (inFlight == null) {
+            return;
+        }
+        var elapsed = System.nanoTime() - inFlight.start();
+        var caller = caller();
+        var event = inFlight.event();
+        event.end();
+        if (event.shouldCommit()) {
+            event.command = command;
+            event.caller = caller;
+            event.nothingFound = nothingFound;
+            event.commit();
+        }
+        var span = inFlight.span();
+        if (span.isRecording()) {
+            span.updateName(command);
+            span.setAttribute("code.function", caller);
+            span.setAttribute("webdriver.nothing_found", nothingFound);
+            span.end();
+        }
+        current.test.computeIfAbsent(caller + " " + command, key -> new LatencyHistogram()).record(elapsed);
+
+        var implicitWait = ImplicitWaitGuard.effectiveImplicitWait();
+        if (nothingFound && !implicitWait.isZero() && elapsed >= implicitWait.toNanos() / 2) {
+            WaitProfiler.record(WaitProfiler.Category.IMPLICIT_WAIT, caller + " " + command, elapsed);
+        }
+    }
+
+    /**
+     * Start a new test on the current thread. Commands recorded since the last test only count towards the fork.
+     */
+    public static void startTest() {
+        var current = recorder.get();
+        foldTest(current);
+    }
+
+    /**
+     * Attach the current test's command latencies to the Allure report and add them to the fork totals.
+     *
+     * @param testName the name of the test, for the log
+     */
+    public static void finishTest(String testName) {
+        var current = recorder.get();
+        if (current.test.isEmpty()) {
+            return;
+        }
+
+        var total = new LatencyHistogram();
+        current.test.values().forEach(total::add);
+        var report = new LinkedHashMap<String, Object>();
+        report.put("all", total.summary());
+        report.put("byCommand", byCommand(current.test));
+        report.put("byCaller", sortedByTotal(current.test));
+        try {
+            Allure.addAttachment("Command latencies", "application/json",
+                    MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(report), ".json");
+        } catch (JsonProcessingException e) {
+            log.debug("Could not attach command latencies: {}", e.getMessage());
+        }
+        log.debug("{}: {} WebDriver command(s), p95 {} ms", testName, total.count(),
+                total.percentileMicros(95) / 1_000.0);
+        foldTest(current);
+    }
+
+    /**
+     * Merge every thread's histograms and write them to target/metrics/command-latency-{pid}.json.
+     * Call once after the fork's last test.
+     */
+    public static void writeReport() {
+        var merged = new HashMap<String, LatencyHistogram>();
+        for (var each : recorders) {
+            each.fork.forEach((tag, histogram) -> merged.computeIfAbsent(tag, key -> new LatencyHistogram())
+                    .add(histogram));
+            each.test.forEach((tag, histogram) -> merged.computeIfAbsent(tag, key -> new LatencyHistogram())
+                    .add(histogram));
+        }
+        if (merged.isEmpty()) {
+            return;
+        }
+
+        var total = new LatencyHistogram();
+        merged.values().forEach(total::add);
+        var report = new LinkedHashMap<String, Object>();
+        report.put("pid", ProcessHandle.current().pid());
+        report.put("all", total.summary());
+        report.put("byCommand", byCommand(merged));
+        report.put("byCaller", sortedByTotal(merged));
+
+        try {
+            var metricsDir = Paths.get(METRICS_DIR);
+            Files.createDirectories(metricsDir);
+            var destination = metricsDir.resolve("command-latency-" + ProcessHandle.current().pid() + ".json");
+            Files.writeString(destination, MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(report),
+                    StandardCharsets.UTF_8);
+            log.info("Command latencies written: {}", destination);
+        } catch (IOException e) {
+            log.error("Failed to write command latencies: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Check whether a command is worth timing. Commands answered by the client itself are not.
+     *
+     * @param command the command name
+     * @return true if the command should be timed
+     */
+    public static boolean isTimed(String command) {
+        return !LOCAL_COMMANDS.contains(command);
+    }
+
+    private static void foldTest(Recorder current) {
+        current.test.forEach((tag, histogram) -> current.fork.computeIfAbsent(tag, key -> new LatencyHistogram())
+                .add(histogram));
+        current.test.clear();
+    }
+
+    private static Map<String, Object> byCommand(Map<String, LatencyHistogram> byTag) {
+        var commands = new HashMap<String, LatencyHistogram>();
+        byTag.forEach((tag, histogram) -> commands.computeIfAbsent(tag.substring(tag.lastIndexOf(' ') + 1),
+                key -> new LatencyHistogram()).add(histogram));
+        return sortedByTotal(commands);
+    }
+
+    private static Map<String, Object> sortedByTotal(Map<String, LatencyHistogram> histograms) {
+        var sorted = new LinkedHashMap<String, Object>();
+        histograms.entrySet().stream()
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<String, LatencyHistogram> entry) -> entry.getValue().totalMicros()).reversed())
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue().summary()));
+        return sorted;
+    }
+
+    /**
+     * Find the page object method, or failing that the test code, that issued the current command.
+     *
+     * @return the caller as "SimpleClassName.method"
+     */
+    private static String caller() {
+        return STACK_WALKER.walk(frames -> {
+            Optional<StackWalker.StackFrame> project = Optional.empty();
+            for (var frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+                var className = frame.getClassName();
+                if (!className.startsWith(PROJECT_PACKAGE) || className.startsWith("org.fugazi.utils.")
+                        || className.startsWith("org.fugazi.listeners.")) {
+                    continue;
+                }
+                if (className.startsWith(PAGES_PACKAGE) && !className.equals(BASE_PAGE)) {
+                    return describe(frame);
+                }
+                if (project.isEmpty()) {
+                    project = Optional.of(frame);
+                }
+            }
+            return project.map(CommandTimings::describe).orElse("unattributed");
+        });
+    }
+
+    private static String describe(StackWalker.StackFrame frame) {
+        var className = frame.getClassName();
+        var simpleName = className.substring(className.lastIndexOf('.') + 1);
+        var nested = simpleName.indexOf('$');
+        if (nested > 0) {
+            simpleName = simpleName.substring(0, nested);
+        }
+        // lambda$clickProductByIndex$3 -> clickProductByIndex
+        var method = frame.getMethodName();
+        if (method.startsWith("lambda$")) {
+            var end = method.indexOf('$', "lambda$".length());
+            method = method.substring("lambda$".length(), end > 0 ? end : method.length());
+        }
+        return simpleName + "." + method;
+    }
+}
@@ -0,0 +1,195 @@
+package org.fugazi.utils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.fugazi.config.ConfigurationManager;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Event-driven waits evaluated inside the browser.
+ * A condition is a JavaScript expression over {@code args}; it is re-checked by a MutationObserver and on
+ * animation/transition end events, and the async script resolves as soon as it holds. This replaces one or more
+ * WebDriver round trips per 500 ms poll with a single command per wait.
+ * When the async script cannot run (no MutationObserver, navigation during the wait, unsupported command)
+ * the same expression is polled from the client instead.
+ * A wait can race its condition against a failure expression and abort as soon as the failure shows up.
+ */
+public final class DomWaiter {
+
+    private static final Logger log = LoggerFactory.getLogger(DomWaiter.class);
+
+    // Headroom between the in-page timer and the driver's script timeout so the page always answers first
+    private static final Duration SCRIPT_TIMEOUT_MARGIN = Duration.ofSeconds(2);
+    private static final Duration MIN_ROUND = Duration.ofSeconds(1);
+
+    private static final String MET = "met";
+    private static final String TIMED_OUT = "timeout";
+    private static final String UNSUPPORTED = "unsupported";
+    private static final String FAILED = "failed:";
+
+    private static final String ASYNC_WAIT_SCRIPT = """
+            const callback = arguments[arguments.length - 1];
+            const args = arguments[0];
+            const timeoutMs = arguments[1];
+            const check = () => { try { return !!(%s); } catch (e) { return false; } };
+            const failure = () => { try { return (%s) || null; } catch (e) { return null; } };
+            const outcome = () => check() ? 'met' : (f => f ? 'failed:' + f : null)(failure());
+            const initial = outcome();
+            if (initial) { callback(initial); return; }
+            if (typeof MutationObserver === 'undefined' || !document.documentElement) { callback('unsupported'); return; }
+            const events = ['animationend', 'animationcancel', 'transitionend', 'transitioncancel'];
+            let done = false;
+            let observer;
+            let timer;
+            const onChange = () => { const result = outcome(); if (result) finish(result); };
+            const finish = result => {
+                if (done) return;
+                done = true;
+                observer.disconnect();
+                clearTimeout(timer);
+                events.forEach(type => document.removeEventListener(type, onChange, true));
+                callback(result);
+            };
+            observer = new MutationObserver(onChange);
+            observer.observe(document.documentElement,
+                    {childList: true, subtree: true, attributes: true, characterData: true});
+            events.forEach(type => document.addEventListener(type, onChange, true));
+            timer = setTimeout(() => finish(outcome() || 'timeout'), timeoutMs);
+            """;
+
+    private static final String POLL_SCRIPT = """
+            const args = arguments[0];
+            try { if (%s) return 'met'; } catch (e) { }
+            try { const f = %s; return f ? 'failed:' + f : null; } catch (e) { return null; }
+            """;
+
+    private DomWaiter() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Wait until a JavaScript condition becomes true in the page.
+     *
+     * @param driver    the WebDriver instance
+     * @param condition a JavaScript expression; the wait arguments are available as {@code args[i]}
+     * @param timeout   the maximum time to wait
+     * @param args      arguments exposed to the condition (strings, numbers, booleans or elements)
+     * @return true if the condition became true in time, false on timeout
+     */
+    public static boolean waitFor(WebDriver driver, String condition, Duration timeout, Object... args) {
+        return waitForUnless(driver, condition, "null", timeout, args);
+    }
+
+    /**
+     * Wait until a JavaScript condition becomes true in the page, unless a failure expression becomes truthy first.
+     *
+     * @param driver    the WebDriver instance
+     * @param condition a JavaScript expression; the wait arguments are available as {@code args[i]}
+     * @param failure   a JavaScript expression that evaluates to a "name: detail" failure description, or null
+     * @param timeout   the maximum time to wait
+     * @param args      arguments exposed to the condition (strings, numbers, booleans or elements)
+     * @return true if the condition became true in time, false on timeout
+     * @throws FailureSignalException if the failure expression fired before the condition held
+     */
+    public static boolean waitForUnless(WebDriver driver, String condition, String failure, Duration timeout,
+            Object... args) {
+        var deadline = System.nanoTime() + timeout.toNanos();
+        var arguments = List.of(args);
+
+        if (driver instanceof JavascriptExecutor js) {
+            var asyncScript = ASYNC_WAIT_SCRIPT.formatted(condition, failure);
+            var maxRound = maxRound();
+            try {
+                while (true) {
+                    var remaining = remaining(deadline);
+                    var round = remaining.compareTo(maxRound) > 0 ? maxRound : remaining;
+                    var result = String.valueOf(js.executeAsyncScript(asyncScript, arguments, round.toMillis()));
+
+                    if (MET.equals(result)) {
+                        RunMetrics.increment("dom.wait.event");
+                        return true;
+                    }
+                    if (result.startsWith(FAILED)) {
+                        throw FailureSignals.failure(result.substring(FAILED.length()));
+                    }
+                    if (UNSUPPORTED.equals(result)) {
+                        break;
+                    }
+                    if (remaining(deadline).isZero()) {
+                        RunMetrics.increment("dom.wait.timeout");
+                        return false;
+                    }
+                }
+            } catch (ScriptTimeoutException e) {
+                // The in-page timer did not fire (e.g. throttled background tab); let the poller finish the job
+                log.debug("Async DOM wait exceeded script timeout: {}", e.getMessage());
+            } catch (JavascriptException e) {
+                // Typically the document was replaced by a navigation while the observer was attached
+                log.debug("Async DOM wait interrupted: {}", e.getMessage());
+            } catch (WebDriverException e) {
+                log.debug("Async DOM wait unavailable, falling back to polling: {}", e.getMessage());
+            }
+        }
+
+        RunMetrics.increment("dom.wait.fallback");
+        return poll(driver, condition, failure, remaining(deadline), arguments);
+    }
+
+    /**
+     * Get the CSS selector behind a locator, for use inside a condition.
+     *
+     * @param locator the element locator
+     * @return the CSS selector, or empty if the locator is not CSS-based (e.g. XPath)
+     */
+    public static Optional<String> cssSelectorOf(By locator) {
+        if (locator instanceof By.Remotable remotable) {
+            var parameters = remotable.getRemoteParameters();
+            if ("css selector".equals(parameters.using())) {
+                return Optional.of(String.valueOf(parameters.value()));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static boolean poll(WebDriver driver, String condition, String failure, Duration timeout,
+            List<Object> arguments) {
+        var pollScript = POLL_SCRIPT.formatted(condition, failure);
+        String result;
+        try {
+            result = new WebDriverWait(driver, timeout)
+                    .ignoring(JavascriptException.class)
+                    .until(d -> (String) ((JavascriptExecutor) d).executeScript(pollScript, arguments));
+        } catch (TimeoutException e) {
+            return false;
+        }
+        if (result.startsWith(FAILED)) {
+            throw FailureSignals.failure(result.substring(FAILED.length()));
+        }
+        return true;
+    }
+
+    /**
+     * Longest in-page wait per async command, kept below the driver's script timeout.
+     *
+     * @return the maximum duration of a single wait round
+     */
+    private static Duration maxRound() {
+        var round = Duration.ofSeconds(ConfigurationManager.getInstance().getTimeout()).minus(SCRIPT_TIMEOUT_MARGIN);
+        return round.compareTo(MIN_ROUND) < 0 ? MIN_ROUND : round;
+    }
+
+    private static Duration remaining(long deadlineNanos) {
+        return Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+    }
+}
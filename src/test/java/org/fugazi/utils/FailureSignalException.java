@@ -0,0 +1,32 @@
+package org.fugazi.utils;
+
+import org.openqa.selenium.TimeoutException;
+
+/**
+ * Thrown when a wait is abandoned because the page reached a known failure state.
+ * Extends {@link TimeoutException} so callers that tolerate a timed-out wait tolerate an aborted one the same way.
+ */
+public class FailureSignalException extends TimeoutException {
+
+    private final String signal;
+
+    /**
+     * Create an exception for a failure signal.
+     *
+     * @param signal the name of the signal that fired, e.g. "not-found"
+     * @param detail what the page showed
+     */
+    public FailureSignalException(String signal, String detail) {
+        super("Wait aborted, page reached a failure state [" + signal + "]: " + detail);
+        this.signal = signal;
+    }
+
+    /**
+     * Get the name of the signal that fired.
+     *
+     * @return the signal name
+     */
+    public String getSignal() {
+        return signal;
+    }
+}
@@ -0,0 +1,268 @@
+package org.fugazi.utils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.fugazi.config.ConfigurationManager;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registry of page states that mean a wait can never succeed: not-found and error views, an unexpected
+ * redirect to /login and uncaught script errors. Waits race their condition against these signals and abort
+ * with a {@link FailureSignalException} as soon as one fires, instead of polling until the timeout.
+ * All signals are evaluated in a single script per check. Script errors are collected by a hook installed
+ * on every new document through CDP, so that signal is only available on Chromium-based browsers. Only errors
+ * raised after the wait first checked the document count, so an earlier harmless error does not abort every
+ * later wait on the same page.
+ */
+public final class FailureSignals {
+
+    private static final Logger log = LoggerFactory.getLogger(FailureSignals.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // Signals are checked at most this often, so fast-polling waits do not double their command count
+    private static final long CHECK_INTERVAL_NANOS = 250_000_000L;
+
+    private static final String ERROR_HOOK_SCRIPT = """
+            (() => {
+                const ignore = %s;
+                // count is the number of errors so far, messages the last 10 of them
+                const errors = window.__failureSignalErrors = {count: 0, messages: [], wait: null, since: 0};
+                const keep = message => {
+                    message = String(message || '');
+                    if (message && !(ignore && ignore.test(message))) {
+                        errors.count++;
+                        errors.messages.push(message.slice(0, 200));
+                        if (errors.messages.length > 10) errors.messages.shift();
+                    }
+                };
+                // Resource load errors (e.g. images blocked in lean mode) target elements and are not script errors
+                window.addEventListener('error', e => { if (!(e.target instanceof Element)) keep(e.message); }, true);
+                window.addEventListener('unhandledrejection',
+                        e => keep('unhandled rejection: ' + (e.reason && e.reason.message || e.reason)));
+            })();
+            """;
+
+    private static final String CHECK_SCRIPT = """
+            const loginAllowed = arguments[0] == null ? location.pathname.startsWith('/login') : arguments[0];
+            return [loginAllowed, (%s)(loginAllowed, arguments[1])];
+            """;
+
+    private static final List<Signal> registry = new CopyOnWriteArrayList<>(List.of(
+            new Signal("not-found", """
+                    (document.querySelector("[data-testid='not-found'], [data-testid='product-not-found']")
+                        || /\\b404\\b|page not found|could not be found/i.test(document.title)
+                        || /^\\s*(404|page not found|product not found)\\b/i.test(
+                                (document.querySelector('h1') || {}).textContent || ''))
+                    && ((document.querySelector('h1') || {}).textContent || document.title).trim().slice(0, 100)
+                    """),
+            new Signal("error-view", """
+                    (document.querySelector("[data-testid='error-boundary'], [data-nextjs-dialog-overlay]")
+                        || /something went wrong|application error/i.test(
+                                (document.querySelector('h1, h2') || {}).textContent || ''))
+                    && ((document.querySelector('h1, h2') || {}).textContent || 'error boundary').trim().slice(0, 100)
+                    """),
+            new Signal("login-redirect", """
+                    !loginAllowed && location.pathname.startsWith('/login') && location.pathname + location.search
+                    """),
+            new Signal("script-error", """
+                    newScriptError
+                    """)));
+
+    private static volatile String signalsFunction;
+
+    // Identifies a wait in the page, so script errors are counted from where that wait started
+    private static final AtomicLong waits = new AtomicLong();
+
+    // Sessions that already carry the script error hook
+    private static final Map<WebDriver, Boolean> hookedSessions = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private FailureSignals() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * A named failure state.
+     *
+     * @param name       short name used in failure messages and metrics
+     * @param expression JavaScript expression that evaluates to a description of the failure, or a falsy value;
+     *                   {@code loginAllowed} is in scope and true when the wait started on the login page, and
+     *                   {@code newScriptError} holds the first script error raised during the wait, if any
+     */
+    public record Signal(String name, String expression) {
+    }
+
+    /**
+     * Add a failure signal to the registry.
+     *
+     * @param name       short name used in failure messages and metrics
+     * @param expression JavaScript expression that evaluates to a description of the failure, or a falsy value
+     */
+    public static void register(String name, String expression) {
+        registry.add(new Signal(name, expression));
+        signalsFunction = null;
+    }
+
+    /**
+     * Install the script error hook on a session. Takes effect from the next navigation and is
+     * installed once per session.
+     *
+     * @param driver the WebDriver instance
+     */
+    public static void watch(WebDriver driver) {
+        var config = ConfigurationManager.getInstance();
+        if (!config.isFailFast() || !config.isFailFastJsErrors() || !(driver instanceof HasCdp cdp)
+                || hookedSessions.containsKey(driver)) {
+            return;
+        }
+
+        try {
+            var ignore = config.getFailFastJsIgnore().isBlank()
+                    ? "null"
+                    : "new RegExp(" + MAPPER.writeValueAsString(config.getFailFastJsIgnore()) + ")";
+            cdp.executeCdpCommand("Page.addScriptToEvaluateOnNewDocument",
+                    Map.of("source", ERROR_HOOK_SCRIPT.formatted(ignore)));
+            hookedSessions.put(driver, true);
+        } catch (JsonProcessingException | WebDriverException e) {
+            log.warn("Could not install script error hook: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Start checking failure signals for one wait.
+     *
+     * @param driver the WebDriver instance
+     * @return the check for this wait; a no-op when fail-fast waits are disabled
+     */
+    public static Check start(WebDriver driver) {
+        return new Check(ConfigurationManager.getInstance().isFailFast() ? driver : null);
+    }
+
+    /**
+     * JavaScript expression that evaluates to "name: detail" for the first firing signal, or null.
+     * The login redirect signal is left out, because in-browser waits cannot tell where they started.
+     * Each call identifies a new wait, so call it once per wait.
+     *
+     * @return the expression, for use with {@link DomWaiter#waitForUnless}; "null" when fail-fast waits are disabled
+     */
+    public static String expression() {
+        return ConfigurationManager.getInstance().isFailFast()
+                ? "(" + signalsFunction() + ")(true, " + waits.incrementAndGet() + ")"
+                : "null";
+    }
+
+    /**
+     * Abort a wait for a failure reported by {@link #expression()}.
+     *
+     * @param failure the "name: detail" description
+     * @return the exception to throw
+     */
+    static FailureSignalException failure(String failure) {
+        var separator = failure.indexOf(": ");
+        return failure(separator < 0 ? failure : failure.substring(0, separator),
+                separator < 0 ? "" : failure.substring(separator + 2));
+    }
+
+    private static FailureSignalException failure(String signal, String detail) {
+        RunMetrics.increment("wait.failfast." + signal);
+        return new FailureSignalException(signal, detail);
+    }
+
+    private static String signalsFunction() {
+        var function = signalsFunction;
+        if (function == null) {
+            var signals = registry.stream()
+                    .map(signal -> "[" + quote(signal.name()) + ", () => (" + signal.expression().strip() + ")]")
+                    .collect(Collectors.joining(",\n"));
+            function = """
+                    ((loginAllowed, wait) => {
+                        // Script errors count from the first check of this document within the wait
+                        const errors = window.__failureSignalErrors;
+                        if (errors && errors.wait !== wait) {
+                            errors.wait = wait;
+                            errors.since = errors.count;
+                        }
+                        const unseen = errors ? errors.count - errors.since : 0;
+                        const newScriptError = unseen > 0
+                                ? errors.messages[Math.max(0, errors.messages.length - unseen)] : null;
+                        const signals = [%s];
+                        for (const [name, test] of signals) {
+                            let detail = null;
+                            try { detail = test(); } catch (e) { }
+                            if (detail) return name + ': ' + detail;
+                        }
+                        return null;
+                    })""".formatted(signals);
+            signalsFunction = function;
+        }
+        return function;
+    }
+
+    private static String quote(String value) {
+        try {
+            return MAPPER.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Failure signal checks for a single wait. Whether the wait started on the login page and how many script
+     * errors the page had already raised are decided on the first check, so only a redirect to /login or a
+     * script error during the wait counts as a failure.
+     */
+    public static final class Check {
+
+        private final WebDriver driver;
+        private final long wait = waits.incrementAndGet();
+        private Boolean loginAllowed;
+        private long lastCheck;
+
+        private Check(WebDriver driver) {
+            this.driver = driver;
+        }
+
+        /**
+         * Check the failure signals, at most every 250 ms.
+         *
+         * @throws FailureSignalException if a signal fired
+         */
+        public void check() {
+            if (!(driver instanceof JavascriptExecutor js)) {
+                return;
+            }
+            var now = System.nanoTime();
+            if (lastCheck != 0 && now - lastCheck < CHECK_INTERVAL_NANOS) {
+                return;
+            }
+            lastCheck = now;
+
+            Object result;
+            try {
+                result = js.executeScript(CHECK_SCRIPT.formatted(signalsFunction()), loginAllowed, wait);
+            } catch (WebDriverException e) {
+                // The document may be mid-navigation; the wait's own condition decides this round
+                return;
+            }
+            if (result instanceof List<?> values && values.size() == 2) {
+                loginAllowed = Boolean.TRUE.equals(values.get(0));
+                if (values.get(1) instanceof String failure) {
+                    throw failure(failure);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package org.fugazi.utils;
+
+import java.time.Duration;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.fugazi.config.ConfigurationManager;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Zero-wait element probes that bypass the driver's implicit wait.
+ * The implicit wait is session-wide, so it is dropped to zero when the first probe on a driver starts
+ * and restored when the last concurrent probe on that driver finishes (reference counted per driver).
+ * Absent-element probes record the implicit-wait time they avoided in {@link RunMetrics}.
+ */
+public final class ImplicitWaitGuard {
+
+    private static final Logger log = LoggerFactory.getLogger(ImplicitWaitGuard.class);
+    private static final Map<WebDriver, ProbeState> states = new IdentityHashMap<>();
+
+    private ImplicitWaitGuard() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Get the implicit wait that should be applied to driver sessions.
+     * Returns zero when the suite runs in explicit-waits-only mode.
+     *
+     * @return the effective implicit wait
+     */
+    public static Duration effectiveImplicitWait() {
+        var config = ConfigurationManager.getInstance();
+        return config.isExplicitWaitsOnly() ? Duration.ZERO : Duration.ofSeconds(config.getImplicitWait());
+    }
+
+    /**
+     * Find all elements matching the locator without waiting for them to appear.
+     *
+     * @param driver  the WebDriver instance
+     * @param locator the element locator
+     * @return matching elements, empty if none are currently present
+     */
+    public static List<WebElement> findElementsNow(WebDriver driver, By locator) {
+        var start = System.nanoTime();
+        var implicitWait = effectiveImplicitWait();
+
+        List<WebElement> elements;
+        if (implicitWait.isZero()) {
+            elements = driver.findElements(locator);
+        } else {
+            enter(driver);
+            try {
+                elements = driver.findElements(locator);
+            } finally {
+                exit(driver, implicitWait);
+            }
+        }
+
+        recordProbe(elements.isEmpty(), System.nanoTime() - start);
+        return elements;
+    }
+
+    /**
+     * Log and record the total implicit-wait time removed by zero-wait probes in this fork.
+     */
+    public static void reportSavings() {
+        var savedMillis = RunMetrics.counter("probe.saved.ms");
+        if (savedMillis > 0) {
+            log.info("Zero-wait probes: {} calls, {} absent, ~{} s of implicit-wait stalls avoided",
+                    RunMetrics.counter("probe.calls"), RunMetrics.counter("probe.absent"), savedMillis / 1000);
+        }
+    }
+
+    private static void enter(WebDriver driver) {
+        while (true) {
+            ProbeState state;
+            synchronized (states) {
+                state = states.computeIfAbsent(driver, key -> new ProbeState());
+            }
+            synchronized (state) {
+                if (state.retired) {
+                    // Lost a race with the last exit of a previous probe; pick up a fresh state
+                    continue;
+                }
+                if (state.depth++ == 0) {
+                    driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+                }
+                return;
+            }
+        }
+    }
+
+    private static void exit(WebDriver driver, Duration implicitWait) {
+        ProbeState state;
+        synchronized (states) {
+            state = states.get(driver);
+        }
+        synchronized (state) {
+            if (--state.depth == 0) {
+                // Restore while still holding the state so a concurrent enter cannot zero it in between
+                try {
+                    driver.manage().timeouts().implicitlyWait(implicitWait);
+                } finally {
+                    state.retired = true;
+                    synchronized (states) {
+                        states.remove(driver);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void recordProbe(boolean absent, long elapsedNanos) {
+        RunMetrics.increment("probe.calls");
+        if (absent) {
+            var configuredMillis = ConfigurationManager.getInstance().getImplicitWait() * 1000L;
+            var elapsedMillis = elapsedNanos / 1_000_000;
+            RunMetrics.increment("probe.absent");
+            RunMetrics.increment("probe.saved.ms", Math.max(0, configuredMillis - elapsedMillis));
+        }
+    }
+
+    /**
+     * Reference count of in-flight probes on a single driver.
+     */
+    private static final class ProbeState {
+        private int depth;
+        private boolean retired;
+    }
+}
@@ -0,0 +1,128 @@
+package org.fugazi.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Fixed-size log-linear latency histogram in microseconds, in the style of HdrHistogram: values below 32 µs are
+ * counted exactly and larger values fall into 16 sub-buckets per power of two, which bounds the relative error
+ * of any reported percentile at about 3% over the whole range while using a few kilobytes per histogram.
+ * Recording is a single array increment and is not synchronized; each instance must have a single writer.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 16;
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+    // Up to 2^40 µs (about 12 days), far beyond any command
+    private static final int MAX_SHIFT = 36;
+    private static final int BUCKETS = LINEAR_LIMIT + MAX_SHIFT * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long totalMicros;
+    private long maxMicros;
+
+    /**
+     * Record one latency.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    public void record(long nanos) {
+        var micros = Math.max(0, nanos / 1_000);
+        counts[indexOf(micros)]++;
+        count++;
+        totalMicros += micros;
+        maxMicros = Math.max(maxMicros, micros);
+    }
+
+    /**
+     * Add all values of another histogram to this one.
+     *
+     * @param other the histogram to merge
+     */
+    public void add(LatencyHistogram other) {
+        for (var i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        totalMicros += other.totalMicros;
+        maxMicros = Math.max(maxMicros, other.maxMicros);
+    }
+
+    /**
+     * Get the number of recorded values.
+     *
+     * @return the count
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Get the sum of all recorded values.
+     *
+     * @return the total in microseconds
+     */
+    public long totalMicros() {
+        return totalMicros;
+    }
+
+    /**
+     * Get the value below which the given share of recorded values fall.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the value in microseconds, or 0 if nothing was recorded
+     */
+    public long percentileMicros(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        var rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        var seen = 0L;
+        for (var i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(maxMicros, highestEquivalentValue(i));
+            }
+        }
+        return maxMicros;
+    }
+
+    /**
+     * Summarize the histogram in milliseconds for reports.
+     *
+     * @return count, p50, p95, p99, max and total
+     */
+    public Map<String, Object> summary() {
+        var summary = new LinkedHashMap<String, Object>();
+        summary.put("count", count);
+        summary.put("p50Ms", millis(percentileMicros(50)));
+        summary.put("p95Ms", millis(percentileMicros(95)));
+        summary.put("p99Ms", millis(percentileMicros(99)));
+        summary.put("maxMs", millis(maxMicros));
+        summary.put("totalMs", millis(totalMicros));
+        return summary;
+    }
+
+    private static double millis(long micros) {
+        return Math.round(micros / 100.0) / 10.0;
+    }
+
+    private static int indexOf(long micros) {
+        if (micros < LINEAR_LIMIT) {
+            return (int) micros;
+        }
+        var shift = Math.min(MAX_SHIFT, 63 - Long.numberOfLeadingZeros(micros) - 4);
+        var subBucket = (int) Math.min(micros >> shift, LINEAR_LIMIT - 1) - SUB_BUCKETS;
+        return LINEAR_LIMIT + (shift - 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long highestEquivalentValue(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        var shift = (index - LINEAR_LIMIT) / SUB_BUCKETS + 1;
+        var subBucket = (index - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((long) (subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,118 @@
+package org.fugazi.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import io.qameta.allure.Allure;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Records Navigation and Resource Timing figures for page loads, grouped by rendering mode ("lean" or "full"),
+ * including how many same-origin resources the browser's HTTP cache served.
+ * Each sample is attached to the Allure report of the current test and summed into {@link RunMetrics},
+ * so lean and full runs can be compared per load and across the suite.
+ */
+public final class PageLoadTimings {
+
+    private static final Logger log = LoggerFactory.getLogger(PageLoadTimings.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String[] MODES = {"lean", "full"};
+
+    private static final String TIMING_SCRIPT = """
+            const nav = performance.getEntriesByType('navigation')[0];
+            if (!nav) {
+                return null;
+            }
+            const resources = performance.getEntriesByType('resource');
+            const bytes = resources.reduce((sum, entry) => sum + (entry.transferSize || 0), nav.transferSize || 0);
+            // Same-origin entries expose sizes; a zero transfer size with a body means the HTTP cache served it
+            const sameOrigin = resources.filter(entry => entry.name.startsWith(location.origin));
+            const cached = sameOrigin.filter(entry => entry.transferSize === 0 && entry.decodedBodySize > 0);
+            return JSON.stringify({
+                url: nav.name,
+                ttfbMs: Math.round(nav.responseStart),
+                domContentLoadedMs: Math.round(nav.domContentLoadedEventEnd),
+                loadMs: Math.round(nav.loadEventEnd || performance.now()),
+                resources: resources.length,
+                transferBytes: bytes,
+                sameOriginResources: sameOrigin.length,
+                cacheHits: cached.length,
+                cacheSavedBytes: cached.reduce((sum, entry) => sum + (entry.encodedBodySize || 0), 0)
+            });
+            """;
+
+    private PageLoadTimings() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Record the timing of the document currently loaded in the session.
+     *
+     * @param driver the WebDriver instance
+     * @param mode   the rendering mode the page was loaded with, "lean" or "full"
+     */
+    public static void record(WebDriver driver, String mode) {
+        try {
+            var json = (String) ((JavascriptExecutor) driver).executeScript(TIMING_SCRIPT);
+            if (json == null) {
+                return;
+            }
+            Map<String, Object> timing = MAPPER.readValue(json, new TypeReference<>() {
+            });
+
+            var prefix = "page.load." + mode;
+            RunMetrics.increment(prefix + ".samples");
+            RunMetrics.increment(prefix + ".ms", ((Number) timing.get("loadMs")).longValue());
+            RunMetrics.increment(prefix + ".dcl.ms", ((Number) timing.get("domContentLoadedMs")).longValue());
+            RunMetrics.increment(prefix + ".bytes", ((Number) timing.get("transferBytes")).longValue());
+            RunMetrics.increment(prefix + ".resources", ((Number) timing.get("resources")).longValue());
+            RunMetrics.increment("http.cache.requests", ((Number) timing.get("sameOriginResources")).longValue());
+            RunMetrics.increment("http.cache.hits", ((Number) timing.get("cacheHits")).longValue());
+            RunMetrics.increment("http.cache.saved.bytes", ((Number) timing.get("cacheSavedBytes")).longValue());
+
+            Allure.addAttachment("Page load timing (" + mode + ")", "application/json",
+                    new String(MAPPER.writerWithDefaultPrettyPrinter().writeValueAsBytes(timing),
+                            StandardCharsets.UTF_8), ".json");
+        } catch (WebDriverException | IOException | ClassCastException e) {
+            log.debug("Page load timing unavailable: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Publish per-mode averages and the HTTP cache hit ratio as gauges and log a comparison.
+     * Call once before the metrics report is written.
+     */
+    public static void report() {
+        for (var mode : MODES) {
+            var prefix = "page.load." + mode;
+            var samples = RunMetrics.counter(prefix + ".samples");
+            if (samples == 0) {
+                continue;
+            }
+            var avgLoad = (double) RunMetrics.counter(prefix + ".ms") / samples;
+            var avgBytes = (double) RunMetrics.counter(prefix + ".bytes") / samples;
+            RunMetrics.gauge(prefix + ".avg.ms", avgLoad);
+            RunMetrics.gauge(prefix + ".avg.dcl.ms", (double) RunMetrics.counter(prefix + ".dcl.ms") / samples);
+            RunMetrics.gauge(prefix + ".avg.bytes", avgBytes);
+            log.info("Page loads ({}): {} samples, avg load {} ms, avg transfer {} KB",
+                    mode, samples, Math.round(avgLoad), Math.round(avgBytes / 1024));
+        }
+
+        var cacheRequests = RunMetrics.counter("http.cache.requests");
+        if (cacheRequests > 0) {
+            var hitRatio = (double) RunMetrics.counter("http.cache.hits") / cacheRequests;
+            RunMetrics.gauge("http.cache.hit.ratio", hitRatio);
+            log.info("HTTP cache: {}% of {} same-origin resources served from cache, {} KB not downloaded",
+                    Math.round(hitRatio * 100), cacheRequests, RunMetrics.counter("http.cache.saved.bytes") / 1024);
+        }
+    }
+}
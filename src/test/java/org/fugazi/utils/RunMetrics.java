@@ -0,0 +1,118 @@
+package org.fugazi.utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Per-fork registry of run-level metrics (counters and gauges).
+ * Values are collected while tests run and written as a JSON report when the launcher session closes.
+ */
+public final class RunMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(RunMetrics.class);
+    private static final String METRICS_DIR = "target/metrics";
+    private static final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private static final Map<String, Double> gauges = new ConcurrentHashMap<>();
+
+    private RunMetrics() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Add a value to a counter.
+     *
+     * @param name  the counter name
+     * @param delta the amount to add
+     */
+    public static void increment(String name, long delta) {
+        counters.computeIfAbsent(name, key -> new LongAdder()).add(delta);
+    }
+
+    /**
+     * Increment a counter by one.
+     *
+     * @param name the counter name
+     */
+    public static void increment(String name) {
+        increment(name, 1);
+    }
+
+    /**
+     * Set a gauge to the given value, replacing any previous value.
+     *
+     * @param name  the gauge name
+     * @param value the gauge value
+     */
+    public static void gauge(String name, double value) {
+        gauges.put(name, value);
+    }
+
+    /**
+     * Set a gauge only if it has not been recorded yet.
+     *
+     * @param name  the gauge name
+     * @param value the gauge value
+     * @return true if this call recorded the value
+     */
+    public static boolean gaugeIfAbsent(String name, double value) {
+        return gauges.putIfAbsent(name, value) == null;
+    }
+
+    /**
+     * Raise a gauge to the given value if it is higher than the recorded one.
+     *
+     * @param name  the gauge name
+     * @param value the observed value
+     */
+    public static void gaugeMax(String name, double value) {
+        gauges.merge(name, value, Math::max);
+    }
+
+    /**
+     * Get the current value of a counter.
+     *
+     * @param name the counter name
+     * @return the counter value, or 0 if never incremented
+     */
+    public static long counter(String name) {
+        var adder = counters.get(name);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    /**
+     * Write all collected metrics to target/metrics/run-metrics-{pid}.json.
+     */
+    public static void writeReport() {
+        if (counters.isEmpty() && gauges.isEmpty()) {
+            return;
+        }
+
+        var report = new LinkedHashMap<String, Object>();
+        report.put("pid", ProcessHandle.current().pid());
+        var counterValues = new TreeMap<String, Long>();
+        counters.forEach((name, adder) -> counterValues.put(name, adder.sum()));
+        report.put("counters", counterValues);
+        report.put("gauges", new TreeMap<>(gauges));
+
+        try {
+            var metricsDir = Paths.get(METRICS_DIR);
+            Files.createDirectories(metricsDir);
+            var destination = metricsDir.resolve("run-metrics-" + ProcessHandle.current().pid() + ".json");
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(destination.toFile(), report);
+            log.info("Run metrics written: {}", destination);
+        } catch (IOException e) {
+            log.error("Failed to write run metrics: {}", e.getMessage());
+        }
+    }
+}
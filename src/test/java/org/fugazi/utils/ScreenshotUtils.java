@@ -1,10 +1,10 @@
 package org.fugazi.utils;
 
-import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Base64;
 
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
@@ -45,40 +45,58 @@ public class ScreenshotUtils {
     }
 
     /**
-     * Take a screenshot and save to file.
+     * Take a screenshot and save it to target/screenshots. Only the capture happens on the calling thread;
+     * the image is decoded and written by the {@link ArtifactWriter}.
      *
      * @param driver   the WebDriver instance
      * @param testName the name of the test (used in filename)
      */
     public static void takeScreenshotToFile(WebDriver driver, String testName) {
+        var screenshot = captureBase64(driver);
+        if (screenshot != null) {
+            ArtifactWriter.save(destination(testName), () -> Base64.getDecoder().decode(screenshot));
+        }
+    }
+
+    /**
+     * Take a screenshot, attach it to the current test in the Allure report and link it into
+     * target/screenshots. Only the capture and its hash happen on the calling thread (see {@link ArtifactStore}).
+     *
+     * @param driver   the WebDriver instance
+     * @param name     the attachment name
+     * @param testName the name of the test (used in filename)
+     */
+    public static void attachScreenshot(WebDriver driver, String name, String testName) {
+        var screenshot = captureBase64(driver);
+        if (screenshot != null) {
+            ArtifactStore.attachScreenshot(name, screenshot, destination(testName));
+        }
+    }
+
+    /**
+     * Capture a screenshot as the driver returns it, leaving decoding to the writer thread.
+     *
+     * @param driver the WebDriver instance
+     * @return the base64-encoded PNG, or null if none could be taken
+     */
+    private static String captureBase64(WebDriver driver) {
         if (driver == null) {
             log.warn("Cannot take screenshot: driver is null");
-            return;
+            return null;
         }
 
         try {
-            // Create screenshots directory if it doesn't exist
-            var screenshotDir = Paths.get(SCREENSHOT_DIR);
-            if (!Files.exists(screenshotDir)) {
-                Files.createDirectories(screenshotDir);
-            }
-
-            // Generate filename with timestamp
-            var timestamp = LocalDateTime.now().format(FORMATTER);
-            var sanitizedTestName = testName.replaceAll("[^a-zA-Z0-9-_]", "_");
-            var filename = String.format("%s_%s.png", sanitizedTestName, timestamp);
-
-            // Take and save screenshot
-            var screenshotFile = ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
-            var destination = screenshotDir.resolve(filename);
-            Files.copy(screenshotFile.toPath(), destination);
-
-            log.info("Screenshot saved: {}", destination);
-
-        } catch (IOException e) {
-            log.error("Failed to save screenshot: {}", e.getMessage());
+            return ((TakesScreenshot) driver).getScreenshotAs(OutputType.BASE64);
+        } catch (Exception e) {
+            log.error("Failed to take screenshot: {}", e.getMessage());
+            return null;
         }
     }
 
+    private static Path destination(String testName) {
+        var timestamp = LocalDateTime.now().format(FORMATTER);
+        var sanitizedTestName = testName.replaceAll("[^a-zA-Z0-9-_]", "_");
+        return Paths.get(SCREENSHOT_DIR, String.format("%s_%s.png", sanitizedTestName, timestamp));
+    }
 }
 
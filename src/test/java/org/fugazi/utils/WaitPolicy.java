@@ -0,0 +1,175 @@
+package org.fugazi.utils;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.fugazi.config.ConfigurationManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Adaptive wait timeouts and polling intervals learned from how long each condition took in earlier runs.
+ * Conditions are keyed by page object and condition name. Once a condition has enough samples, its timeout
+ * becomes p99 x {@code wait.adaptive.factor} (never below {@code wait.adaptive.floor.ms} or half the
+ * configured timeout, never above the configured timeout) and it is polled at a quarter of its median latency, so fast conditions are checked
+ * often and hopeless waits give up early.
+ * Samples from this run are merged into {@code selenium.cache.dir} under a file lock when the fork ends.
+ */
+public final class WaitPolicy {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitPolicy.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String SAMPLES_FILE = "wait-latencies.json";
+    private static final int MAX_SAMPLES = 200;
+    private static final Duration MIN_POLL = Duration.ofMillis(25);
+    private static final Duration DEFAULT_POLL = Duration.ofMillis(500);
+
+    private static final Map<String, Policy> policies = loadPolicies();
+    private static final Map<String, List<Long>> runSamples = new ConcurrentHashMap<>();
+
+    private WaitPolicy() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Timeout and polling interval for one wait.
+     *
+     * @param timeout the time to wait before giving up
+     * @param polling the interval between condition checks
+     */
+    public record Timing(Duration timeout, Duration polling) {
+    }
+
+    /**
+     * Learned latency profile of a condition.
+     *
+     * @param p50Millis the median time to satisfy
+     * @param p99Millis the 99th percentile time to satisfy
+     * @param samples   the number of samples the profile is based on
+     */
+    private record Policy(long p50Millis, long p99Millis, int samples) {
+    }
+
+    /**
+     * Get the timing to use for a condition.
+     *
+     * @param condition the condition key, e.g. "ProductsPage.urlChange"
+     * @param ceiling   the configured timeout, used as is until enough samples exist
+     * @return the timeout and polling interval
+     */
+    public static Timing timingFor(String condition, Duration ceiling) {
+        var config = ConfigurationManager.getInstance();
+        var policy = policies.get(condition);
+        if (!config.isWaitAdaptiveEnabled() || policy == null
+                || policy.samples() < config.getWaitAdaptiveMinSamples()) {
+            return new Timing(ceiling, DEFAULT_POLL);
+        }
+
+        // Half the ceiling bounds how far learned samples can shrink a wait, however fast earlier runs were
+        var floor = Math.max(config.getWaitAdaptiveFloorMs(), ceiling.toMillis() / 2);
+        var adaptive = Duration.ofMillis(Math.max(floor, policy.p99Millis() * config.getWaitAdaptiveFactor()));
+        var timeout = adaptive.compareTo(ceiling) < 0 ? adaptive : ceiling;
+        var polling = Duration.ofMillis(Math.clamp(policy.p50Millis() / 4,
+                MIN_POLL.toMillis(), DEFAULT_POLL.toMillis()));
+        return new Timing(timeout, polling);
+    }
+
+    /**
+     * Record how long a condition took. Timed-out waits are recorded at the timeout, which raises the
+     * condition's p99 and therefore its next timeout.
+     *
+     * @param condition the condition key
+     * @param elapsed   the time the wait took
+     * @param satisfied whether the condition was met
+     */
+    public static void record(String condition, Duration elapsed, boolean satisfied) {
+        runSamples.computeIfAbsent(condition, key -> Collections.synchronizedList(new ArrayList<>()))
+                .add(elapsed.toMillis());
+        if (!satisfied) {
+            RunMetrics.increment("wait.adaptive.timeouts");
+        }
+    }
+
+    /**
+     * Merge this fork's samples into the shared history file, keeping the newest samples per condition.
+     */
+    public static void persist() {
+        if (runSamples.isEmpty()) {
+            return;
+        }
+
+        var cacheDir = Paths.get(ConfigurationManager.getInstance().getSeleniumCacheDir());
+        var samplesFile = cacheDir.resolve(SAMPLES_FILE);
+        try {
+            Files.createDirectories(cacheDir);
+            try (var channel = FileChannel.open(cacheDir.resolve(SAMPLES_FILE + ".lock"),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 var ignored = channel.lock()) {
+                var history = read(samplesFile);
+                runSamples.forEach((condition, samples) -> {
+                    var merged = new ArrayList<>(history.getOrDefault(condition, List.of()));
+                    synchronized (samples) {
+                        merged.addAll(samples);
+                    }
+                    history.put(condition,
+                            new ArrayList<>(merged.subList(Math.max(0, merged.size() - MAX_SAMPLES), merged.size())));
+                });
+
+                var temp = samplesFile.resolveSibling(SAMPLES_FILE + ".tmp");
+                MAPPER.writeValue(temp.toFile(), history);
+                Files.move(temp, samplesFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            log.debug("Persisted wait latencies for {} condition(s)", runSamples.size());
+        } catch (IOException e) {
+            log.warn("Could not persist wait latencies: {}", e.getMessage());
+        }
+    }
+
+    private static Map<String, Policy> loadPolicies() {
+        var samplesFile = Paths.get(ConfigurationManager.getInstance().getSeleniumCacheDir(), SAMPLES_FILE);
+        var loaded = new HashMap<String, Policy>();
+        read(samplesFile).forEach((condition, samples) -> {
+            if (!samples.isEmpty()) {
+                var sorted = samples.stream().sorted().toList();
+                loaded.put(condition, new Policy(percentile(sorted, 50), percentile(sorted, 99), sorted.size()));
+            }
+        });
+        if (!loaded.isEmpty()) {
+            log.debug("Loaded wait latency history for {} condition(s)", loaded.size());
+        }
+        return loaded;
+    }
+
+    private static long percentile(List<Long> sorted, int percentile) {
+        var index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.clamp(index, 0, sorted.size() - 1));
+    }
+
+    private static Map<String, List<Long>> read(Path samplesFile) {
+        if (!Files.exists(samplesFile)) {
+            return new HashMap<>();
+        }
+        try {
+            return MAPPER.readValue(samplesFile.toFile(), new TypeReference<HashMap<String, List<Long>>>() {
+            });
+        } catch (IOException e) {
+            log.debug("Ignoring unreadable wait latency history: {}", e.getMessage());
+            return new HashMap<>();
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package org.fugazi.utils;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.fugazi.jfr.WaitEvent;
+import org.fugazi.tracing.Tracing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Attributes test wall time to explicit waits, implicit-wait stalls, navigations and backoff sleeps.
+ * Time spans nest: a span's own time excludes the spans opened inside it, so e.g. the backoff between
+ * navigation attempts is not counted as navigation. Whatever no span covers is interaction.
+ * Per-test breakdowns are built by {@link org.fugazi.listeners.WaitProfileExtension}; every span is also summed
+ * per call site. When a fork ends it saves its per-site sums and merges those of every fork of the same run
+ * into one ranked table in target/metrics/wait-sinks.txt, so the last fork to finish leaves the suite-level
+ * table. Each span is also emitted as a {@link WaitEvent} for flight recordings and traced by {@link Tracing}.
+ */
+public final class WaitProfiler {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitProfiler.class);
+    private static final String METRICS_DIR = "target/metrics";
+    private static final String SINKS_PREFIX = "wait-sinks-";
+    private static final int TOP_SINKS = 20;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final AttributeKey<String> CATEGORY_ATTRIBUTE = AttributeKey.stringKey("wait.category");
+    private static final AttributeKey<String> SITE_ATTRIBUTE = AttributeKey.stringKey("wait.site");
+
+    private static final Map<String, Sink> sinks = new ConcurrentHashMap<>();
+    private static final ThreadLocal<ThreadState> state = ThreadLocal.withInitial(ThreadState::new);
+
+    private WaitProfiler() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Kinds of time that are not interaction.
+     */
+    public enum Category {
+        EXPLICIT_WAIT("explicit wait"),
+        IMPLICIT_WAIT("implicit wait"),
+        NAVIGATION("navigation"),
+        BACKOFF("backoff");
+
+        private final String label;
+
+        Category(String label) {
+            this.label = label;
+        }
+
+        /**
+         * Get the label used in reports.
+         *
+         * @return the label
+         */
+        public String label() {
+            return label;
+        }
+    }
+
+    /**
+     * Time attributed to the test that ran on a thread.
+     *
+     * @param wallNanos     the test's wall time, including setup and teardown
+     * @param categoryNanos the time spent in each category
+     */
+    public record Breakdown(long wallNanos, Map<Category, Long> categoryNanos) {
+
+        /**
+         * Get the wall time no span covered.
+         *
+         * @return the interaction time in nanoseconds
+         */
+        public long interactionNanos() {
+            return Math.max(0, wallNanos - categoryNanos.values().stream().mapToLong(Long::longValue).sum());
+        }
+
+        /**
+         * Render the breakdown as a table.
+         *
+         * @return one line per category with its time and share of the wall time
+         */
+        public String toTable() {
+            var table = new StringBuilder(String.format("%-14s %10s %6s%n", "category", "ms", "share"));
+            for (var category : Category.values()) {
+                appendRow(table, category.label(), categoryNanos.getOrDefault(category, 0L));
+            }
+            appendRow(table, "interaction", interactionNanos());
+            appendRow(table, "total", wallNanos);
+            return table.toString();
+        }
+
+        private void appendRow(StringBuilder table, String label, long nanos) {
+            var share = wallNanos == 0 ? 0 : 100.0 * nanos / wallNanos;
+            table.append(String.format("%-14s %10d %5.1f%%%n", label, nanos / 1_000_000, share));
+        }
+    }
+
+    /**
+     * An open time span. Close it when the wait, navigation or sleep ends.
+     */
+    public static final class Span implements AutoCloseable {
+
+        private final Category category;
+        private final String site;
+        private final long start = System.nanoTime();
+        private final WaitEvent event = new WaitEvent();
+        private final Tracing.ScopedSpan trace;
+        private long childNanos;
+
+        private Span(Category category, String site) {
+            this.category = category;
+            this.site = site;
+            this.trace = Tracing.start(category.label() + " " + site,
+                    Attributes.of(CATEGORY_ATTRIBUTE, category.label(), SITE_ATTRIBUTE, site));
+            event.begin();
+        }
+
+        @Override
+        public void close() {
+            trace.close();
+            var current = state.get();
+            if (current.open.peek() != this) {
+                return;
+            }
+            current.open.pop();
+            event.end();
+            if (event.shouldCommit()) {
+                event.category = category.label();
+                event.site = site;
+                event.commit();
+            }
+            var elapsed = System.nanoTime() - start;
+            attribute(current, category, site, elapsed - childNanos);
+            var parent = current.open.peek();
+            if (parent != null) {
+                parent.childNanos += elapsed;
+            }
+        }
+    }
+
+    /**
+     * Open a span on the current thread.
+     *
+     * @param category what the time is spent on
+     * @param site     where, e.g. "ProductsPage.contentLoaded"
+     * @return the span to close when the activity ends
+     */
+    public static Span start(Category category, String site) {
+        var span = new Span(category, site);
+        state.get().open.push(span);
+        return span;
+    }
+
+    /**
+     * Record time that was measured elsewhere, such as a command stalled by the implicit wait.
+     *
+     * @param category what the time was spent on
+     * @param site     where
+     * @param nanos    the time spent
+     */
+    public static void record(Category category, String site, long nanos) {
+        var current = state.get();
+        attribute(current, category, site, nanos);
+        var parent = current.open.peek();
+        if (parent != null) {
+            parent.childNanos += nanos;
+        }
+    }
+
+    /**
+     * Start attributing time to a new test on the current thread.
+     */
+    public static void beginTest() {
+        var current = state.get();
+        current.testStart = System.nanoTime();
+        current.testNanos.clear();
+        current.open.clear();
+    }
+
+    /**
+     * Finish the current thread's test.
+     *
+     * @return the test's time breakdown
+     */
+    public static Breakdown endTest() {
+        var current = state.get();
+        var wall = current.testStart == 0 ? 0 : System.nanoTime() - current.testStart;
+        var breakdown = new Breakdown(wall, new EnumMap<>(current.testNanos));
+        current.testStart = 0;
+        current.testNanos.clear();
+        current.open.clear();
+        RunMetrics.increment("wait.profile.wall.ms", wall / 1_000_000);
+        breakdown.categoryNanos().forEach((category, nanos) -> RunMetrics.increment(
+                "wait.profile." + category.name().toLowerCase(Locale.ROOT) + ".ms", nanos / 1_000_000));
+        return breakdown;
+    }
+
+    /**
+     * Save this fork's per-site sums to target/metrics/wait-sinks-{run}-{pid}.json, then merge the sums of every
+     * fork of this run into target/metrics/wait-sinks.txt and the log. Forks of one run share the parent
+     * process, which names the run. Call once after the fork's last test.
+     */
+    public static void writeReport() {
+        if (sinks.isEmpty()) {
+            return;
+        }
+
+        var run = ProcessHandle.current().parent().map(ProcessHandle::pid).orElse(0L);
+        var totals = sinks.values().stream()
+                .map(sink -> new SinkTotal(sink.category, sink.site, sink.count.sum(), sink.nanos.sum()))
+                .toList();
+        try {
+            var metricsDir = Paths.get(METRICS_DIR);
+            Files.createDirectories(metricsDir);
+            var forkPrefix = SINKS_PREFIX + run + "-";
+            MAPPER.writeValue(metricsDir.resolve(forkPrefix + ProcessHandle.current().pid() + ".json").toFile(),
+                    totals);
+
+            try (var channel = FileChannel.open(metricsDir.resolve(SINKS_PREFIX + "merge.lock"),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 var ignored = channel.lock()) {
+                var merged = new HashMap<String, SinkTotal>();
+                var forks = 0;
+                try (var files = Files.newDirectoryStream(metricsDir, forkPrefix + "*.json")) {
+                    for (var file : files) {
+                        forks++;
+                        for (var total : readTotals(file)) {
+                            merged.merge(total.category() + " " + total.site(), total, SinkTotal::plus);
+                        }
+                    }
+                }
+
+                var table = table(merged.values().stream().toList());
+                var destination = metricsDir.resolve("wait-sinks.txt");
+                var temp = metricsDir.resolve("wait-sinks.txt.tmp");
+                Files.writeString(temp, table, StandardCharsets.UTF_8);
+                Files.move(temp, destination, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                log.info("Top {} wait sinks across {} fork(s) (written to {}):{}{}", TOP_SINKS, forks, destination,
+                        System.lineSeparator(), table);
+            }
+        } catch (IOException e) {
+            log.error("Failed to write wait sinks: {}", e.getMessage());
+        }
+    }
+
+    private static String table(List<SinkTotal> totals) {
+        var table = new StringBuilder(String.format("%-4s %-14s %-70s %8s %10s %9s%n",
+                "rank", "category", "site", "count", "total ms", "mean ms"));
+        var rank = 0;
+        for (var total : totals.stream().sorted(Comparator.comparingLong(SinkTotal::nanos).reversed())
+                .limit(TOP_SINKS).toList()) {
+            var totalMillis = total.nanos() / 1_000_000;
+            table.append(String.format("%-4d %-14s %-70s %8d %10d %9d%n", ++rank, total.category().label(),
+                    abbreviate(total.site(), 70), total.count(), totalMillis,
+                    total.count() == 0 ? 0 : totalMillis / total.count()));
+        }
+        return table.toString();
+    }
+
+    private static List<SinkTotal> readTotals(Path file) {
+        try {
+            return MAPPER.readValue(file.toFile(), new TypeReference<List<SinkTotal>>() {
+            });
+        } catch (IOException e) {
+            log.debug("Ignoring unreadable wait sinks {}: {}", file, e.getMessage());
+            return List.of();
+        }
+    }
+
+    private static void attribute(ThreadState current, Category category, String site, long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        if (current.testStart != 0) {
+            current.testNanos.merge(category, nanos, Long::sum);
+        }
+        var sink = sinks.computeIfAbsent(category.name() + " " + site, key -> new Sink(category, site));
+        sink.nanos.add(nanos);
+        sink.count.increment();
+    }
+
+    private static String abbreviate(String value, int width) {
+        return value.length() <= width ? value : value.substring(0, width - 3) + "...";
+    }
+
+    /**
+     * Time accumulated at one call site, as saved per fork and merged across forks.
+     *
+     * @param category the kind of time
+     * @param site     the call site
+     * @param count    the number of spans
+     * @param nanos    the total time
+     */
+    private record SinkTotal(Category category, String site, long count, long nanos) {
+
+        SinkTotal plus(SinkTotal other) {
+            return new SinkTotal(category, site, count + other.count, nanos + other.nanos);
+        }
+    }
+
+    /**
+     * Time accumulated at one call site across the fork.
+     */
+    private static final class Sink {
+        private final Category category;
+        private final String site;
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder count = new LongAdder();
+
+        private Sink(Category category, String site) {
+            this.category = category;
+            this.site = site;
+        }
+    }
+
+    /**
+     * Open spans and test totals of a single thread.
+     */
+    private static final class ThreadState {
+        private final ArrayDeque<Span> open = new ArrayDeque<>();
+        private final Map<Category, Long> testNanos = new EnumMap<>(Category.class);
+        private long testStart;
+    }
+}